@@ -0,0 +1,18 @@
+package com.sw3.reservation_microservice.access;
+
+/**
+ * Fila del agregado de minutos reservados por barbero, día y hora del día
+ * (ver {@link ReservationRepository#sumBookedMinutesByHour}).
+ */
+public interface BookedMinutesByHour {
+
+    String getBarberId();
+
+    /** Días desde el inicio del rango consultado */
+    Integer getDayOffset();
+
+    /** Hora del día (0-23) */
+    Integer getHour();
+
+    Long getBookedMinutes();
+}
@@ -0,0 +1,45 @@
+package com.sw3.reservation_microservice.access;
+
+import com.sw3.reservation_microservice.domain.model.IdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, String> {
+
+    /**
+     * Borra en una sola sentencia las claves vencidas.
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM IdempotencyKey k WHERE k.expiresAt < :now")
+    int deleteExpired(@Param("now") Instant now);
+
+    /**
+     * Inserta la clave en una sola sentencia. Si ya existe se conserva la guardada, salvo que
+     * esté vencida y aún no se haya purgado: entonces se reemplaza. Devuelve las filas escritas.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+        INSERT INTO idempotency_keys (scoped_key, request_fingerprint, response_body, created_at, expires_at)
+        VALUES (:scopedKey, :fingerprint, :body, :createdAt, :expiresAt)
+        ON CONFLICT (scoped_key) DO UPDATE
+            SET request_fingerprint = EXCLUDED.request_fingerprint,
+                response_body = EXCLUDED.response_body,
+                created_at = EXCLUDED.created_at,
+                expires_at = EXCLUDED.expires_at
+            WHERE idempotency_keys.expires_at < EXCLUDED.created_at
+        """, nativeQuery = true)
+    int insertIfAbsent(@Param("scopedKey") String scopedKey,
+                       @Param("fingerprint") String fingerprint,
+                       @Param("body") String body,
+                       @Param("createdAt") Instant createdAt,
+                       @Param("expiresAt") Instant expiresAt);
+}
@@ -1,18 +1,39 @@
 package com.sw3.reservation_microservice.access;
 
+import com.sw3.reservation_microservice.controller.dto.response.ReservationListItemDTO;
 import com.sw3.reservation_microservice.domain.model.Reservation;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ReservationRepository extends JpaRepository<Reservation, Long> {
 
+    /** Filas por viaje al servidor en la exportación */
+    int EXPORT_BATCH_SIZE = 500;
+
+    /**
+     * Proyección de las consultas de lectura: construye el DTO directamente desde las columnas,
+     * sin entidades administradas (ni snapshot para dirty checking ni @PostLoad).
+     */
+    String LIST_ITEM = "SELECT new com.sw3.reservation_microservice.controller.dto.response.ReservationListItemDTO(" +
+                       "r.id, r.clientId, r.barberId, r.serviceId, r.startTime, r.endTime, r.price, r.status) " +
+                       "FROM Reservation r ";
+
     /**
      * [RF14] CRÍTICO: Busca reservas que se solapen con un nuevo intervalo de tiempo para un barbero específico.
      * Esencial para evitar dobles reservas.
@@ -20,34 +41,198 @@ public interface ReservationRepository extends JpaRepository<Reservation, Long>
     @Query("SELECT r FROM Reservation r WHERE r.barberId = :barberId AND r.startTime < :end AND r.endTime > :start AND r.status <> 'CANCELADA'")
     List<Reservation> findOverlappingReservations(@Param("barberId") String barberId, @Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
 
+    /**
+     * Indica si hay alguna reserva no cancelada del barbero que se solape con [start, end),
+     * ignorando la reserva excluida (la que se reprograma) si se indica.
+     */
+    @Query("SELECT COUNT(r) > 0 FROM Reservation r WHERE r.barberId = :barberId AND r.startTime < :end " +
+           "AND r.endTime > :start AND r.status <> 'CANCELADA' AND (:excludedId IS NULL OR r.id <> :excludedId)")
+    boolean existsOverlapping(@Param("barberId") String barberId, @Param("start") LocalDateTime start,
+                              @Param("end") LocalDateTime end, @Param("excludedId") Long excludedId);
+
     /**
      * [RF15] Busca las reservas activas (futuras) de un cliente, ordenadas por la más próxima.
      */
-    List<Reservation> findByClientIdAndStartTimeAfterOrderByStartTimeAsc(String clientId, LocalDateTime currentTime);
+    @Query(LIST_ITEM + "WHERE r.clientId = :clientId AND r.startTime > :currentTime ORDER BY r.startTime ASC")
+    List<ReservationListItemDTO> findUpcomingByClientId(@Param("clientId") String clientId, @Param("currentTime") LocalDateTime currentTime);
 
     /**
-     * [RF15] Busca el historial de reservas (pasadas) de un cliente, ordenadas por la más reciente.
+     * Lectura de una reserva por ID como DTO.
      */
-    List<Reservation> findByClientIdAndStartTimeBeforeOrderByStartTimeDesc(String clientId, LocalDateTime currentTime);
+    @Query(LIST_ITEM + "WHERE r.id = :id")
+    Optional<ReservationListItemDTO> findListItemById(@Param("id") Long id);
+
+    /**
+     * [RF15] Historial completo de un cliente (reservas pasadas), la más reciente primero.
+     */
+    @Query(LIST_ITEM + "WHERE r.clientId = :clientId AND r.startTime < :currentTime ORDER BY r.startTime DESC, r.id DESC")
+    List<ReservationListItemDTO> findHistoryByClientId(@Param("clientId") String clientId, @Param("currentTime") LocalDateTime currentTime);
+
+    /**
+     * [RF15] Página del historial de un cliente (más reciente primero) a partir de la posición
+     * (afterStart, afterId), excluida. La primera página usa (ahora, Long.MIN_VALUE).
+     */
+    @Query(LIST_ITEM + "WHERE r.clientId = :clientId " +
+           "AND (r.startTime < :afterStart OR (r.startTime = :afterStart AND r.id < :afterId)) " +
+           "ORDER BY r.startTime DESC, r.id DESC")
+    List<ReservationListItemDTO> findHistoryPage(@Param("clientId") String clientId, @Param("afterStart") LocalDateTime afterStart,
+                                      @Param("afterId") Long afterId, Limit limit);
 
     /**
      * [RF18] Busca todas las reservas de un barbero para un día específico, ordenadas por hora de inicio.
      */
-    List<Reservation> findByBarberIdAndStartTimeBetweenOrderByStartTimeAsc(String barberId, LocalDateTime startOfDay, LocalDateTime endOfDay);
+    @Query(LIST_ITEM + "WHERE r.barberId = :barberId AND r.startTime BETWEEN :startOfDay AND :endOfDay ORDER BY r.startTime ASC")
+    List<ReservationListItemDTO> findDayByBarberId(@Param("barberId") String barberId, @Param("startOfDay") LocalDateTime startOfDay,
+                                                   @Param("endOfDay") LocalDateTime endOfDay);
     
     /**
-     * Obtiene todas las reservas activas (no canceladas) de un barbero, ordenadas por hora de inicio.
-     * Usado para calcular disponibilidad en el frontend.
+     * Todas las reservas activas y futuras de un barbero, en orden cronológico.
      */
-    @Query("SELECT r FROM Reservation r WHERE r.barberId = :barberId AND r.status <> 'CANCELADA' AND r.startTime >= :currentTime ORDER BY r.startTime ASC")
-    List<Reservation> findActiveReservationsByBarberId(@Param("barberId") String barberId, @Param("currentTime") LocalDateTime currentTime);
-    
+    @Query(LIST_ITEM + "WHERE r.barberId = :barberId AND r.status <> 'CANCELADA' AND r.startTime >= :currentTime " +
+           "ORDER BY r.startTime ASC, r.id ASC")
+    List<ReservationListItemDTO> findActiveByBarberId(@Param("barberId") String barberId, @Param("currentTime") LocalDateTime currentTime);
+
+    /**
+     * Página de las reservas activas de un barbero en orden cronológico a partir de la posición
+     * (afterStart, afterId), excluida. La primera página usa (ahora, Long.MIN_VALUE).
+     */
+    @Query(LIST_ITEM + "WHERE r.barberId = :barberId AND r.status <> 'CANCELADA' " +
+           "AND (r.startTime > :afterStart OR (r.startTime = :afterStart AND r.id > :afterId)) " +
+           "ORDER BY r.startTime ASC, r.id ASC")
+    List<ReservationListItemDTO> findActivePageByBarberId(@Param("barberId") String barberId, @Param("afterStart") LocalDateTime afterStart,
+                                               @Param("afterId") Long afterId, Limit limit);
+
+    /**
+     * Todas las reservas en orden (startTime, id).
+     */
+    @Query(LIST_ITEM + "ORDER BY r.startTime ASC, r.id ASC")
+    List<ReservationListItemDTO> findAllListItems();
+
+    /**
+     * Primera página de todas las reservas en orden (startTime, id).
+     */
+    @Query(LIST_ITEM + "ORDER BY r.startTime ASC, r.id ASC")
+    List<ReservationListItemDTO> findFirstPage(Limit limit);
+
+    /**
+     * Página siguiente de todas las reservas a partir de la posición (afterStart, afterId), excluida.
+     */
+    @Query(LIST_ITEM + "WHERE r.startTime > :afterStart OR (r.startTime = :afterStart AND r.id > :afterId) " +
+           "ORDER BY r.startTime ASC, r.id ASC")
+    List<ReservationListItemDTO> findPageAfter(@Param("afterStart") LocalDateTime afterStart, @Param("afterId") Long afterId, Limit limit);
+
+    /**
+     * Recorre todas las reservas con un cursor del lado del servidor (fetch size), sin cargarlas
+     * todas en memoria. Debe consumirse dentro de una transacción y cerrarse.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_BATCH_SIZE))
+    @Query(LIST_ITEM + "ORDER BY r.id")
+    Stream<ReservationListItemDTO> streamAllForExport();
+
+    /**
+     * Obtiene todas las reservas no canceladas que aún no terminan.
+     * Usado para poblar el índice de intervalos en memoria al arrancar.
+     */
+    @Query("SELECT r FROM Reservation r WHERE r.status <> 'CANCELADA' AND r.endTime > :currentTime")
+    List<Reservation> findOccupyingReservationsEndingAfter(@Param("currentTime") LocalDateTime currentTime);
+
+    /**
+     * Igual que la anterior pero para un solo barbero (recarga puntual del índice).
+     */
+    @Query("SELECT r FROM Reservation r WHERE r.barberId = :barberId AND r.status <> 'CANCELADA' AND r.endTime > :currentTime")
+    List<Reservation> findOccupyingReservationsByBarberEndingAfter(@Param("barberId") String barberId, @Param("currentTime") LocalDateTime currentTime);
+
     /**
      * [RF16] Busca una reserva específica por su ID y el ID del cliente que la posee.
      * Para seguridad, asegura que un cliente solo pueda ver/cancelar sus propias reservas.
      */
     Optional<Reservation> findByIdAndClientId(Long reservationId, String clientId);
 
+    /**
+     * Obtiene solo el barbero de una reserva (sin cargar la entidad).
+     * Se usa para tomar el bloqueo del barbero antes de cancelar o reprogramar.
+     */
+    @Query("SELECT r.barberId FROM Reservation r WHERE r.id = :reservationId")
+    Optional<String> findBarberIdById(@Param("reservationId") Long reservationId);
+
+    // -------------------------------------------------------------------
+    // Transiciones de estado como UPDATE condicional (una sola sentencia).
+    // Las guardas replican las reglas de EnEsperaState/EnProcesoState; si no se
+    // actualiza ninguna fila, el servicio carga la reserva y el patrón State
+    // lanza la excepción que corresponda.
+    // -------------------------------------------------------------------
+
+    /**
+     * Cancela la reserva si es del cliente, está EN_ESPERA y empieza en o después de cancellationLimit.
+     */
+    @Transactional
+    @Query(value = "UPDATE reservations SET status = 'CANCELADA' " +
+                   "WHERE id = :id AND client_id = :clientId AND status = 'EN_ESPERA' " +
+                   "AND start_time >= :cancellationLimit RETURNING *", nativeQuery = true)
+    Optional<Reservation> cancelIfAllowed(@Param("id") Long id, @Param("clientId") String clientId,
+                                          @Param("cancellationLimit") LocalDateTime cancellationLimit);
+
+    /**
+     * EN_ESPERA -> EN_PROCESO si el cliente llegó dentro de la tolerancia (inicio >= noShowLimit).
+     */
+    @Transactional
+    @Query(value = "UPDATE reservations SET status = 'EN_PROCESO' " +
+                   "WHERE id = :id AND status = 'EN_ESPERA' AND start_time >= :noShowLimit RETURNING *", nativeQuery = true)
+    Optional<Reservation> startServiceIfOnTime(@Param("id") Long id, @Param("noShowLimit") LocalDateTime noShowLimit);
+
+    /**
+     * EN_PROCESO -> FINALIZADA.
+     */
+    @Transactional
+    @Query(value = "UPDATE reservations SET status = 'FINALIZADA' " +
+                   "WHERE id = :id AND status = 'EN_PROCESO' RETURNING *", nativeQuery = true)
+    Optional<Reservation> finishService(@Param("id") Long id);
+
+    /**
+     * EN_ESPERA -> INASISTENCIA si ya pasó la tolerancia (inicio < noShowLimit).
+     */
+    @Transactional
+    @Query(value = "UPDATE reservations SET status = 'INASISTENCIA' " +
+                   "WHERE id = :id AND status = 'EN_ESPERA' AND start_time < :noShowLimit RETURNING *", nativeQuery = true)
+    Optional<Reservation> markNoShowIfLate(@Param("id") Long id, @Param("noShowLimit") LocalDateTime noShowLimit);
+
+    /**
+     * Cambia el horario solo si la reserva sigue EN_ESPERA y con el horario que se validó
+     * (evita pisar un cambio concurrente). Limpia el contexto de persistencia para que la
+     * entidad cargada antes no se vuelva a escribir al confirmar.
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE reservations SET start_time = :newStart, end_time = :newEnd " +
+                   "WHERE id = :id AND client_id = :clientId AND status = 'EN_ESPERA' " +
+                   "AND start_time = :previousStart", nativeQuery = true)
+    int rescheduleIfUnchanged(@Param("id") Long id, @Param("clientId") String clientId,
+                              @Param("previousStart") LocalDateTime previousStart,
+                              @Param("newStart") LocalDateTime newStart, @Param("newEnd") LocalDateTime newEnd);
+
+    /**
+     * Minutos reservados (no cancelados) por barbero, día y hora del día en [fromStart, toExclusive),
+     * en una sola pasada agregada. Cada reserva se reparte entre las horas que ocupa con
+     * generate_series, así que una reserva de 11:40 a 12:20 suma 20 minutos a cada hora.
+     * fromDay es el día de fromStart y sirve de origen de dayOffset.
+     */
+    @Query(value = "SELECT r.barber_id AS barberId, " +
+                   "CAST(h.bucket AS date) - :fromDay AS dayOffset, " +
+                   "CAST(EXTRACT(HOUR FROM h.bucket) AS integer) AS hour, " +
+                   "CAST(SUM(EXTRACT(EPOCH FROM LEAST(r.end_time, h.bucket + INTERVAL '1 hour') " +
+                   "- GREATEST(r.start_time, h.bucket))) / 60 AS bigint) AS bookedMinutes " +
+                   "FROM reservations r " +
+                   "CROSS JOIN LATERAL generate_series(date_trunc('hour', r.start_time), " +
+                   "r.end_time - INTERVAL '1 second', INTERVAL '1 hour') AS h(bucket) " +
+                   "WHERE r.barber_id IN (:barberIds) AND r.status <> 'CANCELADA' " +
+                   "AND r.start_time < :toExclusive AND r.end_time > :fromStart " +
+                   "AND h.bucket >= :fromStart AND h.bucket < :toExclusive " +
+                   "GROUP BY r.barber_id, CAST(h.bucket AS date), EXTRACT(HOUR FROM h.bucket)", nativeQuery = true)
+    List<BookedMinutesByHour> sumBookedMinutesByHour(@Param("barberIds") Collection<String> barberIds,
+                                                     @Param("fromDay") LocalDate fromDay,
+                                                     @Param("fromStart") LocalDateTime fromStart,
+                                                     @Param("toExclusive") LocalDateTime toExclusive);
+
     /**
      * [RF06] Verifica de forma eficiente si un barbero tiene reservas futuras activas.
      * Se usa antes de poder inactivar un barbero.
@@ -0,0 +1,24 @@
+package com.sw3.reservation_microservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Pool fork-join propio para la búsqueda del primer horario libre entre barberos,
+ * separado del pool común para no competir con parallel streams de otras partes.
+ */
+@Configuration
+public class AvailabilitySearchConfig {
+
+    public static final String AVAILABILITY_SEARCH_POOL = "availabilitySearchPool";
+
+    @Bean(name = AVAILABILITY_SEARCH_POOL, destroyMethod = "shutdown")
+    public ForkJoinPool availabilitySearchPool(
+            @Value("${reservation.availability.search.parallelism:0}") int parallelism) {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        return new ForkJoinPool(threads);
+    }
+}
@@ -0,0 +1,31 @@
+package com.sw3.reservation_microservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executor que vacía los buffers de los suscriptores SSE de disponibilidad. Los listeners de
+ * eventos solo encolan; el envío por red a cada cliente ocurre en estos hilos.
+ */
+@Configuration
+public class AvailabilityStreamConfig {
+
+    public static final String AVAILABILITY_STREAM_EXECUTOR = "availabilityStreamExecutor";
+
+    @Bean(name = AVAILABILITY_STREAM_EXECUTOR, destroyMethod = "shutdown")
+    public ExecutorService availabilityStreamExecutor(@Value("${reservation.availability.stream.threads:4}") int threads) {
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory factory = runnable -> {
+            Thread thread = new Thread(runnable, "availability-stream-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return Executors.newFixedThreadPool(threads, factory);
+    }
+}
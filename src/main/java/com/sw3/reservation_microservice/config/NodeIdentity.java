@@ -0,0 +1,26 @@
+package com.sw3.reservation_microservice.config;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Identificador de esta instancia del microservicio. Viaja en los mensajes de invalidación
+ * de caches para que cada nodo descarte los que publicó él mismo.
+ * Si reservation.node-id no está configurado se genera uno aleatorio en cada arranque.
+ */
+@Component
+@Getter
+@Slf4j
+public class NodeIdentity {
+
+    private final String nodeId;
+
+    public NodeIdentity(@Value("${reservation.node-id:}") String configuredNodeId) {
+        this.nodeId = configuredNodeId.isBlank() ? UUID.randomUUID().toString() : configuredNodeId;
+        log.info("[NodeIdentity] Nodo {}", nodeId);
+    }
+}
@@ -11,6 +11,7 @@ import org.springframework.context.annotation.Configuration;
 /**
  * Configuración de RabbitMQ para el microservicio de Reservas.
  * Publica eventos propios y escucha cambios de Barberos, Servicios y WorkShifts.
+ * Además, las instancias se avisan entre sí por un exchange fanout qué caches invalidar.
  */
 @Configuration
 public class RabbitMqConfig {
@@ -36,6 +37,9 @@ public class RabbitMqConfig {
     /** Exchange externo de workshifts */
     public static final String WORKSHIFT_EXCHANGE = "workshift.exchange";
 
+    /** Exchange fanout de invalidación de caches entre instancias de reservas */
+    public static final String CACHE_INVALIDATION_EXCHANGE = "reservation.cache.invalidation";
+
     // -------------------------------------------------------------------
     // 2. CONFIGURACIÓN DE JSON
     // -------------------------------------------------------------------
@@ -112,4 +116,25 @@ public class RabbitMqConfig {
     public Binding bindingWorkshiftEvents(Queue workshiftListenerQueue, TopicExchange workshiftExchange) {
         return BindingBuilder.bind(workshiftListenerQueue).to(workshiftExchange).with("workshift.#");
     }
+
+    // -------------------------------------------------------------------
+    // 7. INVALIDACIÓN DE CACHES ENTRE INSTANCIAS (Producer y Consumer)
+    // -------------------------------------------------------------------
+    // Las colas de arriba son compartidas: cada evento externo lo consume un solo nodo.
+    // Por eso cada instancia declara su propia cola anónima (exclusiva, se borra al
+    // desconectarse) enlazada a un fanout, y así todas reciben cada invalidación.
+    @Bean
+    public FanoutExchange cacheInvalidationExchange() {
+        return new FanoutExchange(CACHE_INVALIDATION_EXCHANGE);
+    }
+
+    @Bean
+    public Queue cacheInvalidationQueue() {
+        return new AnonymousQueue(new Base64UrlNamingStrategy(CACHE_INVALIDATION_EXCHANGE + "."));
+    }
+
+    @Bean
+    public Binding bindingCacheInvalidation(Queue cacheInvalidationQueue, FanoutExchange cacheInvalidationExchange) {
+        return BindingBuilder.bind(cacheInvalidationQueue).to(cacheInvalidationExchange);
+    }
 }
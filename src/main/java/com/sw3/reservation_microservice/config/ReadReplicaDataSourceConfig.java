@@ -0,0 +1,71 @@
+package com.sw3.reservation_microservice.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Modo opcional (reservation.datasource.replica.enabled=true) con dos pools:
+ * - primario: spring.datasource.* (y spring.datasource.hikari.*)
+ * - réplica: reservation.datasource.replica.* (y reservation.datasource.replica.hikari.*)
+ *
+ * El DataSource que usan JPA y JdbcTemplate enruta cada transacción con
+ * {@link ReplicaRoutingDataSource}. Sin la propiedad, Spring Boot crea el pool único de siempre.
+ */
+@Configuration
+@ConditionalOnProperty(name = "reservation.datasource.replica.enabled", havingValue = "true")
+public class ReadReplicaDataSourceConfig {
+
+    public static final String PRIMARY_DATA_SOURCE = "primaryDataSource";
+    public static final String REPLICA_DATA_SOURCE = "replicaDataSource";
+
+    @Bean(name = PRIMARY_DATA_SOURCE)
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean(name = REPLICA_DATA_SOURCE)
+    @ConfigurationProperties("reservation.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(DataSourceProperties properties,
+                                              @Value("${reservation.datasource.replica.url}") String url,
+                                              @Value("${reservation.datasource.replica.username:${spring.datasource.username:}}") String username,
+                                              @Value("${reservation.datasource.replica.password:${spring.datasource.password:}}") String password) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+            .type(HikariDataSource.class)
+            .driverClassName(properties.determineDriverClassName())
+            .url(url)
+            .username(username)
+            .password(password)
+            .build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier(PRIMARY_DATA_SOURCE) DataSource primary,
+                                 @Qualifier(REPLICA_DATA_SOURCE) DataSource replica) {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource();
+        routing.setTargetDataSources(Map.of(
+            ReplicaRoutingDataSource.Target.PRIMARY, primary,
+            ReplicaRoutingDataSource.Target.REPLICA, replica));
+        routing.setDefaultTargetDataSource(primary);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+}
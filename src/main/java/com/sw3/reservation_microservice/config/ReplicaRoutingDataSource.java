@@ -0,0 +1,47 @@
+package com.sw3.reservation_microservice.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Supplier;
+
+/**
+ * DataSource que elige entre la base primaria y la réplica de lectura:
+ * - transacciones @Transactional(readOnly = true) -> réplica
+ * - escrituras, lecturas dentro de una escritura y código sin transacción
+ *   (validadores en paralelo, locks, inicializadores) -> primaria
+ *
+ * La decisión se toma al obtener la conexión física, así que debe envolverse en un
+ * LazyConnectionDataSourceProxy: el gestor de transacciones pide la conexión antes de marcar
+ * la transacción como de solo lectura y el proxy retrasa la petición hasta la primera consulta.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Target { PRIMARY, REPLICA }
+
+    private static final ThreadLocal<Boolean> FORCE_PRIMARY = new ThreadLocal<>();
+
+    /**
+     * Ejecuta la consulta contra la primaria aunque la transacción actual sea de solo lectura
+     * (por ejemplo, para que un cliente vea enseguida la reserva que acaba de crear).
+     */
+    public static <T> T onPrimary(Supplier<T> query) {
+        Boolean previous = FORCE_PRIMARY.get();
+        FORCE_PRIMARY.set(Boolean.TRUE);
+        try {
+            return query.get();
+        } finally {
+            if (previous == null) {
+                FORCE_PRIMARY.remove();
+            } else {
+                FORCE_PRIMARY.set(previous);
+            }
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        boolean readOnly = TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        return readOnly && !Boolean.TRUE.equals(FORCE_PRIMARY.get()) ? Target.REPLICA : Target.PRIMARY;
+    }
+}
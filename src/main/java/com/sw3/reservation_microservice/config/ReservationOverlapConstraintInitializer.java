@@ -0,0 +1,62 @@
+package com.sw3.reservation_microservice.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Modo de almacenamiento opcional (reservation.overlap-constraint.enabled=true) que delega
+ * en PostgreSQL la regla de no solapamiento:
+ * - columna generada time_range = tsrange(start_time, end_time, '[)')
+ * - restricción EXCLUDE por barber_id que ignora las reservas CANCELADA
+ *
+ * Con la restricción activa, dos inserciones concurrentes para el mismo barbero y horario
+ * no pueden confirmarse ambas; ReservationService traduce la violación (SQLState 23P01)
+ * a ReservationValidationException.
+ */
+@Component
+@ConditionalOnProperty(name = "reservation.overlap-constraint.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class ReservationOverlapConstraintInitializer {
+
+    public static final String CONSTRAINT_NAME = "reservations_no_overlap";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /** Se inyecta solo para garantizar que Hibernate ya creó el esquema */
+    @SuppressWarnings("unused")
+    private final EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    public void applyConstraint() {
+        try {
+            jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS btree_gist");
+            jdbcTemplate.execute(
+                "ALTER TABLE reservations ADD COLUMN IF NOT EXISTS time_range tsrange " +
+                "GENERATED ALWAYS AS (tsrange(start_time, end_time, '[)')) STORED");
+
+            Integer existing = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM pg_constraint WHERE conname = ?", Integer.class, CONSTRAINT_NAME);
+            if (existing != null && existing > 0) {
+                log.info("[OverlapConstraint] La restricción {} ya existe", CONSTRAINT_NAME);
+                return;
+            }
+
+            jdbcTemplate.execute(
+                "ALTER TABLE reservations ADD CONSTRAINT " + CONSTRAINT_NAME + " " +
+                "EXCLUDE USING gist (barber_id WITH =, time_range WITH &&) " +
+                "WHERE (status <> 'CANCELADA')");
+            log.info("[OverlapConstraint] ✅ Restricción {} creada", CONSTRAINT_NAME);
+        } catch (DataAccessException e) {
+            // Datos previos solapados o falta de permisos para la extensión: el servicio
+            // sigue funcionando con la validación en memoria.
+            log.error("[OverlapConstraint] ❌ No se pudo aplicar la restricción de no solapamiento: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.sw3.reservation_microservice.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Índices parciales de la tabla reservations que JPA no puede declarar (@Index no admite WHERE
+ * ni INCLUDE). Cubren las consultas que solo miran reservas que ocupan horario (status <> 'CANCELADA'):
+ * - solapamiento, página de reservas activas del barbero y agregado de ocupación: por barbero e inicio,
+ *   con end_time incluido para resolver el solapamiento sin ir a la tabla
+ * - carga del índice en memoria al arrancar: por fin de la reserva
+ *
+ * Los índices compuestos sin filtro están en @Table(indexes) de Reservation.
+ */
+@Component
+@ConditionalOnProperty(name = "reservation.partial-indexes.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class ReservationPartialIndexInitializer {
+
+    public static final Map<String, String> PARTIAL_INDEXES = new LinkedHashMap<>();
+
+    static {
+        PARTIAL_INDEXES.put("idx_reservations_barber_active",
+            "CREATE INDEX IF NOT EXISTS idx_reservations_barber_active ON reservations (barber_id, start_time, id) " +
+            "INCLUDE (end_time) WHERE status <> 'CANCELADA'");
+        PARTIAL_INDEXES.put("idx_reservations_active_end",
+            "CREATE INDEX IF NOT EXISTS idx_reservations_active_end ON reservations (end_time) " +
+            "WHERE status <> 'CANCELADA'");
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /** Se inyecta solo para garantizar que Hibernate ya creó el esquema */
+    @SuppressWarnings("unused")
+    private final EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    public void createIndexes() {
+        PARTIAL_INDEXES.forEach((name, ddl) -> {
+            try {
+                jdbcTemplate.execute(ddl);
+                log.info("[PartialIndex] ✅ Índice {} disponible", name);
+            } catch (DataAccessException e) {
+                // Sin el índice las consultas siguen funcionando, solo más lentas
+                log.error("[PartialIndex] ❌ No se pudo crear el índice {}: {}", name, e.getMessage());
+            }
+        });
+    }
+}
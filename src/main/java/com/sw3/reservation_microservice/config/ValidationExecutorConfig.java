@@ -0,0 +1,42 @@
+package com.sw3.reservation_microservice.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executor donde corren en paralelo los validadores independientes de la cadena de reservas.
+ * Corren antes de abrir la transacción de la reserva, así que quien los espera no retiene
+ * ninguna conexión; aun así cada hilo toma una del pool mientras consulta, y los hilos se
+ * limitan a la mitad de spring.datasource.hikari.maximum-pool-size para dejar la otra mitad
+ * a las transacciones de crear y reprogramar.
+ */
+@Configuration
+@Slf4j
+public class ValidationExecutorConfig {
+
+    public static final String VALIDATION_EXECUTOR = "validationExecutor";
+
+    @Bean(name = VALIDATION_EXECUTOR, destroyMethod = "shutdown")
+    public ExecutorService validationExecutor(@Value("${reservation.validation.parallel.threads:4}") int configuredThreads,
+                                              @Value("${spring.datasource.hikari.maximum-pool-size:10}") int maxPoolSize) {
+        int threads = Math.max(1, Math.min(configuredThreads, maxPoolSize / 2));
+        if (threads < configuredThreads) {
+            log.warn("[ValidationExecutor] {} hilos pedidos; se usan {} (la mitad del pool de {} conexiones)",
+                configuredThreads, threads, maxPoolSize);
+        }
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory factory = runnable -> {
+            Thread thread = new Thread(runnable, "validation-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return Executors.newFixedThreadPool(threads, factory);
+    }
+}
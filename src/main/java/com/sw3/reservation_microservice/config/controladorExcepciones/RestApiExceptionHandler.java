@@ -15,6 +15,7 @@ import com.sw3.reservation_microservice.config.controladorExcepciones.estructura
 import com.sw3.reservation_microservice.config.controladorExcepciones.excepcionesPropias.CancellationNotAllowedException;
 import com.sw3.reservation_microservice.config.controladorExcepciones.excepcionesPropias.EntidadNoExisteException;
 import com.sw3.reservation_microservice.config.controladorExcepciones.excepcionesPropias.EntidadYaExisteException;
+import com.sw3.reservation_microservice.config.controladorExcepciones.excepcionesPropias.IdempotencyKeyConflictException;
 import com.sw3.reservation_microservice.config.controladorExcepciones.excepcionesPropias.InvalidReservationDeletionException;
 import com.sw3.reservation_microservice.config.controladorExcepciones.excepcionesPropias.InvalidReservationStateException;
 import com.sw3.reservation_microservice.config.controladorExcepciones.excepcionesPropias.ReglaNegocioExcepcion;
@@ -77,6 +78,7 @@ public class RestApiExceptionHandler {
                                 .crearError(CodigoError.VALIDACION_RESERVA.getCodigo(), ex.formatException(),
                                                 HttpStatus.BAD_REQUEST.value())
                                 .setUrl(req.getRequestURL().toString()).setMetodo(req.getMethod());
+                error.setAlternativas(ex.getAlternativas());
                 return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
         }
 
@@ -120,6 +122,16 @@ public class RestApiExceptionHandler {
                 return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
         }
 
+        @ExceptionHandler(IdempotencyKeyConflictException.class)
+        public ResponseEntity<Error> handleIdempotencyKeyConflictException(final HttpServletRequest req,
+                        final IdempotencyKeyConflictException ex, final Locale locale) {
+                final Error error = ErrorUtils
+                                .crearError(CodigoError.CLAVE_IDEMPOTENCIA_REUTILIZADA.getCodigo(), ex.formatException(),
+                                                HttpStatus.UNPROCESSABLE_ENTITY.value())
+                                .setUrl(req.getRequestURL().toString()).setMetodo(req.getMethod());
+                return new ResponseEntity<>(error, HttpStatus.UNPROCESSABLE_ENTITY);
+        }
+
         @ExceptionHandler(MethodArgumentNotValidException.class)
         public ResponseEntity<Error> handleValidationExceptions(final HttpServletRequest req,
                         final MethodArgumentNotValidException ex) {
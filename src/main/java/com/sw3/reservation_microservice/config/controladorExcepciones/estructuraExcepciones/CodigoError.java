@@ -21,7 +21,8 @@ public enum CodigoError {
         ESTADO_RESERVA_INVALIDO("RES-0002", "Transición de estado inválida"),
         CANCELACION_NO_PERMITIDA("RES-0003", "No se puede cancelar la reserva"),
         RESERVA_NO_ENCONTRADA("RES-0004", "Reserva no encontrada"),
-        ELIMINACION_NO_PERMITIDA("RES-0005", "No se puede eliminar la reserva");
+        ELIMINACION_NO_PERMITIDA("RES-0005", "No se puede eliminar la reserva"),
+        CLAVE_IDEMPOTENCIA_REUTILIZADA("RES-0006", "Clave de idempotencia usada con otra petición");
 
         private final String codigo;
         private final String llaveMensaje;
@@ -1,12 +1,16 @@
 package com.sw3.reservation_microservice.config.controladorExcepciones.estructuraExcepciones;
 
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.sw3.reservation_microservice.controller.dto.response.AvailableSlotDTO;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.experimental.Accessors;
 
+import java.util.List;
+
 @Data
 @Builder(toBuilder = true)
 @NoArgsConstructor
@@ -35,4 +39,9 @@ public class Error {
    */
   @Accessors(chain = true)
   private String metodo;
+  /**
+   * Horarios alternativos sugeridos cuando la reserva se rechaza por disponibilidad
+   */
+  @JsonInclude(JsonInclude.Include.NON_EMPTY)
+  private List<AvailableSlotDTO> alternativas;
 }
@@ -0,0 +1,20 @@
+package com.sw3.reservation_microservice.config.controladorExcepciones.excepcionesPropias;
+
+import com.sw3.reservation_microservice.config.controladorExcepciones.estructuraExcepciones.CodigoError;
+
+public class IdempotencyKeyConflictException extends GestionClientesRuntimeException {
+
+  private static final String FORMATO_EXCEPCION = "%s - La clave de idempotencia '%s' ya se usó con una petición distinta";
+
+  private final String idempotencyKey;
+
+  public IdempotencyKeyConflictException(final String idempotencyKey) {
+    super(CodigoError.CLAVE_IDEMPOTENCIA_REUTILIZADA);
+    this.idempotencyKey = idempotencyKey;
+  }
+
+  @Override
+  public String formatException() {
+    return String.format(FORMATO_EXCEPCION, codigoError.getCodigo(), idempotencyKey);
+  }
+}
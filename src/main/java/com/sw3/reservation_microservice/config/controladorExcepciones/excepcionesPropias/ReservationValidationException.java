@@ -1,6 +1,9 @@
 package com.sw3.reservation_microservice.config.controladorExcepciones.excepcionesPropias;
 
 import com.sw3.reservation_microservice.config.controladorExcepciones.estructuraExcepciones.CodigoError;
+import com.sw3.reservation_microservice.controller.dto.response.AvailableSlotDTO;
+
+import java.util.List;
 
 public class ReservationValidationException extends GestionClientesRuntimeException {
 
@@ -8,9 +11,23 @@ public class ReservationValidationException extends GestionClientesRuntimeExcept
 
   private final String mensajeValidacion;
 
+  /**
+   * Horarios reservables cercanos al solicitado (solo en rechazos por disponibilidad)
+   */
+  private final List<AvailableSlotDTO> alternativas;
+
   public ReservationValidationException(final String mensajeValidacion) {
+    this(mensajeValidacion, List.of());
+  }
+
+  public ReservationValidationException(final String mensajeValidacion, final List<AvailableSlotDTO> alternativas) {
     super(CodigoError.VALIDACION_RESERVA);
     this.mensajeValidacion = mensajeValidacion;
+    this.alternativas = alternativas;
+  }
+
+  public List<AvailableSlotDTO> getAlternativas() {
+    return alternativas;
   }
 
   @Override
@@ -1,49 +1,126 @@
 package com.sw3.reservation_microservice.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sw3.reservation_microservice.controller.dto.request.CreateBatchReservationRequestDTO;
 import com.sw3.reservation_microservice.controller.dto.request.CreateReservationRequestDTO;
+import com.sw3.reservation_microservice.controller.dto.request.CreateSlotHoldRequestDTO;
 import com.sw3.reservation_microservice.controller.dto.request.RescheduleReservationRequestDTO;
+import com.sw3.reservation_microservice.controller.dto.response.AvailabilityResponseDTO;
+import com.sw3.reservation_microservice.controller.dto.response.AvailableSlotDTO;
+import com.sw3.reservation_microservice.controller.dto.response.BarberUtilizationDTO;
+import com.sw3.reservation_microservice.controller.dto.response.ProjectionConsistencyDTO;
+import com.sw3.reservation_microservice.controller.dto.response.ReservationListItemDTO;
+import com.sw3.reservation_microservice.controller.dto.response.SlotHoldResponseDTO;
 import com.sw3.reservation_microservice.domain.model.Reservation;
+import com.sw3.reservation_microservice.service.export.ExportFormat;
 import com.sw3.reservation_microservice.service.facade.ReservationFacade;
+import com.sw3.reservation_microservice.service.idempotency.IdempotencyService;
+import com.sw3.reservation_microservice.service.locking.BookingLockMetrics;
+import com.sw3.reservation_microservice.utils.CursorPage;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
 public class ReservationController {
 
+    private static final String DEFAULT_PAGE_SIZE = "50";
+
     @Autowired
     private ReservationFacade reservationFacade;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     /**
      * Obtiene todas las reservas.
      */
     @GetMapping("cliente/reservations")
-    public ResponseEntity<List<Reservation>> getAllReservations() {
-        List<Reservation> reservations = reservationFacade.findAll();
-        return ResponseEntity.ok(reservations);
+    public ResponseEntity<List<ReservationListItemDTO>> getAllReservations() {
+        return ResponseEntity.ok(reservationFacade.findAll());
+    }
+
+    /**
+     * Obtiene una página de todas las reservas. La respuesta trae items y nextCursor, que se
+     * envía como ?cursor= en la siguiente petición; si es null no hay más resultados.
+     */
+    @GetMapping("cliente/reservations/page")
+    public ResponseEntity<CursorPage<ReservationListItemDTO>> getAllReservationsPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int limit) {
+        return ResponseEntity.ok(reservationFacade.findAll(cursor, limit));
+    }
+
+    /**
+     * Exporta todas las reservas como arreglo JSON (format=json) o una por línea (format=ndjson).
+     * Las filas se escriben a medida que se leen de la BD, sin cargar la tabla en memoria.
+     */
+    @GetMapping("admin/reservations/export")
+    public ResponseEntity<StreamingResponseBody> exportReservations(@RequestParam(defaultValue = "json") String format) {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        StreamingResponseBody body = out -> reservationFacade.exportReservations(out, exportFormat);
+        return ResponseEntity.ok().contentType(exportFormat.getMediaType()).body(body);
     }
 
     /**
      * Crea una nueva reserva.
+     * Con la cabecera Idempotency-Key, los reintentos reciben la misma reserva en lugar de crear otra.
      */
     @PostMapping("/")
-    public ResponseEntity<Reservation> createReservation(@Valid @RequestBody CreateReservationRequestDTO request) {
-        Reservation reservation = reservationFacade.createReservation(request);
+    public ResponseEntity<Reservation> createReservation(@Valid @RequestBody CreateReservationRequestDTO request,
+                                                         @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        Reservation reservation = idempotencyKey == null
+            ? reservationFacade.createReservation(request)
+            : reservationFacade.createReservation(request, idempotencyKey);
         return ResponseEntity.status(HttpStatus.CREATED).body(reservation);
     }
 
+    /**
+     * Crea varias reservas seguidas con el mismo barbero (combo de servicios).
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<List<Reservation>> createBatchReservation(@Valid @RequestBody CreateBatchReservationRequestDTO request) {
+        List<Reservation> reservations = reservationFacade.createBatchReservation(request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(reservations);
+    }
+
+    /**
+     * Aparta temporalmente un horario mientras el cliente confirma la reserva.
+     * El token devuelto se envía como holdToken al crear la reserva.
+     */
+    @PostMapping("cliente/holds")
+    public ResponseEntity<SlotHoldResponseDTO> placeSlotHold(@Valid @RequestBody CreateSlotHoldRequestDTO request) {
+        SlotHoldResponseDTO hold = reservationFacade.placeSlotHold(request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(hold);
+    }
+
+    /**
+     * Libera un horario apartado.
+     */
+    @DeleteMapping("cliente/holds/{holdToken}")
+    public ResponseEntity<Void> releaseSlotHold(@PathVariable String holdToken, @RequestParam String clientId) {
+        reservationFacade.releaseSlotHold(holdToken, clientId);
+        return ResponseEntity.noContent().build();
+    }
+
     /**
      * Obtiene una reserva por ID.
      */
     @GetMapping("cliente/reservations/{id}")
-    public ResponseEntity<Reservation> getReservationById(@PathVariable Long id) {
+    public ResponseEntity<ReservationListItemDTO> getReservationById(@PathVariable Long id) {
         return reservationFacade.findById(id)
             .map(ResponseEntity::ok)
             .orElse(ResponseEntity.notFound().build());
@@ -53,38 +130,130 @@ public class ReservationController {
      * Obtiene las reservas activas (futuras) de un cliente.
      */
     @GetMapping("cliente/reservations/cliente/{clientId}/active")
-    public ResponseEntity<List<Reservation>> getActiveReservations(@PathVariable String clientId) {
-        List<Reservation> reservations = reservationFacade.getClientActiveReservations(clientId);
+    public ResponseEntity<List<ReservationListItemDTO>> getActiveReservations(@PathVariable String clientId) {
+        List<ReservationListItemDTO> reservations = reservationFacade.getClientActiveReservations(clientId);
         return ResponseEntity.ok(reservations);
     }
 
     /**
-     * Obtiene el historial de reservas (pasadas) de un cliente.
+     * Obtiene el historial de reservas (pasadas) de un cliente, la más reciente primero.
      */
     @GetMapping("cliente/reservations/cliente/{clientId}/history")
-    public ResponseEntity<List<Reservation>> getReservationHistory(@PathVariable String clientId) {
-        List<Reservation> reservations = reservationFacade.getClientHistory(clientId);
-        return ResponseEntity.ok(reservations);
+    public ResponseEntity<List<ReservationListItemDTO>> getReservationHistory(@PathVariable String clientId) {
+        return ResponseEntity.ok(reservationFacade.getClientHistory(clientId));
+    }
+
+    /**
+     * Obtiene una página del historial de un cliente (ver {@link #getAllReservationsPage}).
+     */
+    @GetMapping("cliente/reservations/cliente/{clientId}/history/page")
+    public ResponseEntity<CursorPage<ReservationListItemDTO>> getReservationHistoryPage(
+            @PathVariable String clientId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int limit) {
+        return ResponseEntity.ok(reservationFacade.getClientHistory(clientId, cursor, limit));
     }
 
     /**
-     * Obtiene todas las reservas de un barbero.
+     * Obtiene las reservas activas y futuras de un barbero.
      */
     @GetMapping("barbero/reservations/barbero/{barberId}")
-    public ResponseEntity<List<Reservation>> getBarberReservations(@PathVariable String barberId) {
-        List<Reservation> reservations = reservationFacade.getBarberReservations(barberId);
-        return ResponseEntity.ok(reservations);
+    public ResponseEntity<List<ReservationListItemDTO>> getBarberReservations(@PathVariable String barberId) {
+        return ResponseEntity.ok(reservationFacade.getBarberReservations(barberId));
+    }
+
+    /**
+     * Obtiene una página de las reservas activas y futuras de un barbero (ver {@link #getAllReservationsPage}).
+     */
+    @GetMapping("barbero/reservations/barbero/{barberId}/page")
+    public ResponseEntity<CursorPage<ReservationListItemDTO>> getBarberReservationsPage(
+            @PathVariable String barberId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int limit) {
+        return ResponseEntity.ok(reservationFacade.getBarberReservations(barberId, cursor, limit));
     }
 
     /**
      * Obtiene las reservas de un barbero para un día específico.
+     * Responde con ETag; si el If-None-Match sigue vigente devuelve 304 sin consultar las reservas.
      */
     @GetMapping("barbero/reservations/barbero/{barberId}/day")
-    public ResponseEntity<List<Reservation>> getBarberReservationsByDay(
+    public ResponseEntity<List<ReservationListItemDTO>> getBarberReservationsByDay(
             @PathVariable String barberId,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime day) {
-        List<Reservation> reservations = reservationFacade.getBarberSchedule(barberId, day);
-        return ResponseEntity.ok(reservations);
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime day,
+            WebRequest webRequest) {
+        // La versión se lee antes que las reservas (ver ScheduleVersionRegistry)
+        String etag = reservationFacade.getBarberScheduleETag(barberId, day);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        List<ReservationListItemDTO> reservations = reservationFacade.getBarberSchedule(barberId, day);
+        return ResponseEntity.ok().eTag(etag).body(reservations);
+    }
+
+    /**
+     * Obtiene las horas de inicio en las que se puede reservar el servicio con el barbero en un día.
+     * Reemplaza descargar todas las reservas futuras del barbero para calcularlas en el cliente.
+     */
+    @GetMapping("barbero/{barberId}/availability")
+    public ResponseEntity<AvailabilityResponseDTO> getBarberAvailability(
+            @PathVariable String barberId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam Long serviceId) {
+        return ResponseEntity.ok(reservationFacade.getBarberAvailability(barberId, date, serviceId));
+    }
+
+    /**
+     * Mapa de calor del calendario: minutos libres por día del barbero en [from, to].
+     * Respuesta compacta: freeMinutes[i] corresponde al día from + i.
+     */
+    @GetMapping("barbero/{barberId}/availability/heatmap")
+    public ResponseEntity<StreamingResponseBody> getBarberHeatmap(
+            @PathVariable String barberId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return heatmapResponse(from, to, reservationFacade.getBarberHeatmap(barberId, from, to));
+    }
+
+    /**
+     * Mapa de calor del calendario para un servicio: minutos libres por día sumando los barberos que lo ofrecen.
+     */
+    @GetMapping("cliente/availability/heatmap")
+    public ResponseEntity<StreamingResponseBody> getServiceHeatmap(
+            @RequestParam Long serviceId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return heatmapResponse(from, to, reservationFacade.getServiceHeatmap(serviceId, from, to));
+    }
+
+    /**
+     * Stream SSE con los horarios que se ocupan o liberan del barbero (slot-taken, slot-freed)
+     * y los cambios de turnos (shifts-changed), para no consultar la agenda periódicamente.
+     */
+    @GetMapping(value = "barbero/{barberId}/availability/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamBarberAvailability(@PathVariable String barberId) {
+        return reservationFacade.subscribeBarberAvailability(barberId);
+    }
+
+    /**
+     * Stream SSE con los cambios de disponibilidad de los barberos que ofrecen el servicio.
+     */
+    @GetMapping(value = "cliente/availability/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamServiceAvailability(@RequestParam Long serviceId) {
+        return reservationFacade.subscribeServiceAvailability(serviceId);
+    }
+
+    /**
+     * Obtiene los primeros horarios libres para un servicio con cualquier barbero que lo ofrezca
+     * ("el primer corte disponible con quien sea").
+     */
+    @GetMapping("cliente/availability/earliest")
+    public ResponseEntity<List<AvailableSlotDTO>> findEarliestSlots(
+            @RequestParam Long serviceId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "5") int limit) {
+        return ResponseEntity.ok(reservationFacade.findEarliestSlots(serviceId, from, to, limit));
     }
 
     /**
@@ -130,6 +299,47 @@ public class ReservationController {
         return ResponseEntity.ok(canDesactivate);
     }
 
+    /**
+     * Ocupación (minutos reservados / minutos de turno) por día y por hora del día de un barbero
+     * o, sin barberId, de todos los barberos.
+     */
+    @GetMapping("admin/analytics/utilization")
+    public ResponseEntity<List<BarberUtilizationDTO>> getBarberUtilization(
+            @RequestParam(required = false) String barberId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(reservationFacade.getBarberUtilization(barberId, from, to));
+    }
+
+    /**
+     * Reconstruye la proyección de disponibilidad desde las tablas de reservas y turnos.
+     * Devuelve la cantidad de barbero-día calculados.
+     */
+    @PostMapping("admin/availability/projection/rebuild")
+    public ResponseEntity<Integer> rebuildAvailabilityProjection() {
+        return ResponseEntity.ok(reservationFacade.rebuildAvailabilityProjection());
+    }
+
+    /**
+     * Verifica la proyección de disponibilidad de un barbero contra las tablas fuente
+     * (y corrige los días que no coinciden).
+     */
+    @GetMapping("admin/availability/projection/consistency")
+    public ResponseEntity<ProjectionConsistencyDTO> checkAvailabilityProjection(
+            @RequestParam String barberId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(reservationFacade.checkAvailabilityProjection(barberId, from, to));
+    }
+
+    /**
+     * Métricas de espera de los bloqueos por barbero (contención de reservas).
+     */
+    @GetMapping("admin/reservations/metrics/locks")
+    public ResponseEntity<BookingLockMetrics.Snapshot> getBookingLockMetrics() {
+        return ResponseEntity.ok(reservationFacade.getBookingLockMetrics());
+    }
+
     /**
      * Reprograma una reserva (cambia fecha/hora).
      */
@@ -153,4 +363,24 @@ public class ReservationController {
         reservationFacade.deleteReservation(id, clientId);
         return ResponseEntity.ok("Reserva eliminada exitosamente");
     }
+
+    /**
+     * Escribe el mapa de calor directo sobre la respuesta, sin armar un árbol JSON intermedio.
+     */
+    private ResponseEntity<StreamingResponseBody> heatmapResponse(LocalDate from, LocalDate to, int[] freeMinutes) {
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+                json.writeStartObject();
+                json.writeStringField("from", from.toString());
+                json.writeStringField("to", to.toString());
+                json.writeArrayFieldStart("freeMinutes");
+                for (int minutes : freeMinutes) {
+                    json.writeNumber(minutes);
+                }
+                json.writeEndArray();
+                json.writeEndObject();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
 }
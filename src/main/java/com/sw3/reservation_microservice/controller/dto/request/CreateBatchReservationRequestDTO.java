@@ -0,0 +1,33 @@
+package com.sw3.reservation_microservice.controller.dto.request;
+
+import jakarta.validation.constraints.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * DTO para reservar varios servicios seguidos con el mismo barbero (ej: corte + barba + lavado).
+ * Los servicios se agendan uno tras otro en el orden recibido, a partir de startTime.
+ * El precio de cada reserva se toma del servicio.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CreateBatchReservationRequestDTO {
+
+    @NotBlank(message = "El ID del cliente es obligatorio")
+    private String clientId;
+
+    @NotBlank(message = "El ID del barbero es obligatorio")
+    private String barberId;
+
+    @NotNull(message = "La fecha y hora de inicio son obligatorias")
+    private LocalDateTime startTime;
+
+    @NotEmpty(message = "Debe indicar al menos un servicio")
+    @Size(max = 10, message = "No se pueden reservar más de 10 servicios seguidos")
+    private List<@NotNull(message = "El ID del servicio es obligatorio") Long> serviceIds;
+}
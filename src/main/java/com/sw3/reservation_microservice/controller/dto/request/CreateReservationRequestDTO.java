@@ -31,4 +31,7 @@ public class CreateReservationRequestDTO {
     @NotNull(message = "El precio es obligatorio")
     @Positive(message = "El precio debe ser mayor a 0")
     private Double price;
+
+    /** Token de un horario apartado previamente (opcional) */
+    private String holdToken;
 }
@@ -0,0 +1,29 @@
+package com.sw3.reservation_microservice.controller.dto.request;
+
+import jakarta.validation.constraints.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO para apartar temporalmente un horario mientras el cliente confirma la reserva.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CreateSlotHoldRequestDTO {
+
+    @NotBlank(message = "El ID del cliente es obligatorio")
+    private String clientId;
+
+    @NotBlank(message = "El ID del barbero es obligatorio")
+    private String barberId;
+
+    @NotNull(message = "El ID del servicio es obligatorio")
+    private Long serviceId;
+
+    @NotNull(message = "La fecha y hora de inicio son obligatorias")
+    private LocalDateTime startTime;
+}
@@ -0,0 +1,37 @@
+package com.sw3.reservation_microservice.controller.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Cambio de disponibilidad que se envía por el stream SSE de un barbero o servicio.
+ * En SHIFTS_CHANGED no hay horario: el cliente debe volver a consultar la disponibilidad.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AvailabilityDeltaDTO {
+
+    public enum Type {
+        SLOT_TAKEN,
+        SLOT_FREED,
+        SHIFTS_CHANGED
+    }
+
+    /** Tipo de cambio */
+    private Type type;
+
+    /** ID del barbero afectado */
+    private String barberId;
+
+    /** Inicio del horario ocupado o liberado */
+    private LocalDateTime startTime;
+
+    /** Fin del horario ocupado o liberado */
+    private LocalDateTime endTime;
+}
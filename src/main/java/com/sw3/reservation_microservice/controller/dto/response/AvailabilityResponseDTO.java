@@ -0,0 +1,34 @@
+package com.sw3.reservation_microservice.controller.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * DTO de respuesta con las horas de inicio reservables de un barbero en un día
+ * para un servicio concreto.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AvailabilityResponseDTO {
+
+    /** ID del barbero */
+    private String barberId;
+
+    /** Día consultado */
+    private LocalDate date;
+
+    /** ID del servicio */
+    private Long serviceId;
+
+    /** Duración efectiva de la reserva (bloques de 10 minutos) */
+    private int durationMinutes;
+
+    /** Horas de inicio en las que el servicio cabe completo en un turno libre */
+    private List<LocalTime> startTimes;
+}
@@ -0,0 +1,25 @@
+package com.sw3.reservation_microservice.controller.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO de respuesta de un horario libre con un barbero concreto.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AvailableSlotDTO {
+
+    /** ID del barbero */
+    private String barberId;
+
+    /** Inicio del horario */
+    private LocalDateTime startTime;
+
+    /** Fin del horario (bloques de 10 minutos) */
+    private LocalDateTime endTime;
+}
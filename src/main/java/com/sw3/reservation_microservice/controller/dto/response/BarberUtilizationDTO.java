@@ -0,0 +1,68 @@
+package com.sw3.reservation_microservice.controller.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * DTO de respuesta de la ocupación de un barbero en un rango de días:
+ * minutos reservados sobre minutos de turno, por día y por hora del día.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BarberUtilizationDTO {
+
+    /** ID del barbero */
+    private String barberId;
+
+    /** Minutos reservados en todo el rango */
+    private long bookedMinutes;
+
+    /** Minutos de turno en todo el rango */
+    private long shiftMinutes;
+
+    /** Porcentaje de ocupación del rango (0 si no tiene turnos) */
+    private double occupancyPercent;
+
+    /** Ocupación de cada día del rango */
+    private List<DayUtilization> days;
+
+    /** Ocupación por hora del día sumando todos los días del rango (solo horas con turno o reservas) */
+    private List<HourUtilization> hoursOfDay;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class DayUtilization {
+
+        private LocalDate date;
+
+        private long bookedMinutes;
+
+        private long shiftMinutes;
+
+        private double occupancyPercent;
+
+        /** Solo horas con turno o reservas */
+        private List<HourUtilization> hours;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class HourUtilization {
+
+        /** Hora del día (0-23) */
+        private int hour;
+
+        private long bookedMinutes;
+
+        private long shiftMinutes;
+
+        private double occupancyPercent;
+    }
+}
@@ -0,0 +1,33 @@
+package com.sw3.reservation_microservice.controller.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * DTO de respuesta de la verificación de la proyección de disponibilidad contra
+ * las tablas de reservas y turnos.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProjectionConsistencyDTO {
+
+    /** ID del barbero verificado */
+    private String barberId;
+
+    /** Primer día verificado */
+    private LocalDate from;
+
+    /** Último día verificado */
+    private LocalDate to;
+
+    /** Cantidad de días comparados */
+    private int daysChecked;
+
+    /** Días en los que la proyección no coincidía (ya corregidos) */
+    private List<LocalDate> mismatchedDays;
+}
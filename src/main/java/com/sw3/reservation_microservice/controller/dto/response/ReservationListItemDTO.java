@@ -1,42 +1,35 @@
 package com.sw3.reservation_microservice.controller.dto.response;
 
-import lombok.AllArgsConstructor;
-import lombok.Data;
-import lombok.NoArgsConstructor;
+import com.sw3.reservation_microservice.domain.model.ReservationStatus;
 
 import java.time.LocalDateTime;
 
 /**
- * DTO de respuesta simplificado para listas de reservas.
+ * DTO de respuesta simplificado para listas y consultas de reservas.
  * No incluye objetos anidados para optimizar performance en consultas masivas.
  * Usado para historial de reservas, reservas por cliente, reservas del día, etc.
+ *
+ * Los repositorios lo construyen directamente en la consulta (SELECT new ...), así que no se
+ * crean entidades administradas. Los nombres de los campos coinciden con los de Reservation
+ * para que el JSON sea el mismo que devolvían estos endpoints.
+ *
+ * @param id        Identificador único de la reserva
+ * @param clientId  ID del cliente que realizó la reserva
+ * @param barberId  ID del barbero asignado
+ * @param serviceId ID del servicio contratado
+ * @param startTime Fecha y hora de inicio de la cita
+ * @param endTime   Fecha y hora de fin de la cita
+ * @param price     Precio del servicio
+ * @param status    Estado actual de la reserva
  */
-@Data
-@NoArgsConstructor
-@AllArgsConstructor
-public class ReservationListItemDTO {
-
-    /** Identificador único de la reserva */
-    private Long id;
-
-    /** ID del cliente que realizó la reserva */
-    private String clientId;
-
-    /** ID del barbero asignado */
-    private String barberId;
-
-    /** ID del servicio contratado */
-    private Long serviceId;
-
-    /** Fecha y hora de inicio de la cita */
-    private LocalDateTime start;
-
-    /** Fecha y hora de fin de la cita */
-    private LocalDateTime end;
-
-    /** Precio del servicio */
-    private Double price;
-
-    /** Estado actual de la reserva */
-    private String status;
+public record ReservationListItemDTO(
+    Long id,
+    String clientId,
+    String barberId,
+    Long serviceId,
+    LocalDateTime startTime,
+    LocalDateTime endTime,
+    Double price,
+    ReservationStatus status
+) {
 }
@@ -0,0 +1,32 @@
+package com.sw3.reservation_microservice.controller.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO de respuesta de un horario apartado temporalmente.
+ * El holdToken se envía luego al crear la reserva.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SlotHoldResponseDTO {
+
+    /** Token a enviar en la creación de la reserva */
+    private String holdToken;
+
+    /** ID del barbero */
+    private String barberId;
+
+    /** Inicio del horario apartado */
+    private LocalDateTime start;
+
+    /** Fin del horario apartado (bloques de 10 minutos) */
+    private LocalDateTime end;
+
+    /** Momento en que el horario se libera si no se confirma la reserva */
+    private LocalDateTime expiresAt;
+}
@@ -46,17 +46,9 @@ public class ReservationMapper {
     public ReservationListItemDTO toListItemDTO(Reservation reservation) {
         if (reservation == null) return null;
 
-        ReservationListItemDTO dto = new ReservationListItemDTO();
-        dto.setId(reservation.getId());
-        dto.setClientId(reservation.getClientId());
-        dto.setBarberId(reservation.getBarberId());
-        dto.setServiceId(reservation.getServiceId());
-        dto.setStart(reservation.getStartTime());
-        dto.setEnd(reservation.getEndTime());
-        dto.setPrice(reservation.getPrice());
-        dto.setStatus(mapStatus(reservation.getStatus()));
-
-        return dto;
+        return new ReservationListItemDTO(reservation.getId(), reservation.getClientId(),
+                reservation.getBarberId(), reservation.getServiceId(), reservation.getStartTime(),
+                reservation.getEndTime(), reservation.getPrice(), reservation.getStatus());
     }
 
     /**
@@ -0,0 +1,34 @@
+package com.sw3.reservation_microservice.domain.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.Instant;
+
+/**
+ * Respuesta guardada para una clave Idempotency-Key (almacén en base de datos).
+ * Compartida entre nodos: un reintento que llega a otra instancia obtiene la misma respuesta.
+ */
+@Data
+@Entity
+@Table(name = "idempotency_keys", indexes = @Index(name = "idx_idempotency_keys_expires_at", columnList = "expiresAt"))
+public class IdempotencyKey {
+
+    /** Clave con alcance por cliente: SHA-256 en hexadecimal de clientId:Idempotency-Key */
+    @Id
+    @Column(length = 64)
+    private String scopedKey;
+
+    /** Huella de la petición original, para detectar reutilizaciones con otro cuerpo */
+    @Column(nullable = false, length = 64)
+    private String requestFingerprint;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String responseBody;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    @Column(nullable = false)
+    private Instant expiresAt;
+}
@@ -13,10 +13,23 @@ import java.time.LocalDateTime;
 
 @Data
 @Entity
-@Table(name = "reservations")
+@Table(name = "reservations", indexes = {
+    // Agenda del día del barbero y existsByBarberIdAndStartTimeAfter (sin filtro de estado)
+    @Index(name = "idx_reservations_barber_start", columnList = "barber_id, start_time"),
+    // Historial y reservas próximas del cliente (búsqueda por (start_time, id) descendente)
+    @Index(name = "idx_reservations_client_start", columnList = "client_id, start_time DESC, id DESC"),
+    // existsByServiceIdAndStartTimeAfter
+    @Index(name = "idx_reservations_service_start", columnList = "service_id, start_time"),
+    // Listado completo paginado por (start_time, id)
+    @Index(name = "idx_reservations_start_id", columnList = "start_time, id")
+})
+// Los índices parciales (solo reservas no canceladas) los crea ReservationPartialIndexInitializer
 public class Reservation {
+    // Secuencia con asignación por lotes: permite que Hibernate agrupe los INSERT (JDBC batching),
+    // cosa imposible con IDENTITY
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reservations_seq")
+    @SequenceGenerator(name = "reservations_seq", sequenceName = "reservations_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -5,14 +5,35 @@ import com.sw3.reservation_microservice.config.controladorExcepciones.excepcione
 import com.sw3.reservation_microservice.domain.model.Reservation;
 import com.sw3.reservation_microservice.domain.model.ReservationStatus;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 
 public class EnEsperaState implements ReservationState {
 
+    /** Anticipación mínima para cancelar */
+    public static final Duration CANCELLATION_NOTICE = Duration.ofHours(1);
+
+    /** Minutos de tolerancia tras la hora de inicio; pasado este tiempo la reserva es inasistencia */
+    public static final Duration NO_SHOW_TOLERANCE = Duration.ofMinutes(10);
+
+    /**
+     * Hora de inicio mínima que permite cancelar en este momento (guarda de los UPDATE condicionales).
+     */
+    public static LocalDateTime cancellationLimit(LocalDateTime now) {
+        return now.plus(CANCELLATION_NOTICE);
+    }
+
+    /**
+     * Las reservas en espera que empiezan antes de este momento ya son inasistencias.
+     */
+    public static LocalDateTime noShowLimit(LocalDateTime now) {
+        return now.minus(NO_SHOW_TOLERANCE);
+    }
+
     @Override
     public void cancelar(Reservation reservation) {
         // Validar que se cancele con al menos 1 hora de anticipación
-        LocalDateTime limiteParaCancelar = reservation.getStartTime().minusHours(1);
+        LocalDateTime limiteParaCancelar = reservation.getStartTime().minus(CANCELLATION_NOTICE);
         LocalDateTime ahora = LocalDateTime.now();
         
         if (ahora.isAfter(limiteParaCancelar)) {
@@ -0,0 +1,21 @@
+package com.sw3.reservation_microservice.messaging.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Set;
+
+/**
+ * Mensaje de invalidación entre instancias del microservicio de reservas.
+ * Solo lleva claves: cada nodo vuelve a leer de la BD lo que tenga en memoria de esos
+ * barberos y clientes.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheInvalidationMessage {
+    private String originNodeId;
+    private Set<String> barberIds;
+    private Set<String> clientIds;
+}
@@ -6,9 +6,11 @@ import com.sw3.reservation_microservice.config.RabbitMqConfig;
 import com.sw3.reservation_microservice.domain.model.Barber;
 import com.sw3.reservation_microservice.domain.model.BarberService;
 import com.sw3.reservation_microservice.messaging.dto.BarberEventDTO;
+import com.sw3.reservation_microservice.service.event.BarberChangedEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -26,6 +28,7 @@ public class BarberEventListener {
 
     private final BarberRepository barberRepository;
     private final BarberServiceRepository barberServiceRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Escucha eventos de barberos y sincroniza la tabla local.
@@ -47,6 +50,7 @@ public class BarberEventListener {
             barber.setId(event.getId());
             barber.setAvailabilityStatus(event.getActive());
             barberRepository.save(barber);
+            eventPublisher.publishEvent(new BarberChangedEvent(barber.getId(), Boolean.TRUE.equals(barber.getAvailabilityStatus())));
             log.info("[BarberEventListener] ✅ Barbero {} en BD: ID={}, Estado={}", 
                     isNew ? "creado" : "actualizado", barber.getId(), barber.getAvailabilityStatus());
             
@@ -0,0 +1,49 @@
+package com.sw3.reservation_microservice.messaging.events;
+
+import com.sw3.reservation_microservice.config.NodeIdentity;
+import com.sw3.reservation_microservice.messaging.dto.CacheInvalidationMessage;
+import com.sw3.reservation_microservice.service.event.CacheInvalidatedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+/**
+ * Listener de invalidaciones enviadas por otras instancias del microservicio de reservas.
+ * Descarta las que publicó este mismo nodo (sus caches ya están al día) y convierte el resto
+ * en un CacheInvalidatedEvent interno que escuchan las caches en memoria.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CacheInvalidationListener {
+
+    private final NodeIdentity nodeIdentity;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * @param message Invalidación recibida por la cola anónima de este nodo
+     */
+    @RabbitListener(queues = "#{cacheInvalidationQueue.name}")
+    public void handleInvalidation(CacheInvalidationMessage message) {
+        if (nodeIdentity.getNodeId().equals(message.getOriginNodeId())) {
+            return;
+        }
+        log.debug("[CacheInvalidation] 📩 Invalidación del nodo {}: barberos={}, clientes={}",
+                message.getOriginNodeId(), message.getBarberIds(), message.getClientIds());
+
+        try {
+            eventPublisher.publishEvent(new CacheInvalidatedEvent(
+                    orEmpty(message.getBarberIds()), orEmpty(message.getClientIds())));
+        } catch (Exception e) {
+            log.error("[CacheInvalidation] ❌ Error al aplicar la invalidación: {}", e.getMessage(), e);
+        }
+    }
+
+    private static Set<String> orEmpty(Set<String> keys) {
+        return keys == null ? Set.of() : keys;
+    }
+}
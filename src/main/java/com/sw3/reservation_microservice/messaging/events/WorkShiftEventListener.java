@@ -4,9 +4,11 @@ import com.sw3.reservation_microservice.access.WorkShiftRepository;
 import com.sw3.reservation_microservice.config.RabbitMqConfig;
 import com.sw3.reservation_microservice.domain.model.WorkShift;
 import com.sw3.reservation_microservice.messaging.dto.WorkShiftEventDTO;
+import com.sw3.reservation_microservice.service.event.WorkShiftChangedEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -20,6 +22,7 @@ import org.springframework.transaction.annotation.Transactional;
 public class WorkShiftEventListener {
 
     private final WorkShiftRepository workShiftRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Escucha eventos de WorkShifts y sincroniza la tabla local.
@@ -51,6 +54,7 @@ public class WorkShiftEventListener {
             workShift.setBarberId(event.getBarberId());
             
             workShiftRepository.save(workShift);
+            eventPublisher.publishEvent(new WorkShiftChangedEvent(workShift.getBarberId()));
             
             log.info("[WorkShiftEventListener] ✅ WorkShift {} en BD: ID={}, Dia={}, Horario={}-{}", 
                     isNew ? "creado" : "actualizado", 
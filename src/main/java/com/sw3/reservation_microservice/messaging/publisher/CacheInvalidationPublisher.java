@@ -0,0 +1,100 @@
+package com.sw3.reservation_microservice.messaging.publisher;
+
+import com.sw3.reservation_microservice.config.NodeIdentity;
+import com.sw3.reservation_microservice.config.RabbitMqConfig;
+import com.sw3.reservation_microservice.messaging.dto.CacheInvalidationMessage;
+import com.sw3.reservation_microservice.service.event.BarberChangedEvent;
+import com.sw3.reservation_microservice.service.event.ReservationChangedEvent;
+import com.sw3.reservation_microservice.service.event.WorkShiftChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.AmqpTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Avisa a las demás instancias qué barberos y clientes cambiaron en este nodo, para que
+ * invaliden sus caches en memoria (ver CacheInvalidationListener).
+ *
+ * Los cambios confirmados se acumulan y se envían juntos cada
+ * reservation.cache-invalidation.coalesce-ms: una ráfaga de escrituras sobre el mismo barbero
+ * produce un único mensaje con claves sin repetir en lugar de una tormenta de invalidaciones.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CacheInvalidationPublisher {
+
+    private final AmqpTemplate amqpTemplate;
+    private final NodeIdentity nodeIdentity;
+
+    private final Object lock = new Object();
+    private Set<String> pendingBarbers = new HashSet<>();
+    private Set<String> pendingClients = new HashSet<>();
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservationChanged(ReservationChangedEvent event) {
+        enqueue(event.getBarberId(), event.getClientId());
+    }
+
+    /** Los turnos y barberos los sincroniza un solo nodo (colas compartidas) */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onWorkShiftChanged(WorkShiftChangedEvent event) {
+        enqueue(event.getBarberId(), null);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBarberChanged(BarberChangedEvent event) {
+        enqueue(event.getBarberId(), null);
+    }
+
+    /**
+     * Agrega claves al próximo mensaje. Cualquiera de las dos puede ser null.
+     */
+    public void enqueue(String barberId, String clientId) {
+        synchronized (lock) {
+            if (barberId != null) {
+                pendingBarbers.add(barberId);
+            }
+            if (clientId != null) {
+                pendingClients.add(clientId);
+            }
+        }
+    }
+
+    /**
+     * Envía lo acumulado desde el último envío. Si el broker no responde, las claves vuelven
+     * a la cola pendiente y salen en el siguiente intento.
+     */
+    @Scheduled(fixedDelayString = "${reservation.cache-invalidation.coalesce-ms:100}")
+    public void flush() {
+        Set<String> barbers;
+        Set<String> clients;
+        synchronized (lock) {
+            if (pendingBarbers.isEmpty() && pendingClients.isEmpty()) {
+                return;
+            }
+            barbers = pendingBarbers;
+            clients = pendingClients;
+            pendingBarbers = new HashSet<>();
+            pendingClients = new HashSet<>();
+        }
+
+        try {
+            amqpTemplate.convertAndSend(RabbitMqConfig.CACHE_INVALIDATION_EXCHANGE, "",
+                new CacheInvalidationMessage(nodeIdentity.getNodeId(), barbers, clients));
+            log.debug("[CacheInvalidation] Enviada invalidación: {} barberos, {} clientes", barbers.size(), clients.size());
+        } catch (AmqpException e) {
+            log.warn("[CacheInvalidation] No se pudo enviar la invalidación, se reintenta: {}", e.getMessage());
+            synchronized (lock) {
+                pendingBarbers.addAll(barbers);
+                pendingClients.addAll(clients);
+            }
+        }
+    }
+}
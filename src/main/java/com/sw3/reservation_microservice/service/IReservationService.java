@@ -1,7 +1,10 @@
 package com.sw3.reservation_microservice.service;
 
 import com.sw3.reservation_microservice.controller.dto.request.*;
+import com.sw3.reservation_microservice.controller.dto.response.ReservationListItemDTO;
 import com.sw3.reservation_microservice.domain.model.Reservation;
+import com.sw3.reservation_microservice.service.validation.ReservationValidationContext;
+import com.sw3.reservation_microservice.utils.CursorPage;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -20,20 +23,57 @@ public interface IReservationService {
      */
     Reservation createReservation(CreateReservationRequestDTO request);
 
+    /**
+     * Crea una reserva cuyo servicio y barbero ya se validaron fuera de la transacción
+     * (ReservationValidatorChain.resolve); aquí solo se verifican turnos y solapamientos.
+     *
+     * @param request DTO con los datos de la reserva a crear
+     * @param resolved contexto devuelto por resolve para la misma petición
+     * @return la reserva creada
+     */
+    Reservation createReservation(CreateReservationRequestDTO request, ReservationValidationContext resolved);
+
+    /**
+     * Crea varias reservas consecutivas con el mismo barbero (combo de servicios).
+     * Se validan en una sola pasada y se guardan de forma atómica.
+     * 
+     * @param request DTO con el barbero, la hora de inicio y los servicios en orden
+     * @return las reservas creadas, en el orden de los servicios
+     */
+    List<Reservation> createBatchReservation(CreateBatchReservationRequestDTO request);
+
+    /**
+     * Crea un combo de servicios ya resuelto fuera de la transacción (ver createReservation).
+     *
+     * @param request DTO con el barbero, la hora de inicio y los servicios en orden
+     * @param resolved contexto devuelto por resolve para la misma petición
+     * @return las reservas creadas, en el orden de los servicios
+     */
+    List<Reservation> createBatchReservation(CreateBatchReservationRequestDTO request, ReservationValidationContext resolved);
+
     /**
      * Obtiene una reserva por su ID.
      * 
      * @param id identificador de la reserva
      * @return Optional con la reserva si existe
      */
-    Optional<Reservation> getReservationById(Long id);
+    Optional<ReservationListItemDTO> getReservationById(Long id);
 
     /**
      * Obtiene todas las reservas del sistema.
      * 
-     * @return lista de todas las reservas
+     * @return lista completa de reservas
+     */
+    List<ReservationListItemDTO> getAllReservations();
+
+    /**
+     * Obtiene una página de todas las reservas del sistema.
+     * 
+     * @param cursor cursor opaco de la página anterior (null para la primera)
+     * @param limit cantidad máxima de reservas de la página
+     * @return página de reservas con el cursor de la siguiente
      */
-    List<Reservation> getAllReservations();
+    CursorPage<ReservationListItemDTO> getAllReservations(String cursor, int limit);
 
     /**
      * Obtiene todas las reservas activas (futuras) de un cliente.
@@ -41,15 +81,25 @@ public interface IReservationService {
      * @param clientId identificador del cliente
      * @return lista de reservas futuras del cliente
      */
-    List<Reservation> getActiveReservationsByClient(String clientId);
+    List<ReservationListItemDTO> getActiveReservationsByClient(String clientId);
+
+    /**
+     * Obtiene el historial completo de reservas (pasadas) de un cliente.
+     * 
+     * @param clientId identificador del cliente
+     * @return reservas pasadas del cliente, la más reciente primero
+     */
+    List<ReservationListItemDTO> getReservationHistoryByClient(String clientId);
 
     /**
-     * Obtiene el historial de reservas (pasadas) de un cliente.
+     * Obtiene una página del historial de reservas (pasadas) de un cliente.
      * 
      * @param clientId identificador del cliente
-     * @return lista de reservas pasadas del cliente
+     * @param cursor cursor opaco de la página anterior (null para la primera)
+     * @param limit cantidad máxima de reservas de la página
+     * @return página de reservas pasadas del cliente, la más reciente primero
      */
-    List<Reservation> getReservationHistoryByClient(String clientId);
+    CursorPage<ReservationListItemDTO> getReservationHistoryByClient(String clientId, String cursor, int limit);
 
     /**
      * Obtiene las reservas de un barbero para un día específico.
@@ -58,7 +108,7 @@ public interface IReservationService {
      * @param day fecha del día a consultar
      * @return lista de reservas del barbero en el día especificado
      */
-    List<Reservation> getBarberReservationsByDay(String barberId, LocalDateTime day);
+    List<ReservationListItemDTO> getBarberReservationsByDay(String barberId, LocalDateTime day);
 
     /**
      * Cancela una reserva (usa el patrón State).
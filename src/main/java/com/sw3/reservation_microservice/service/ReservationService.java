@@ -2,21 +2,34 @@ package com.sw3.reservation_microservice.service;
 
 import com.sw3.reservation_microservice.access.ReservationRepository;
 import com.sw3.reservation_microservice.config.controladorExcepciones.excepcionesPropias.InvalidReservationDeletionException;
+import com.sw3.reservation_microservice.config.controladorExcepciones.excepcionesPropias.InvalidReservationStateException;
 import com.sw3.reservation_microservice.config.controladorExcepciones.excepcionesPropias.ReservationNotFoundException;
+import com.sw3.reservation_microservice.config.controladorExcepciones.excepcionesPropias.ReservationValidationException;
 import com.sw3.reservation_microservice.controller.dto.request.*;
+import com.sw3.reservation_microservice.controller.dto.response.ReservationListItemDTO;
 import com.sw3.reservation_microservice.domain.model.Reservation;
 import com.sw3.reservation_microservice.domain.model.ReservationStatus;
 import com.sw3.reservation_microservice.domain.model.ServiceEntity;
-import com.sw3.reservation_microservice.domain.state.InasistenciaState;
+import com.sw3.reservation_microservice.domain.state.EnEsperaState;
+import com.sw3.reservation_microservice.service.event.ReservationChangedEvent;
+import com.sw3.reservation_microservice.service.routing.ReadYourWritesTracker;
+import com.sw3.reservation_microservice.service.validation.ReservationValidationContext;
 import com.sw3.reservation_microservice.service.validation.ReservationValidatorChain;
+import com.sw3.reservation_microservice.service.validation.RescheduleValidationContext;
 import com.sw3.reservation_microservice.service.validation.RescheduleValidatorChain;
-import com.sw3.reservation_microservice.access.ServiceRepository;
-import com.sw3.reservation_microservice.utils.ReservationTimeCalculator;
+import com.sw3.reservation_microservice.utils.CursorPage;
+import com.sw3.reservation_microservice.utils.PageCursor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.SQLException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -26,6 +39,9 @@ import java.util.Optional;
 @Service
 public class ReservationService implements IReservationService {
 
+    /** SQLState de PostgreSQL para violaciones de restricciones EXCLUDE */
+    private static final String EXCLUSION_VIOLATION = "23P01";
+
     @Autowired
     private ReservationRepository reservationRepository;
 
@@ -36,25 +52,37 @@ public class ReservationService implements IReservationService {
     private RescheduleValidatorChain rescheduleValidatorChain;
 
     @Autowired
-    private ServiceRepository serviceRepository;
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ReadYourWritesTracker readYourWrites;
+
+    /** Tope de reservas por página en los listados paginados */
+    @Value("${reservation.pagination.max-limit:200}")
+    private int maxPageSize;
 
     /**
      * Crea una nueva reserva después de validarla con la cadena de responsabilidades.
      */
     @Transactional
     public Reservation createReservation(CreateReservationRequestDTO request) {
-        // Ejecutar todas las validaciones
-        validatorChain.validate(request);
+        // Ejecutar todas las validaciones; el contexto trae el servicio ya resuelto
+        // y el endTime calculado en bloques de 10 minutos
+        return insertReservation(request, validatorChain.validate(request));
+    }
 
-        // Obtener el servicio para calcular la duración
-        ServiceEntity service = serviceRepository.findById(request.getServiceId())
-            .orElseThrow(() -> new RuntimeException("Servicio no encontrado."));
+    /**
+     * Crea una reserva ya resuelta por ReservationValidatorChain.resolve fuera de la transacción:
+     * dentro de ella solo quedan los turnos y los solapamientos.
+     */
+    @Transactional
+    public Reservation createReservation(CreateReservationRequestDTO request, ReservationValidationContext resolved) {
+        validatorChain.checkAvailability(resolved);
+        return insertReservation(request, resolved);
+    }
 
-        // Calcular automáticamente el endTime basado en bloques de 10 minutos
-        LocalDateTime expectedEndTime = ReservationTimeCalculator.calculateEndTime(
-            request.getStartTime(), 
-            service.getDuration()
-        );
+    private Reservation insertReservation(CreateReservationRequestDTO request, ReservationValidationContext context) {
+        LocalDateTime expectedEndTime = context.getEndTime();
 
         // Si todas las validaciones pasan, crear la reserva
         Reservation reservation = new Reservation();
@@ -66,63 +94,160 @@ public class ReservationService implements IReservationService {
         reservation.setPrice(request.getPrice());
         // El status y state ya se inicializan en el constructor
 
-        return reservationRepository.save(reservation);
+        // Si la restricción de no solapamiento está activa, la BD rechaza la carrera entre
+        // dos reservas concurrentes que pasaron la validación
+        Reservation saved = saveCheckingOverlap(reservation);
+        eventPublisher.publishEvent(ReservationChangedEvent.of(ReservationChangedEvent.Type.CREATED, saved));
+        return saved;
     }
 
     /**
      * Obtiene una reserva por su ID.
      */
-    public Optional<Reservation> getReservationById(Long id) {
-        return reservationRepository.findById(id);
+    @Transactional(readOnly = true)
+    public Optional<ReservationListItemDTO> getReservationById(Long id) {
+        return reservationRepository.findListItemById(id);
     }
 
     /**
-     * Obtiene todas las reservas del sistema.
+     * Crea un combo de reservas consecutivas con el mismo barbero.
+     * Todo el intervalo se valida en una sola pasada de la cadena y las reservas
+     * se insertan juntas (JDBC batching); si una falla, no se guarda ninguna.
      */
-    public List<Reservation> getAllReservations() {
-        return reservationRepository.findAll();
+    @Transactional
+    public List<Reservation> createBatchReservation(CreateBatchReservationRequestDTO request) {
+        return insertBatch(request, validatorChain.validate(request));
+    }
+
+    /**
+     * Crea un combo ya resuelto fuera de la transacción (ver createReservation).
+     */
+    @Transactional
+    public List<Reservation> createBatchReservation(CreateBatchReservationRequestDTO request,
+                                                    ReservationValidationContext resolved) {
+        validatorChain.checkAvailability(resolved);
+        return insertBatch(request, resolved);
+    }
+
+    private List<Reservation> insertBatch(CreateBatchReservationRequestDTO request, ReservationValidationContext context) {
+        List<Reservation> reservations = new ArrayList<>(context.getSegments().size());
+        for (ReservationValidationContext.ServiceSegment segment : context.getSegments()) {
+            ServiceEntity service = segment.getService();
+
+            Reservation reservation = new Reservation();
+            reservation.setClientId(request.getClientId());
+            reservation.setBarberId(request.getBarberId());
+            reservation.setServiceId(service.getId());
+            reservation.setStartTime(segment.getStartTime());
+            reservation.setEndTime(segment.getEndTime());
+            reservation.setPrice(service.getPrice());
+            reservations.add(reservation);
+        }
+
+        List<Reservation> saved = saveAllCheckingOverlap(reservations);
+        saved.forEach(r -> eventPublisher.publishEvent(
+            ReservationChangedEvent.of(ReservationChangedEvent.Type.CREATED, r)));
+        return saved;
+    }
+
+    /**
+     * Obtiene el ID del barbero de una reserva, si existe.
+     */
+    public Optional<String> findBarberIdOfReservation(Long reservationId) {
+        return reservationRepository.findBarberIdById(reservationId);
+    }
+
+    /**
+     * Obtiene todas las reservas del sistema en orden (startTime, id).
+     */
+    @Transactional(readOnly = true)
+    public List<ReservationListItemDTO> getAllReservations() {
+        return reservationRepository.findAllListItems();
+    }
+
+    /**
+     * Obtiene una página de todas las reservas del sistema en orden (startTime, id).
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<ReservationListItemDTO> getAllReservations(String cursor, int limit) {
+        int pageSize = pageSize(limit);
+        List<ReservationListItemDTO> fetched;
+        if (cursor == null) {
+            fetched = reservationRepository.findFirstPage(Limit.of(pageSize + 1));
+        } else {
+            PageCursor after = PageCursor.decode(cursor);
+            fetched = reservationRepository.findPageAfter(after.startTime(), after.id(), Limit.of(pageSize + 1));
+        }
+        return CursorPage.of(fetched, pageSize, ReservationService::cursorOf);
     }
 
     /**
      * Obtiene todas las reservas de un cliente (futuras).
+     * Se lee de la réplica salvo justo después de una escritura del propio cliente.
      */
-    public List<Reservation> getActiveReservationsByClient(String clientId) {
-        return reservationRepository.findByClientIdAndStartTimeAfterOrderByStartTimeAsc(
+    @Transactional(readOnly = true)
+    public List<ReservationListItemDTO> getActiveReservationsByClient(String clientId) {
+        return readYourWrites.read(clientId, () -> reservationRepository.findUpcomingByClientId(
             clientId, 
             LocalDateTime.now()
-        );
+        ));
     }
 
     /**
-     * Obtiene el historial de reservas de un cliente (pasadas).
+     * Obtiene el historial completo de reservas de un cliente (pasadas), la más reciente primero.
      */
-    public List<Reservation> getReservationHistoryByClient(String clientId) {
-        return reservationRepository.findByClientIdAndStartTimeBeforeOrderByStartTimeDesc(
-            clientId, 
-            LocalDateTime.now()
-        );
+    @Transactional(readOnly = true)
+    public List<ReservationListItemDTO> getReservationHistoryByClient(String clientId) {
+        return readYourWrites.read(clientId, () -> reservationRepository.findHistoryByClientId(clientId, LocalDateTime.now()));
+    }
+
+    /**
+     * Obtiene una página del historial de reservas de un cliente (pasadas), la más reciente primero.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<ReservationListItemDTO> getReservationHistoryByClient(String clientId, String cursor, int limit) {
+        int pageSize = pageSize(limit);
+        // Sin cursor, (ahora, Long.MIN_VALUE) equivale a startTime < ahora
+        PageCursor after = cursor == null ? new PageCursor(LocalDateTime.now(), Long.MIN_VALUE) : PageCursor.decode(cursor);
+        List<ReservationListItemDTO> fetched = readYourWrites.read(clientId, () -> reservationRepository.findHistoryPage(
+            clientId, after.startTime(), after.id(), Limit.of(pageSize + 1)));
+        return CursorPage.of(fetched, pageSize, ReservationService::cursorOf);
     }
 
     /**
-     * Obtiene todas las reservas activas y futuras de un barbero.
-     * Se usa para calcular disponibilidad de horarios.
+     * Obtiene todas las reservas activas y futuras de un barbero, en orden cronológico.
      */
-    public List<Reservation> getAllReservationsByBarber(String barberId) {
-        return reservationRepository.findActiveReservationsByBarberId(barberId, LocalDateTime.now());
+    @Transactional(readOnly = true)
+    public List<ReservationListItemDTO> getAllReservationsByBarber(String barberId) {
+        return reservationRepository.findActiveByBarberId(barberId, LocalDateTime.now());
+    }
+
+    /**
+     * Obtiene una página de las reservas activas y futuras de un barbero, en orden cronológico.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<ReservationListItemDTO> getAllReservationsByBarber(String barberId, String cursor, int limit) {
+        int pageSize = pageSize(limit);
+        // Sin cursor, (ahora, Long.MIN_VALUE) equivale a startTime >= ahora
+        PageCursor after = cursor == null ? new PageCursor(LocalDateTime.now(), Long.MIN_VALUE) : PageCursor.decode(cursor);
+        List<ReservationListItemDTO> fetched = reservationRepository.findActivePageByBarberId(
+            barberId, after.startTime(), after.id(), Limit.of(pageSize + 1));
+        return CursorPage.of(fetched, pageSize, ReservationService::cursorOf);
     }
 
     /**
      * Obtiene las reservas de un barbero para un día específico.
      */
-    public List<Reservation> getBarberReservationsByDay(String barberId, LocalDateTime day) {
+    @Transactional(readOnly = true)
+    public List<ReservationListItemDTO> getBarberReservationsByDay(String barberId, LocalDateTime day) {
         LocalDateTime startOfDay = day.toLocalDate().atStartOfDay();
         LocalDateTime endOfDay = day.toLocalDate().atTime(23, 59, 59);
         
-        return reservationRepository.findByBarberIdAndStartTimeBetweenOrderByStartTimeAsc(
+        return readYourWrites.readBarber(barberId, () -> reservationRepository.findDayByBarberId(
             barberId, 
             startOfDay, 
             endOfDay
-        );
+        ));
     }
 
     /**
@@ -130,13 +255,19 @@ public class ReservationService implements IReservationService {
      */
     @Transactional
     public Reservation cancelReservation(Long reservationId, String clientId) {
+        // Un solo UPDATE condicionado a las reglas de EnEsperaState (estado y 1 hora de anticipación)
+        Optional<Reservation> cancelled = reservationRepository.cancelIfAllowed(
+            reservationId, clientId, EnEsperaState.cancellationLimit(LocalDateTime.now()));
+        if (cancelled.isPresent()) {
+            eventPublisher.publishEvent(ReservationChangedEvent.of(ReservationChangedEvent.Type.CANCELLED, cancelled.get()));
+            return cancelled.get();
+        }
+
+        // No se cumplió la guarda: el patrón State indica el motivo con su excepción
         Reservation reservation = reservationRepository.findByIdAndClientId(reservationId, clientId)
             .orElseThrow(() -> new RuntimeException("Reserva no encontrada o no pertenece al cliente."));
-
-        // El patrón State maneja la lógica de cancelación y validaciones
         reservation.cancelar();
-
-        return reservationRepository.save(reservation);
+        throw concurrentChange();
     }
 
   
@@ -148,23 +279,30 @@ public class ReservationService implements IReservationService {
      */
     @Transactional
     public Reservation changeReservationStatus(Long reservationId, String newStatus) {
-        Reservation reservation = reservationRepository.findById(reservationId)
-            .orElseThrow(() -> new RuntimeException("Reserva no encontrada."));
+        LocalDateTime noShowLimit = EnEsperaState.noShowLimit(LocalDateTime.now());
+        String target = newStatus.toUpperCase();
+
+        // 1. Transición solicitada como UPDATE condicional (sin opción manual de inasistencia)
+        Optional<Reservation> updated = switch (target) {
+            case "EN_PROCESO" -> reservationRepository.startServiceIfOnTime(reservationId, noShowLimit);
+            case "FINALIZADA" -> reservationRepository.finishService(reservationId);
+            default -> Optional.empty();
+        };
+
+        // 2. Si pasaron más de 10 minutos del inicio y sigue en espera, se marca como INASISTENCIA
+        if (updated.isEmpty()) {
+            updated = reservationRepository.markNoShowIfLate(reservationId, noShowLimit);
+        }
 
-        // Validar si debe marcarse automáticamente como INASISTENCIA
-        LocalDateTime now = LocalDateTime.now();
-        LocalDateTime tenMinutesAfterStart = reservation.getStartTime().plusMinutes(10);
-        
-        if (reservation.getStatus() == ReservationStatus.EN_ESPERA && 
-            now.isAfter(tenMinutesAfterStart)) {
-            // Automáticamente marcar como inasistencia si pasaron más de 10 minutos
-            reservation.setStatus(ReservationStatus.INASISTENCIA);
-            reservation.setState(new InasistenciaState());
-            return reservationRepository.save(reservation);
+        if (updated.isPresent()) {
+            eventPublisher.publishEvent(ReservationChangedEvent.of(ReservationChangedEvent.Type.STATUS_CHANGED, updated.get()));
+            return updated.get();
         }
 
-        // Cambiar estado según lo solicitado (sin opción manual de inasistencia)
-        switch (newStatus.toUpperCase()) {
+        // 3. Ninguna guarda se cumplió: el patrón State indica el motivo con su excepción
+        Reservation reservation = reservationRepository.findById(reservationId)
+            .orElseThrow(() -> new RuntimeException("Reserva no encontrada."));
+        switch (target) {
             case "EN_PROCESO":
                 reservation.iniciarServicio();
                 break;
@@ -174,8 +312,7 @@ public class ReservationService implements IReservationService {
             default:
                 throw new RuntimeException("Estado no válido: " + newStatus + ". Estados permitidos: EN_PROCESO, FINALIZADA");
         }
-
-        return reservationRepository.save(reservation);
+        throw concurrentChange();
     }
 
     /**
@@ -206,27 +343,30 @@ public class ReservationService implements IReservationService {
             throw new RuntimeException("Solo se pueden reprogramar reservas en estado EN_ESPERA.");
         }
 
-        // Obtener el servicio para calcular la duración
-        ServiceEntity service = serviceRepository.findById(reservation.getServiceId())
-            .orElseThrow(() -> new RuntimeException("Servicio no encontrado."));
-
-        // Calcular automáticamente el endTime basado en bloques de 10 minutos
-        LocalDateTime expectedEndTime = ReservationTimeCalculator.calculateEndTime(
-            request.getStartTime(), 
-            service.getDuration()
-        );
-        
-        // Asignar endTime calculado al request para que pase las validaciones si es necesario
+        // Ejecutar validaciones de reprogramación; la cadena resuelve el servicio
+        // y calcula el nuevo endTime en bloques de 10 minutos
+        RescheduleValidationContext context = rescheduleValidatorChain.validate(request, reservation);
+        LocalDateTime expectedEndTime = context.getEndTime();
         request.setEndTime(expectedEndTime);
 
-        // Ejecutar validaciones de reprogramación
-        rescheduleValidatorChain.validate(request, reservation.getBarberId(), reservationId);
+        // Actualizar fechas con un UPDATE condicionado a que la reserva no haya cambiado desde la validación
+        LocalDateTime previousStartTime = reservation.getStartTime();
+        LocalDateTime previousEndTime = reservation.getEndTime();
+        int updated;
+        try {
+            updated = reservationRepository.rescheduleIfUnchanged(
+                reservationId, clientId, previousStartTime, request.getStartTime(), expectedEndTime);
+        } catch (DataIntegrityViolationException e) {
+            throw translateOverlap(e);
+        }
+        if (updated == 0) {
+            throw concurrentChange();
+        }
 
-        // Actualizar fechas
         reservation.setStartTime(request.getStartTime());
         reservation.setEndTime(expectedEndTime);
-
-        return reservationRepository.save(reservation);
+        eventPublisher.publishEvent(ReservationChangedEvent.rescheduled(reservation, previousStartTime, previousEndTime));
+        return reservation;
     }
 
     /**
@@ -247,5 +387,65 @@ public class ReservationService implements IReservationService {
 
         // Eliminar la reserva
         reservationRepository.delete(reservation);
+        eventPublisher.publishEvent(ReservationChangedEvent.of(ReservationChangedEvent.Type.DELETED, reservation));
+    }
+
+    /**
+     * Guarda la reserva forzando el flush para que una violación de la restricción
+     * reservations_no_overlap (modo reservation.overlap-constraint.enabled) se traduzca aquí
+     * a la misma excepción que lanza la validación de disponibilidad.
+     */
+    private Reservation saveCheckingOverlap(Reservation reservation) {
+        try {
+            return reservationRepository.saveAndFlush(reservation);
+        } catch (DataIntegrityViolationException e) {
+            throw translateOverlap(e);
+        }
+    }
+
+    /**
+     * La guarda del UPDATE falló pero las reglas de State permiten la operación:
+     * otra petición cambió la reserva entre la sentencia y la lectura.
+     */
+    private InvalidReservationStateException concurrentChange() {
+        return new InvalidReservationStateException("La reserva cambió mientras se procesaba. Intenta de nuevo.");
+    }
+
+    private int pageSize(int limit) {
+        if (limit < 1 || limit > maxPageSize) {
+            throw new ReservationValidationException("El tamaño de página debe estar entre 1 y " + maxPageSize + ".");
+        }
+        return limit;
+    }
+
+    private static PageCursor cursorOf(ReservationListItemDTO reservation) {
+        return new PageCursor(reservation.startTime(), reservation.id());
+    }
+
+    private List<Reservation> saveAllCheckingOverlap(List<Reservation> reservations) {
+        try {
+            return reservationRepository.saveAllAndFlush(reservations);
+        } catch (DataIntegrityViolationException e) {
+            throw translateOverlap(e);
+        }
+    }
+
+    private RuntimeException translateOverlap(DataIntegrityViolationException e) {
+        if (isExclusionViolation(e)) {
+            return new ReservationValidationException(
+                "El barbero no está disponible en el horario solicitado. Ya tiene una reserva."
+            );
+        }
+        return e;
+    }
+
+    private static boolean isExclusionViolation(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException
+                    && EXCLUSION_VIOLATION.equals(sqlException.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
     }
 }
@@ -0,0 +1,191 @@
+package com.sw3.reservation_microservice.service.analytics;
+
+import com.sw3.reservation_microservice.access.BarberRepository;
+import com.sw3.reservation_microservice.access.BookedMinutesByHour;
+import com.sw3.reservation_microservice.access.ReservationRepository;
+import com.sw3.reservation_microservice.config.controladorExcepciones.excepcionesPropias.ReservationValidationException;
+import com.sw3.reservation_microservice.controller.dto.response.BarberUtilizationDTO;
+import com.sw3.reservation_microservice.controller.dto.response.BarberUtilizationDTO.DayUtilization;
+import com.sw3.reservation_microservice.controller.dto.response.BarberUtilizationDTO.HourUtilization;
+import com.sw3.reservation_microservice.domain.model.Barber;
+import com.sw3.reservation_microservice.service.availability.WeeklyShiftTemplate;
+import com.sw3.reservation_microservice.service.availability.WeeklyShiftTemplateCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Ocupación de los barberos (minutos reservados / minutos de turno) por día y por hora del día.
+ *
+ * Los minutos reservados salen de una sola consulta agregada para todos los barberos pedidos;
+ * los minutos de turno se expanden en memoria desde la plantilla semanal de cada barbero.
+ * Los días ya cerrados (anteriores a hoy) no cambian, así que sus minutos reservados por hora
+ * quedan en una cache LRU y solo se consulta a la BD desde el primer día que falte.
+ */
+@Service
+public class BarberUtilizationService {
+
+    public static final int MAX_ANALYTICS_DAYS = 92;
+
+    private static final int HOURS = 24;
+
+    private final ReservationRepository reservationRepository;
+    private final BarberRepository barberRepository;
+    private final WeeklyShiftTemplateCache shiftTemplates;
+
+    /** Minutos reservados por hora de cada (barbero, día cerrado) */
+    private final Map<ClosedDay, int[]> closedDays;
+
+    public BarberUtilizationService(ReservationRepository reservationRepository,
+                                    BarberRepository barberRepository,
+                                    WeeklyShiftTemplateCache shiftTemplates,
+                                    @Value("${reservation.analytics.closed-days.max-entries:20000}") int maxEntries) {
+        this.reservationRepository = reservationRepository;
+        this.barberRepository = barberRepository;
+        this.shiftTemplates = shiftTemplates;
+        this.closedDays = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<ClosedDay, int[]> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Ocupación en [from, to] de un barbero o, si barberId es null, de todos los barberos.
+     */
+    public List<BarberUtilizationDTO> utilization(String barberId, LocalDate from, LocalDate to) {
+        int dayCount = dayCount(from, to);
+        List<String> barberIds = barberId != null
+            ? List.of(barberId)
+            : barberRepository.findAll().stream().map(Barber::getId).toList();
+
+        LocalDate today = LocalDate.now();
+        Map<String, int[][]> booked = loadBookedMinutes(barberIds, from, dayCount, today);
+
+        List<BarberUtilizationDTO> result = new ArrayList<>(barberIds.size());
+        for (String id : barberIds) {
+            result.add(summarize(id, from, booked.get(id), shiftTemplates.forBarber(id)));
+        }
+        return result;
+    }
+
+    /**
+     * Minutos reservados [barbero][día][hora]: días cerrados desde la cache y el resto con una
+     * sola consulta que empieza en el primer día que falta de cualquiera de los barberos.
+     */
+    private Map<String, int[][]> loadBookedMinutes(List<String> barberIds, LocalDate from, int dayCount, LocalDate today) {
+        Map<String, int[][]> booked = new LinkedHashMap<>();
+        Set<String> pending = new LinkedHashSet<>();
+        int firstMissing = dayCount;
+
+        synchronized (closedDays) {
+            for (String barberId : barberIds) {
+                int[][] days = new int[dayCount][];
+                booked.put(barberId, days);
+                for (int offset = 0; offset < dayCount; offset++) {
+                    LocalDate date = from.plusDays(offset);
+                    int[] cached = date.isBefore(today) ? closedDays.get(new ClosedDay(barberId, date)) : null;
+                    if (cached == null) {
+                        pending.add(barberId);
+                        firstMissing = Math.min(firstMissing, offset);
+                        break;
+                    }
+                    days[offset] = cached;
+                }
+            }
+        }
+        if (pending.isEmpty()) {
+            return booked;
+        }
+
+        LocalDate queryFrom = from.plusDays(firstMissing);
+        for (String barberId : pending) {
+            int[][] days = booked.get(barberId);
+            for (int offset = firstMissing; offset < dayCount; offset++) {
+                days[offset] = new int[HOURS];
+            }
+        }
+        List<BookedMinutesByHour> rows = reservationRepository.sumBookedMinutesByHour(pending, queryFrom,
+                queryFrom.atStartOfDay(), from.plusDays(dayCount).atStartOfDay());
+        for (BookedMinutesByHour row : rows) {
+            int[][] days = booked.get(row.getBarberId());
+            days[firstMissing + row.getDayOffset()][row.getHour()] += row.getBookedMinutes().intValue();
+        }
+
+        synchronized (closedDays) {
+            for (String barberId : pending) {
+                int[][] days = booked.get(barberId);
+                for (int offset = firstMissing; offset < dayCount && from.plusDays(offset).isBefore(today); offset++) {
+                    closedDays.put(new ClosedDay(barberId, from.plusDays(offset)), days[offset]);
+                }
+            }
+        }
+        return booked;
+    }
+
+    private BarberUtilizationDTO summarize(String barberId, LocalDate from, int[][] booked, WeeklyShiftTemplate template) {
+        long[] bookedByHour = new long[HOURS];
+        long[] shiftByHour = new long[HOURS];
+        List<DayUtilization> days = new ArrayList<>(booked.length);
+
+        for (int offset = 0; offset < booked.length; offset++) {
+            LocalDate date = from.plusDays(offset);
+            int[] shift = template.minutesByHour(date.getDayOfWeek());
+            List<HourUtilization> hours = new ArrayList<>();
+            long dayBooked = 0;
+            long dayShift = 0;
+            for (int hour = 0; hour < HOURS; hour++) {
+                int bookedMinutes = booked[offset][hour];
+                if (bookedMinutes == 0 && shift[hour] == 0) {
+                    continue;
+                }
+                hours.add(new HourUtilization(hour, bookedMinutes, shift[hour], percent(bookedMinutes, shift[hour])));
+                dayBooked += bookedMinutes;
+                dayShift += shift[hour];
+                bookedByHour[hour] += bookedMinutes;
+                shiftByHour[hour] += shift[hour];
+            }
+            days.add(new DayUtilization(date, dayBooked, dayShift, percent(dayBooked, dayShift), hours));
+        }
+
+        List<HourUtilization> hoursOfDay = new ArrayList<>();
+        long totalBooked = 0;
+        long totalShift = 0;
+        for (int hour = 0; hour < HOURS; hour++) {
+            if (bookedByHour[hour] == 0 && shiftByHour[hour] == 0) {
+                continue;
+            }
+            hoursOfDay.add(new HourUtilization(hour, bookedByHour[hour], shiftByHour[hour],
+                    percent(bookedByHour[hour], shiftByHour[hour])));
+            totalBooked += bookedByHour[hour];
+            totalShift += shiftByHour[hour];
+        }
+        return new BarberUtilizationDTO(barberId, totalBooked, totalShift, percent(totalBooked, totalShift), days, hoursOfDay);
+    }
+
+    /** Porcentaje con un decimal */
+    private static double percent(long booked, long shift) {
+        return shift == 0 ? 0.0 : Math.round(booked * 1000.0 / shift) / 10.0;
+    }
+
+    private static int dayCount(LocalDate from, LocalDate to) {
+        long days = ChronoUnit.DAYS.between(from, to) + 1;
+        if (days <= 0 || days > MAX_ANALYTICS_DAYS) {
+            throw new ReservationValidationException(
+                "El rango de la ocupación debe tener entre 1 y " + MAX_ANALYTICS_DAYS + " días.");
+        }
+        return (int) days;
+    }
+
+    private record ClosedDay(String barberId, LocalDate date) {
+    }
+}
@@ -0,0 +1,57 @@
+package com.sw3.reservation_microservice.service.availability;
+
+import com.sw3.reservation_microservice.controller.dto.response.AvailableSlotDTO;
+import com.sw3.reservation_microservice.utils.ReservationTimeCalculator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Sugiere los K horarios reservables más cercanos al solicitado cuando la cadena rechaza una
+ * reserva por choque o por estar fuera de turno, para que el cliente no tenga que volver a
+ * consultar la disponibilidad.
+ *
+ * Usa lo que la cadena ya resolvió (barbero, inicio y fin calculado) y hace un único recorrido
+ * en memoria de los bloques libres del día solicitado, sin consultas a la BD.
+ */
+@Component
+public class AlternativeSlotSuggester {
+
+    private final AvailabilityService availabilityService;
+    private final int count;
+
+    public AlternativeSlotSuggester(AvailabilityService availabilityService,
+                                    @Value("${reservation.alternatives.count:3}") int count) {
+        this.availabilityService = availabilityService;
+        this.count = count;
+    }
+
+    /**
+     * Horarios libres del mismo barbero y día para la misma duración que [start, end),
+     * ordenados por cercanía al inicio solicitado.
+     */
+    public List<AvailableSlotDTO> suggest(String barberId, LocalDateTime start, LocalDateTime end) {
+        if (count <= 0 || barberId == null || start == null || end == null || !end.isAfter(start)) {
+            return List.of();
+        }
+        int blocksNeeded = ReservationTimeCalculator.calculateBlocksNeeded((int) Duration.between(start, end).toMinutes());
+        long minutes = (long) blocksNeeded * ReservationTimeCalculator.BLOCK_SIZE_MINUTES;
+        int requestedSecond = start.toLocalTime().toSecondOfDay();
+
+        return availabilityService.freeStartTimes(barberId, start.toLocalDate(), blocksNeeded, LocalDateTime.now())
+            .stream()
+            .sorted(Comparator.comparingInt((LocalTime time) -> Math.abs(time.toSecondOfDay() - requestedSecond)))
+            .limit(count)
+            .sorted()
+            .map(time -> {
+                LocalDateTime slotStart = start.toLocalDate().atTime(time);
+                return new AvailableSlotDTO(barberId, slotStart, slotStart.plusMinutes(minutes));
+            })
+            .toList();
+    }
+}
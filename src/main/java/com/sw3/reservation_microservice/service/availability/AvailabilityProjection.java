@@ -0,0 +1,229 @@
+package com.sw3.reservation_microservice.service.availability;
+
+import com.sw3.reservation_microservice.access.BarberRepository;
+import com.sw3.reservation_microservice.access.ReservationRepository;
+import com.sw3.reservation_microservice.access.WorkShiftRepository;
+import com.sw3.reservation_microservice.controller.dto.response.ProjectionConsistencyDTO;
+import com.sw3.reservation_microservice.domain.model.Reservation;
+import com.sw3.reservation_microservice.domain.model.WorkShift;
+import com.sw3.reservation_microservice.service.event.BarberChangedEvent;
+import com.sw3.reservation_microservice.service.event.CacheInvalidatedEvent;
+import com.sw3.reservation_microservice.service.event.ReservationChangedEvent;
+import com.sw3.reservation_microservice.service.event.WorkShiftChangedEvent;
+import com.sw3.reservation_microservice.utils.BlockBitmap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Proyección precalculada de la disponibilidad: por barbero y día, los bloques libres de
+ * cada turno (turno redondeado hacia adentro menos reservas redondeadas hacia afuera).
+ *
+ * Las lecturas son una búsqueda por clave. La proyección se actualiza de forma incremental
+ * con los eventos de reservas (solo los días afectados), de turnos y de barberos, siempre
+ * después de DayOccupancyMap, de donde toma los bits. Los días que no están en la proyección
+ * se calculan en la primera lectura.
+ *
+ * rebuild() la reconstruye desde la BD y checkConsistency() la compara con las tablas fuente.
+ */
+@Component
+@Slf4j
+public class AvailabilityProjection {
+
+    private static final long[][] NO_SHIFTS = new long[0][];
+
+    private final DayOccupancyMap occupancyMap;
+    private final BarberRepository barberRepository;
+    private final ReservationRepository reservationRepository;
+    private final WorkShiftRepository workShiftRepository;
+    private final int horizonDays;
+
+    private final Map<DayOccupancyMap.BarberDay, long[][]> days = new ConcurrentHashMap<>();
+    private final Map<String, Boolean> barberActive = new ConcurrentHashMap<>();
+
+    public AvailabilityProjection(DayOccupancyMap occupancyMap,
+                                  BarberRepository barberRepository,
+                                  ReservationRepository reservationRepository,
+                                  WorkShiftRepository workShiftRepository,
+                                  @Value("${reservation.availability.projection.horizon-days:30}") int horizonDays) {
+        this.occupancyMap = occupancyMap;
+        this.barberRepository = barberRepository;
+        this.reservationRepository = reservationRepository;
+        this.workShiftRepository = workShiftRepository;
+        this.horizonDays = horizonDays;
+    }
+
+    /**
+     * Bloques libres de cada turno del barbero en el día (copias). Vacío si el barbero no está activo.
+     */
+    public List<long[]> freeBlocks(String barberId, LocalDate date) {
+        long[][] free = days.computeIfAbsent(new DayOccupancyMap.BarberDay(barberId, date), this::compute);
+        List<long[]> copies = new ArrayList<>(free.length);
+        for (long[] shift : free) {
+            copies.add(shift.clone());
+        }
+        return copies;
+    }
+
+    /**
+     * Recarga la ocupación y los turnos desde la BD y recalcula la proyección de los barberos
+     * activos desde hoy hasta el horizonte configurado. Devuelve la cantidad de barbero-día calculados.
+     */
+    public int rebuild() {
+        occupancyMap.load();
+        occupancyMap.reloadShifts();
+        barberActive.clear();
+        days.clear();
+
+        LocalDate today = LocalDate.now();
+        int computed = 0;
+        for (String barberId : workShiftRepository.findAll().stream().map(WorkShift::getBarberId).distinct().toList()) {
+            for (int offset = 0; offset <= horizonDays; offset++) {
+                DayOccupancyMap.BarberDay key = new DayOccupancyMap.BarberDay(barberId, today.plusDays(offset));
+                days.put(key, compute(key));
+                computed++;
+            }
+        }
+        log.info("[AvailabilityProjection] Proyección reconstruida: {} barbero-día", computed);
+        return computed;
+    }
+
+    /**
+     * Compara la proyección del barbero en [from, to] con lo que resulta de las tablas de reservas y
+     * turnos. Los días que no coinciden se corrigen con el valor de las tablas y se reportan.
+     */
+    public ProjectionConsistencyDTO checkConsistency(String barberId, LocalDate from, LocalDate to) {
+        List<WorkShift> shifts = workShiftRepository.findByBarberId(barberId);
+        boolean active = barberRepository.existsByIdAndAvailabilityStatusTrue(barberId);
+        List<LocalDate> mismatched = new ArrayList<>();
+        int checked = 0;
+
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            checked++;
+            long[][] expected = active ? fromSourceTables(barberId, date, shifts) : NO_SHIFTS;
+            DayOccupancyMap.BarberDay key = new DayOccupancyMap.BarberDay(barberId, date);
+            long[][] projected = days.computeIfAbsent(key, this::compute);
+            if (!sameBlocks(expected, projected)) {
+                mismatched.add(date);
+                days.put(key, expected);
+            }
+        }
+        if (!mismatched.isEmpty()) {
+            log.warn("[AvailabilityProjection] Barbero {}: {} días no coincidían con las tablas y se corrigieron",
+                barberId, mismatched.size());
+        }
+        return new ProjectionConsistencyDTO(barberId, from, to, checked, mismatched);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservationChanged(ReservationChangedEvent event) {
+        refreshDays(event.getBarberId(), event.getStartTime(), event.getEndTime());
+        if (event.getPreviousStartTime() != null) {
+            refreshDays(event.getBarberId(), event.getPreviousStartTime(), event.getPreviousEndTime());
+        }
+        days.keySet().removeIf(key -> key.date().isBefore(LocalDate.now()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onWorkShiftChanged(WorkShiftChangedEvent event) {
+        refreshBarber(event.getBarberId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBarberChanged(BarberChangedEvent event) {
+        barberActive.put(event.getBarberId(), event.isActive());
+        refreshBarber(event.getBarberId());
+    }
+
+    /**
+     * Cambios de otra instancia (reservas, turnos o estado del barbero): el estado se vuelve a
+     * leer de la BD y los días ya proyectados se recalculan con la ocupación recargada.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCacheInvalidated(CacheInvalidatedEvent event) {
+        for (String barberId : event.getBarberIds()) {
+            barberActive.remove(barberId);
+            refreshBarber(barberId);
+        }
+    }
+
+    /** Recalcula los días ya proyectados del intervalo; los demás se calcularán al leerlos */
+    private void refreshDays(String barberId, LocalDateTime start, LocalDateTime end) {
+        for (LocalDate date = start.toLocalDate(); date.atStartOfDay().isBefore(end); date = date.plusDays(1)) {
+            days.computeIfPresent(new DayOccupancyMap.BarberDay(barberId, date), (key, previous) -> compute(key));
+        }
+    }
+
+    private void refreshBarber(String barberId) {
+        days.replaceAll((key, previous) -> key.barberId().equals(barberId) ? compute(key) : previous);
+    }
+
+    private long[][] compute(DayOccupancyMap.BarberDay key) {
+        boolean active = barberActive.computeIfAbsent(key.barberId(), barberRepository::existsByIdAndAvailabilityStatusTrue);
+        if (!active) {
+            return NO_SHIFTS;
+        }
+        List<long[]> shifts = occupancyMap.shiftBlocks(key.barberId(), key.date().getDayOfWeek());
+        long[] booked = occupancyMap.bookedBlocks(key.barberId(), key.date());
+        long[][] free = new long[shifts.size()][];
+        for (int i = 0; i < free.length; i++) {
+            free[i] = shifts.get(i);
+            BlockBitmap.andNot(free[i], booked);
+        }
+        return free;
+    }
+
+    /**
+     * Mismo cálculo que compute() pero leyendo directamente las tablas fuente.
+     */
+    private long[][] fromSourceTables(String barberId, LocalDate date, List<WorkShift> shifts) {
+        LocalDateTime dayStart = date.atStartOfDay();
+        LocalDateTime dayEnd = dayStart.plusDays(1);
+        long[] booked = BlockBitmap.empty();
+        for (Reservation reservation : reservationRepository.findOverlappingReservations(barberId, dayStart, dayEnd)) {
+            LocalTime from = reservation.getStartTime().isAfter(dayStart) ? reservation.getStartTime().toLocalTime() : LocalTime.MIDNIGHT;
+            LocalTime to = reservation.getEndTime().isBefore(dayEnd) ? reservation.getEndTime().toLocalTime() : null;
+            BlockBitmap.or(booked, BlockBitmap.outward(from, to));
+        }
+
+        // Plantilla compilada aquí mismo desde las filas leídas, sin pasar por la cache
+        long[][] free = WeeklyShiftTemplate.compile(shifts).blocks(date.getDayOfWeek());
+        for (long[] shift : free) {
+            BlockBitmap.andNot(shift, booked);
+        }
+        return free;
+    }
+
+    /** Compara los turnos sin importar el orden en que vienen */
+    private static boolean sameBlocks(long[][] a, long[][] b) {
+        if (a.length != b.length) {
+            return false;
+        }
+        List<long[]> remaining = new ArrayList<>(List.of(b));
+        for (long[] shift : a) {
+            Iterator<long[]> it = remaining.iterator();
+            boolean found = false;
+            while (!found && it.hasNext()) {
+                if (Arrays.equals(it.next(), shift)) {
+                    it.remove();
+                    found = true;
+                }
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
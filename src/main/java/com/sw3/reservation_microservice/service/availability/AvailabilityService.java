@@ -0,0 +1,161 @@
+package com.sw3.reservation_microservice.service.availability;
+
+import com.sw3.reservation_microservice.access.BarberServiceRepository;
+import com.sw3.reservation_microservice.access.ServiceRepository;
+import com.sw3.reservation_microservice.config.controladorExcepciones.excepcionesPropias.ReservationValidationException;
+import com.sw3.reservation_microservice.controller.dto.response.AvailabilityResponseDTO;
+import com.sw3.reservation_microservice.domain.model.ServiceEntity;
+import com.sw3.reservation_microservice.utils.BlockBitmap;
+import com.sw3.reservation_microservice.utils.ReservationTimeCalculator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * Calcula en el servidor las horas de inicio reservables de un barbero en un día:
+ * turnos del barbero menos reservas (AvailabilityProjection) y holds, sobre la rejilla
+ * de bloques de 10 minutos.
+ *
+ * Los turnos se toman redondeados hacia adentro y la ocupación hacia afuera (ver BlockBitmap),
+ * así que toda hora devuelta pasa las validaciones de turno y de solapamiento al reservar.
+ */
+@Service
+@RequiredArgsConstructor
+public class AvailabilityService {
+
+    /** Rango máximo del mapa de calor (dos meses de calendario) */
+    public static final int MAX_HEATMAP_DAYS = 62;
+
+    private final ServiceRepository serviceRepository;
+    private final BarberServiceRepository barberServiceRepository;
+    private final AvailabilityProjection projection;
+    private final SlotHoldRegistry slotHoldRegistry;
+
+    public AvailabilityResponseDTO findAvailableSlots(String barberId, LocalDate date, Long serviceId) {
+        ServiceEntity service = activeService(serviceId);
+        int blocksNeeded = ReservationTimeCalculator.calculateBlocksNeeded(service.getDuration());
+        AvailabilityResponseDTO response = new AvailabilityResponseDTO(barberId, date, serviceId,
+            blocksNeeded * ReservationTimeCalculator.BLOCK_SIZE_MINUTES, List.of());
+
+        LocalDateTime now = LocalDateTime.now();
+        if (date.isBefore(now.toLocalDate())
+                || !barberServiceRepository.existsByBarberIdAndServiceIdAndActiveTrue(barberId, serviceId)) {
+            return response;
+        }
+
+        response.setStartTimes(new ArrayList<>(freeStartTimes(barberId, date, blocksNeeded, now)));
+        return response;
+    }
+
+    /**
+     * Minutos libres por día del barbero en [from, to] (índice 0 = from), para el mapa de calor
+     * del calendario. Los bloques ya pasados no cuentan.
+     */
+    public int[] freeMinutesByDay(String barberId, LocalDate from, LocalDate to) {
+        int[] minutes = new int[heatmapDays(from, to)];
+        addFreeMinutes(barberId, from, minutes, LocalDateTime.now());
+        return minutes;
+    }
+
+    /**
+     * Igual que {@link #freeMinutesByDay(String, LocalDate, LocalDate)} sumando los minutos libres de
+     * todos los barberos activos que ofrecen el servicio.
+     */
+    public int[] freeMinutesByDayForService(Long serviceId, LocalDate from, LocalDate to) {
+        activeService(serviceId);
+        int[] minutes = new int[heatmapDays(from, to)];
+        LocalDateTime now = LocalDateTime.now();
+        for (String barberId : barberServiceRepository.findAvailableBarberIdsByServiceId(serviceId)) {
+            addFreeMinutes(barberId, from, minutes, now);
+        }
+        return minutes;
+    }
+
+    ServiceEntity activeService(Long serviceId) {
+        return serviceRepository.findById(serviceId)
+            .filter(ServiceEntity::getAvailabilityStatus)
+            .orElseThrow(() -> new ReservationValidationException(
+                "El servicio con ID " + serviceId + " no existe o no está activo."
+            ));
+    }
+
+    /**
+     * Horas de inicio del día en las que caben {@code blocksNeeded} bloques libres dentro de
+     * un turno, posteriores a {@code now}. No verifica que el barbero ofrezca el servicio.
+     */
+    SortedSet<LocalTime> freeStartTimes(String barberId, LocalDate date, int blocksNeeded, LocalDateTime now) {
+        // TreeSet: ordena y quita repetidos si dos turnos del día se traslapan
+        SortedSet<LocalTime> startTimes = new TreeSet<>();
+        if (date.isBefore(now.toLocalDate())) {
+            return startTimes;
+        }
+        List<long[]> shifts = projection.freeBlocks(barberId, date);
+        if (shifts.isEmpty()) {
+            return startTimes;
+        }
+
+        // La proyección ya descuenta las reservas; los holds son efímeros y se restan al leer
+        long[] held = slotHoldRegistry.heldBlocks(barberId, date);
+
+        // Primer bloque que todavía se puede reservar (las reservas deben empezar en el futuro)
+        int firstBlock = 0;
+        if (date.equals(now.toLocalDate())) {
+            int minuteOfDay = now.getHour() * 60 + now.getMinute();
+            firstBlock = minuteOfDay / ReservationTimeCalculator.BLOCK_SIZE_MINUTES + 1;
+        }
+
+        for (long[] free : shifts) {
+            BlockBitmap.andNot(free, held);
+            collectStarts(free, blocksNeeded, firstBlock, startTimes);
+        }
+        return startTimes;
+    }
+
+    private void addFreeMinutes(String barberId, LocalDate from, int[] minutes, LocalDateTime now) {
+        for (int offset = 0; offset < minutes.length; offset++) {
+            LocalDate date = from.plusDays(offset);
+            if (date.isBefore(now.toLocalDate())) {
+                continue;
+            }
+            // Unión de los turnos: si dos turnos se traslapan, cada bloque cuenta una vez
+            long[] free = BlockBitmap.empty();
+            projection.freeBlocks(barberId, date).forEach(shift -> BlockBitmap.or(free, shift));
+            if (date.equals(now.toLocalDate())) {
+                int minuteOfDay = now.getHour() * 60 + now.getMinute();
+                BlockBitmap.andNot(free, BlockBitmap.range(0, minuteOfDay / ReservationTimeCalculator.BLOCK_SIZE_MINUTES + 1));
+            }
+            minutes[offset] += BlockBitmap.cardinality(free) * ReservationTimeCalculator.BLOCK_SIZE_MINUTES;
+        }
+    }
+
+    private static int heatmapDays(LocalDate from, LocalDate to) {
+        long days = to.toEpochDay() - from.toEpochDay() + 1;
+        if (days <= 0 || days > MAX_HEATMAP_DAYS) {
+            throw new ReservationValidationException(
+                "El rango del mapa de calor debe tener entre 1 y " + MAX_HEATMAP_DAYS + " días.");
+        }
+        return (int) days;
+    }
+
+    /**
+     * Agrega los bloques desde los que hay {@code length} bloques libres seguidos dentro del turno.
+     * Se hace por turno: una reserva no puede repartirse entre dos turnos.
+     */
+    private static void collectStarts(long[] free, int length, int firstBlock, SortedSet<LocalTime> startTimes) {
+        int run = 0;
+        for (int block = 0; block < BlockBitmap.BLOCKS_PER_DAY; block++) {
+            run = BlockBitmap.get(free, block) ? run + 1 : 0;
+            int start = block - length + 1;
+            if (run >= length && start >= firstBlock) {
+                startTimes.add(LocalTime.MIN.plusMinutes((long) start * ReservationTimeCalculator.BLOCK_SIZE_MINUTES));
+            }
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.sw3.reservation_microservice.service.availability;
+
+import com.sw3.reservation_microservice.access.BarberServiceRepository;
+import com.sw3.reservation_microservice.config.AvailabilityStreamConfig;
+import com.sw3.reservation_microservice.controller.dto.response.AvailabilityDeltaDTO;
+import com.sw3.reservation_microservice.domain.model.ReservationStatus;
+import com.sw3.reservation_microservice.service.event.ReservationChangedEvent;
+import com.sw3.reservation_microservice.service.event.WorkShiftChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Suscripciones SSE a los cambios de disponibilidad de un barbero o de un servicio, para que
+ * las páginas de reserva dejen de consultar la agenda cada pocos segundos.
+ *
+ * Los eventos de reserva y de turnos se traducen a deltas compactos (SLOT_TAKEN, SLOT_FREED,
+ * SHIFTS_CHANGED) y se reparten a los suscriptores del barbero. El listener no bloquea: solo
+ * encola en el buffer acotado de cada suscriptor y el envío ocurre en el executor del stream.
+ * Si el buffer de un cliente lento se llena, se cierra su conexión en lugar de frenar a quien
+ * escribe; el cliente reconecta y vuelve a consultar la disponibilidad.
+ *
+ * Una suscripción a un servicio se registra en los barberos que lo ofrecían al suscribirse.
+ */
+@Component
+@Slf4j
+public class AvailabilityStreamRegistry {
+
+    private final AvailabilityService availabilityService;
+    private final BarberServiceRepository barberServiceRepository;
+    private final Executor executor;
+    private final int bufferSize;
+    private final long timeoutMs;
+
+    /** Suscriptores por barbero; los conjuntos concurrentes permiten repartir sin bloquear */
+    private final Map<String, Set<Subscriber>> subscribersByBarber = new ConcurrentHashMap<>();
+
+    public AvailabilityStreamRegistry(AvailabilityService availabilityService,
+                                      BarberServiceRepository barberServiceRepository,
+                                      @Qualifier(AvailabilityStreamConfig.AVAILABILITY_STREAM_EXECUTOR) Executor executor,
+                                      @Value("${reservation.availability.stream.buffer-size:64}") int bufferSize,
+                                      @Value("${reservation.availability.stream.timeout-ms:1800000}") long timeoutMs) {
+        this.availabilityService = availabilityService;
+        this.barberServiceRepository = barberServiceRepository;
+        this.executor = executor;
+        this.bufferSize = bufferSize;
+        this.timeoutMs = timeoutMs;
+    }
+
+    /**
+     * Abre un stream con los cambios de disponibilidad de un barbero.
+     */
+    public SseEmitter subscribeBarber(String barberId) {
+        return register(new SseEmitter(timeoutMs), List.of(barberId));
+    }
+
+    /**
+     * Abre un stream con los cambios de disponibilidad de los barberos que ofrecen el servicio.
+     */
+    public SseEmitter subscribeService(Long serviceId) {
+        availabilityService.activeService(serviceId);
+        return register(new SseEmitter(timeoutMs), barberServiceRepository.findAvailableBarberIdsByServiceId(serviceId));
+    }
+
+    SseEmitter register(SseEmitter emitter, Collection<String> barberIds) {
+        Subscriber subscriber = new Subscriber(emitter, List.copyOf(barberIds));
+        emitter.onCompletion(subscriber::unregister);
+        emitter.onTimeout(subscriber::unregister);
+        emitter.onError(error -> subscriber.unregister());
+        for (String barberId : subscriber.barberIds) {
+            // compute (no computeIfAbsent + add) para no añadir a un conjunto que unregister acaba de quitar
+            subscribersByBarber.compute(barberId, (id, subscribers) -> {
+                Set<Subscriber> target = subscribers != null ? subscribers : ConcurrentHashMap.newKeySet();
+                target.add(subscriber);
+                return target;
+            });
+        }
+        return emitter;
+    }
+
+    int subscriberCount(String barberId) {
+        Set<Subscriber> subscribers = subscribersByBarber.get(barberId);
+        return subscribers == null ? 0 : subscribers.size();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservationChanged(ReservationChangedEvent event) {
+        List<AvailabilityDeltaDTO> deltas = new ArrayList<>(2);
+        switch (event.getType()) {
+            case CREATED -> deltas.add(delta(AvailabilityDeltaDTO.Type.SLOT_TAKEN, event));
+            case CANCELLED -> deltas.add(delta(AvailabilityDeltaDTO.Type.SLOT_FREED, event));
+            case DELETED -> {
+                // Una reserva ya cancelada no ocupaba horario
+                if (event.getStatus() != ReservationStatus.CANCELADA) {
+                    deltas.add(delta(AvailabilityDeltaDTO.Type.SLOT_FREED, event));
+                }
+            }
+            case RESCHEDULED -> {
+                deltas.add(new AvailabilityDeltaDTO(AvailabilityDeltaDTO.Type.SLOT_FREED, event.getBarberId(),
+                        event.getPreviousStartTime(), event.getPreviousEndTime()));
+                deltas.add(delta(AvailabilityDeltaDTO.Type.SLOT_TAKEN, event));
+            }
+            case STATUS_CHANGED -> {
+                // EN_PROCESO, FINALIZADA e INASISTENCIA siguen ocupando el mismo horario
+            }
+        }
+        deltas.forEach(delta -> publish(event.getBarberId(), delta));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onWorkShiftChanged(WorkShiftChangedEvent event) {
+        publish(event.getBarberId(),
+                new AvailabilityDeltaDTO(AvailabilityDeltaDTO.Type.SHIFTS_CHANGED, event.getBarberId(), null, null));
+    }
+
+    private void publish(String barberId, AvailabilityDeltaDTO delta) {
+        Set<Subscriber> subscribers = subscribersByBarber.get(barberId);
+        if (subscribers != null) {
+            subscribers.forEach(subscriber -> subscriber.offer(delta));
+        }
+    }
+
+    private static AvailabilityDeltaDTO delta(AvailabilityDeltaDTO.Type type, ReservationChangedEvent event) {
+        return new AvailabilityDeltaDTO(type, event.getBarberId(), event.getStartTime(), event.getEndTime());
+    }
+
+    /**
+     * Conexión SSE con su buffer. A lo sumo una tarea de envío por suscriptor está en el
+     * executor a la vez, así que los deltas llegan en el orden en que se encolaron.
+     */
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final List<String> barberIds;
+        private final BlockingQueue<AvailabilityDeltaDTO> buffer = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Subscriber(SseEmitter emitter, List<String> barberIds) {
+            this.emitter = emitter;
+            this.barberIds = barberIds;
+        }
+
+        void offer(AvailabilityDeltaDTO delta) {
+            if (closed.get()) {
+                return;
+            }
+            if (!buffer.offer(delta)) {
+                log.warn("[AvailabilityStream] Buffer lleno, se desconecta un suscriptor de {}", barberIds);
+                close();
+                return;
+            }
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    executor.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    close();
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                AvailabilityDeltaDTO delta;
+                while (!closed.get() && (delta = buffer.poll()) != null) {
+                    emitter.send(SseEmitter.event()
+                            .name(delta.getType().name().toLowerCase().replace('_', '-'))
+                            .data(delta));
+                }
+            } catch (IOException | IllegalStateException e) {
+                // El cliente se desconectó o la conexión ya estaba cerrada
+                close();
+                return;
+            } finally {
+                draining.set(false);
+            }
+            // Un delta encolado justo después del último poll no puede quedar sin enviar
+            if (!buffer.isEmpty() && !closed.get()) {
+                scheduleDrain();
+            }
+        }
+
+        private void close() {
+            if (closed.compareAndSet(false, true)) {
+                unregister();
+                buffer.clear();
+                emitter.complete();
+            }
+        }
+
+        private void unregister() {
+            closed.set(true);
+            for (String barberId : barberIds) {
+                subscribersByBarber.computeIfPresent(barberId, (id, subscribers) -> {
+                    subscribers.remove(this);
+                    return subscribers.isEmpty() ? null : subscribers;
+                });
+            }
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.sw3.reservation_microservice.service.availability;
+
+import com.sw3.reservation_microservice.access.ReservationRepository;
+import com.sw3.reservation_microservice.domain.model.Reservation;
+import com.sw3.reservation_microservice.service.event.CacheInvalidatedEvent;
+import com.sw3.reservation_microservice.service.event.ReservationChangedEvent;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Índice en memoria, por barbero, de las reservas que ocupan horario (no canceladas).
+ * Permite responder "¿hay solapamiento?" en O(log n) sin ir a la base de datos.
+ *
+ * Se carga al arrancar y se mantiene al día con los eventos que publica ReservationService
+ * (crear, cancelar, reprogramar, eliminar) una vez confirmada la transacción.
+ * Solo ve al momento las reservas de este nodo: las de otros llegan con la invalidación
+ * asíncrona, por eso ReservationOverlapChecker consulta la BD cuando hay varios nodos.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BarberIntervalIndex {
+
+    private final ReservationRepository reservationRepository;
+
+    private final Map<String, BarberTimeline> timelines = new ConcurrentHashMap<>();
+
+    /**
+     * Carga inicial del índice con todas las reservas que aún no terminan.
+     */
+    @PostConstruct
+    public void load() {
+        List<Reservation> reservations = reservationRepository.findOccupyingReservationsEndingAfter(LocalDateTime.now());
+        timelines.clear();
+        reservations.forEach(r -> timeline(r.getBarberId()).put(r.getId(), r.getStartTime(), r.getEndTime()));
+        log.info("[BarberIntervalIndex] Índice cargado con {} reservas de {} barberos", reservations.size(), timelines.size());
+    }
+
+    /**
+     * Vuelve a leer desde la base de datos las reservas de un barbero.
+     */
+    public void reloadBarber(String barberId) {
+        BarberTimeline fresh = new BarberTimeline();
+        reservationRepository.findOccupyingReservationsByBarberEndingAfter(barberId, LocalDateTime.now())
+            .forEach(r -> fresh.put(r.getId(), r.getStartTime(), r.getEndTime()));
+        timelines.put(barberId, fresh);
+    }
+
+    /**
+     * Indica si el barbero tiene alguna reserva que se solape con [start, end).
+     */
+    public boolean hasOverlap(String barberId, LocalDateTime start, LocalDateTime end) {
+        return hasOverlap(barberId, start, end, null);
+    }
+
+    /**
+     * Igual que {@link #hasOverlap(String, LocalDateTime, LocalDateTime)} ignorando una reserva
+     * concreta (la que se está reprogramando).
+     */
+    public boolean hasOverlap(String barberId, LocalDateTime start, LocalDateTime end, Long excludedReservationId) {
+        BarberTimeline timeline = timelines.get(barberId);
+        return timeline != null && timeline.overlaps(start, end, excludedReservationId);
+    }
+
+    /**
+     * Aplica un cambio de reserva al índice. Se ejecuta después del commit para no
+     * reflejar escrituras que terminaron en rollback.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservationChanged(ReservationChangedEvent event) {
+        BarberTimeline timeline = timeline(event.getBarberId());
+        if (event.occupiesSlot()) {
+            timeline.put(event.getReservationId(), event.getStartTime(), event.getEndTime());
+        } else {
+            timeline.remove(event.getReservationId());
+        }
+    }
+
+    /**
+     * Reservas modificadas en otra instancia: el mensaje no trae los intervalos, así que se
+     * recargan los barberos afectados.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCacheInvalidated(CacheInvalidatedEvent event) {
+        event.getBarberIds().forEach(this::reloadBarber);
+    }
+
+    private BarberTimeline timeline(String barberId) {
+        return timelines.computeIfAbsent(barberId, id -> new BarberTimeline());
+    }
+
+    /**
+     * Línea de tiempo de un barbero: intervalos ordenados por (inicio, id).
+     * Las lecturas no bloquean; las escrituras se serializan por barbero.
+     */
+    static final class BarberTimeline {
+
+        private static final Comparator<Slot> ORDER =
+            Comparator.comparing(Slot::start).thenComparing(Slot::id);
+
+        private final ConcurrentSkipListMap<Slot, LocalDateTime> byStart = new ConcurrentSkipListMap<>(ORDER);
+        private final Map<Long, Slot> byId = new ConcurrentHashMap<>();
+
+        /** Duración de la reserva más larga vista; acota el recorrido hacia atrás */
+        private volatile Duration longest = Duration.ZERO;
+
+        synchronized void put(Long id, LocalDateTime start, LocalDateTime end) {
+            remove(id);
+            Slot slot = new Slot(start, id);
+            byStart.put(slot, end);
+            byId.put(id, slot);
+
+            Duration duration = Duration.between(start, end);
+            if (duration.compareTo(longest) > 0) {
+                longest = duration;
+            }
+            pruneFinished(LocalDateTime.now());
+        }
+
+        synchronized void remove(Long id) {
+            Slot previous = byId.remove(id);
+            if (previous != null) {
+                byStart.remove(previous);
+            }
+        }
+
+        /**
+         * Solo pueden solaparse las reservas que empiezan antes de {@code end} y no antes de
+         * {@code start - longest}, así que el recorrido se limita a ese tramo del mapa ordenado.
+         */
+        boolean overlaps(LocalDateTime start, LocalDateTime end, Long excludedId) {
+            LocalDateTime lowerBound = start.minus(longest);
+            ConcurrentNavigableMap<Slot, LocalDateTime> candidates =
+                byStart.headMap(new Slot(end, Long.MIN_VALUE), false).descendingMap();
+
+            for (Map.Entry<Slot, LocalDateTime> entry : candidates.entrySet()) {
+                Slot slot = entry.getKey();
+                if (slot.start().isBefore(lowerBound)) {
+                    break;
+                }
+                if (entry.getValue().isAfter(start) && !slot.id().equals(excludedId)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /** Descarta las reservas que terminaron hace tiempo; ya no pueden solaparse con nada nuevo */
+        private void pruneFinished(LocalDateTime now) {
+            LocalDateTime horizon = now.minus(longest);
+            while (!byStart.isEmpty() && byStart.firstKey().start().isBefore(horizon)) {
+                Slot oldest = byStart.pollFirstEntry().getKey();
+                byId.remove(oldest.id());
+            }
+        }
+
+        int size() {
+            return byStart.size();
+        }
+    }
+
+    record Slot(LocalDateTime start, Long id) {
+    }
+}
@@ -0,0 +1,235 @@
+package com.sw3.reservation_microservice.service.availability;
+
+import com.sw3.reservation_microservice.access.ReservationRepository;
+import com.sw3.reservation_microservice.domain.model.Reservation;
+import com.sw3.reservation_microservice.service.event.CacheInvalidatedEvent;
+import com.sw3.reservation_microservice.service.event.ReservationChangedEvent;
+import com.sw3.reservation_microservice.utils.BlockBitmap;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ocupación de cada barbero por día como mapa de bits sobre la rejilla de 10 minutos
+ * (ver BlockBitmap): un long[3] con los bloques reservados. Los bloques de cada turno
+ * salen de la plantilla semanal del barbero (WeeklyShiftTemplateCache).
+ *
+ * La respuesta "libre" sale de unas pocas operaciones AND/OR.
+ * Como las reservas pueden empezar fuera de la rejilla, los bits de ocupación se redondean
+ * hacia afuera: un choque en el mapa de bits se confirma contra el BarberIntervalIndex exacto.
+ *
+ * Se alimenta de ReservationRepository y se mantiene con los eventos de reservas.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DayOccupancyMap {
+
+    private final ReservationRepository reservationRepository;
+    private final WeeklyShiftTemplateCache shiftTemplates;
+    private final BarberIntervalIndex intervalIndex;
+
+    private final Map<BarberDay, DayBits> days = new ConcurrentHashMap<>();
+    private final Map<Long, Booking> bookings = new ConcurrentHashMap<>();
+
+    private volatile LocalDate lastPruned = LocalDate.MIN;
+
+    @PostConstruct
+    public void load() {
+        List<Reservation> reservations = reservationRepository.findOccupyingReservationsEndingAfter(LocalDateTime.now());
+        days.clear();
+        bookings.clear();
+        reservations.forEach(r -> put(r.getId(), r.getBarberId(), r.getStartTime(), r.getEndTime()));
+        log.info("[DayOccupancyMap] Ocupación cargada: {} reservas en {} barbero-día", reservations.size(), days.size());
+    }
+
+    /**
+     * Vuelve a leer desde la BD las reservas del barbero que terminan desde hoy.
+     * Primero agrega las leídas y después quita las que ya no están, para que una consulta
+     * concurrente no vea el día vacío mientras se recarga.
+     */
+    public void reloadBarber(String barberId) {
+        LocalDateTime from = LocalDate.now().atStartOfDay();
+        List<Reservation> reservations = reservationRepository.findOccupyingReservationsByBarberEndingAfter(barberId, from);
+
+        Set<Long> current = new HashSet<>(reservations.size());
+        for (Reservation r : reservations) {
+            current.add(r.getId());
+            if (!new Booking(r.getBarberId(), r.getStartTime(), r.getEndTime()).equals(bookings.get(r.getId()))) {
+                remove(r.getId());
+                put(r.getId(), r.getBarberId(), r.getStartTime(), r.getEndTime());
+            }
+        }
+        bookings.entrySet().stream()
+            .filter(e -> e.getValue().barberId().equals(barberId) && e.getValue().end().isAfter(from))
+            .map(Map.Entry::getKey)
+            .filter(id -> !current.contains(id))
+            .toList()
+            .forEach(this::remove);
+    }
+
+    /**
+     * Indica si el barbero tiene reservas que se solapen con [start, end), ignorando una reserva
+     * (la que se reprograma) si se indica.
+     */
+    public boolean hasOverlap(String barberId, LocalDateTime start, LocalDateTime end, Long excludedReservationId) {
+        boolean candidate = false;
+        for (DaySlice slice : slices(start, end)) {
+            DayBits day = days.get(new BarberDay(barberId, slice.date()));
+            if (day != null && day.intersects(slice.mask())) {
+                candidate = true;
+                break;
+            }
+        }
+        // Sin bits en común no hay solapamiento; con bits en común, el índice exacto decide
+        return candidate && intervalIndex.hasOverlap(barberId, start, end, excludedReservationId);
+    }
+
+    public boolean hasOverlap(String barberId, LocalDateTime start, LocalDateTime end) {
+        return hasOverlap(barberId, start, end, null);
+    }
+
+    /**
+     * Bloques reservados del barbero en un día (copia).
+     */
+    public long[] bookedBlocks(String barberId, LocalDate date) {
+        DayBits day = days.get(new BarberDay(barberId, date));
+        return day == null ? BlockBitmap.empty() : day.snapshot();
+    }
+
+    /**
+     * Bloques completos de cada turno del barbero para un día de la semana (copias).
+     */
+    public List<long[]> shiftBlocks(String barberId, DayOfWeek dayOfWeek) {
+        return new ArrayList<>(List.of(shiftTemplates.forBarber(barberId).blocks(dayOfWeek)));
+    }
+
+    /**
+     * Descarta las plantillas de turnos; se recompilan desde la BD en la siguiente consulta.
+     */
+    public void reloadShifts() {
+        shiftTemplates.clear();
+    }
+
+    /** Antes que AvailabilityProjection, que lee estos bits */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservationChanged(ReservationChangedEvent event) {
+        remove(event.getReservationId());
+        if (event.occupiesSlot()) {
+            put(event.getReservationId(), event.getBarberId(), event.getStartTime(), event.getEndTime());
+        }
+        pruneFinishedDays();
+    }
+
+    /** Reservas modificadas en otra instancia; antes que AvailabilityProjection, igual que arriba */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCacheInvalidated(CacheInvalidatedEvent event) {
+        event.getBarberIds().forEach(this::reloadBarber);
+    }
+
+    private void put(Long id, String barberId, LocalDateTime start, LocalDateTime end) {
+        bookings.put(id, new Booking(barberId, start, end));
+        for (DaySlice slice : slices(start, end)) {
+            days.computeIfAbsent(new BarberDay(barberId, slice.date()), key -> new DayBits()).put(id, slice.mask());
+        }
+    }
+
+    private void remove(Long id) {
+        Booking previous = bookings.remove(id);
+        if (previous == null) {
+            return;
+        }
+        for (DaySlice slice : slices(previous.start(), previous.end())) {
+            DayBits day = days.get(new BarberDay(previous.barberId(), slice.date()));
+            if (day != null) {
+                day.remove(id);
+            }
+        }
+    }
+
+    /** Descarta una vez al día los barbero-día ya pasados */
+    private void pruneFinishedDays() {
+        LocalDate today = LocalDate.now();
+        if (lastPruned.isBefore(today)) {
+            lastPruned = today;
+            days.keySet().removeIf(key -> key.date().isBefore(today));
+            bookings.values().removeIf(booking -> booking.end().toLocalDate().isBefore(today));
+        }
+    }
+
+    /**
+     * Parte [start, end) en tramos de un día con su máscara de bloques (redondeada hacia afuera).
+     */
+    private static List<DaySlice> slices(LocalDateTime start, LocalDateTime end) {
+        List<DaySlice> slices = new ArrayList<>(1);
+        LocalDate date = start.toLocalDate();
+        while (date.atStartOfDay().isBefore(end)) {
+            LocalDateTime dayEnd = date.plusDays(1).atStartOfDay();
+            LocalTime sliceStart = start.isAfter(date.atStartOfDay()) ? start.toLocalTime() : LocalTime.MIDNIGHT;
+            LocalTime sliceEnd = end.isBefore(dayEnd) ? end.toLocalTime() : null;
+            slices.add(new DaySlice(date, BlockBitmap.outward(sliceStart, sliceEnd)));
+            date = date.plusDays(1);
+        }
+        return slices;
+    }
+
+    /**
+     * Bits de un barbero-día. Cada reserva guarda su máscara para poder quitarla sin
+     * afectar bloques compartidos con otra reserva fuera de la rejilla.
+     */
+    static final class DayBits {
+
+        private final Map<Long, long[]> masks = new HashMap<>();
+        private volatile long[] bits = BlockBitmap.empty();
+
+        synchronized void put(Long id, long[] mask) {
+            masks.put(id, mask);
+            long[] updated = bits.clone();
+            BlockBitmap.or(updated, mask);
+            bits = updated;
+        }
+
+        synchronized void remove(Long id) {
+            if (masks.remove(id) != null) {
+                long[] rebuilt = BlockBitmap.empty();
+                masks.values().forEach(mask -> BlockBitmap.or(rebuilt, mask));
+                bits = rebuilt;
+            }
+        }
+
+        boolean intersects(long[] mask) {
+            return BlockBitmap.intersects(bits, mask);
+        }
+
+        long[] snapshot() {
+            return bits.clone();
+        }
+    }
+
+    record BarberDay(String barberId, LocalDate date) {
+    }
+
+    private record Booking(String barberId, LocalDateTime start, LocalDateTime end) {
+    }
+
+    private record DaySlice(LocalDate date, long[] mask) {
+    }
+}
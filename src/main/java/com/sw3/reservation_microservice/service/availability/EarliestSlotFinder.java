@@ -0,0 +1,184 @@
+package com.sw3.reservation_microservice.service.availability;
+
+import com.sw3.reservation_microservice.access.BarberServiceRepository;
+import com.sw3.reservation_microservice.config.AvailabilitySearchConfig;
+import com.sw3.reservation_microservice.config.controladorExcepciones.excepcionesPropias.ReservationValidationException;
+import com.sw3.reservation_microservice.controller.dto.response.AvailableSlotDTO;
+import com.sw3.reservation_microservice.utils.ReservationTimeCalculator;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Busca los primeros N horarios libres para un servicio entre todos los barberos que lo ofrecen.
+ *
+ * Cada barbero se recorre día a día en un pool fork-join. Los resultados se acumulan en un
+ * top-N compartido; en cuanto está lleno, su peor inicio es la cota: un barbero deja de
+ * buscar al llegar a ella, porque nada posterior puede entrar en el resultado.
+ */
+@Service
+public class EarliestSlotFinder {
+
+    private static final Comparator<AvailableSlotDTO> ORDER =
+        Comparator.comparing(AvailableSlotDTO::getStartTime).thenComparing(AvailableSlotDTO::getBarberId);
+
+    private final AvailabilityService availabilityService;
+    private final BarberServiceRepository barberServiceRepository;
+    private final ForkJoinPool searchPool;
+    private final int maxResults;
+    private final int maxDays;
+
+    public EarliestSlotFinder(AvailabilityService availabilityService,
+                              BarberServiceRepository barberServiceRepository,
+                              @Qualifier(AvailabilitySearchConfig.AVAILABILITY_SEARCH_POOL) ForkJoinPool searchPool,
+                              @Value("${reservation.availability.search.max-results:50}") int maxResults,
+                              @Value("${reservation.availability.search.max-days:14}") int maxDays) {
+        this.availabilityService = availabilityService;
+        this.barberServiceRepository = barberServiceRepository;
+        this.searchPool = searchPool;
+        this.maxResults = maxResults;
+        this.maxDays = maxDays;
+    }
+
+    /**
+     * Primeros {@code limit} horarios (inicio en [from, to]) con cualquier barbero activo que ofrezca el servicio,
+     * ordenados por hora de inicio.
+     */
+    public List<AvailableSlotDTO> findEarliest(Long serviceId, LocalDateTime from, LocalDateTime to, int limit) {
+        if (limit <= 0 || limit > maxResults) {
+            throw new ReservationValidationException("La cantidad de horarios debe estar entre 1 y " + maxResults + ".");
+        }
+        if (to.isBefore(from)) {
+            throw new ReservationValidationException("El fin de la ventana de búsqueda debe ser posterior al inicio.");
+        }
+        if (from.toLocalDate().plusDays(maxDays).isBefore(to.toLocalDate())) {
+            throw new ReservationValidationException("La ventana de búsqueda no puede superar " + maxDays + " días.");
+        }
+
+        int blocksNeeded = ReservationTimeCalculator.calculateBlocksNeeded(
+            availabilityService.activeService(serviceId).getDuration());
+        List<String> barberIds = barberServiceRepository.findAvailableBarberIdsByServiceId(serviceId);
+        if (barberIds.isEmpty()) {
+            return List.of();
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        TopSlots top = new TopSlots(limit);
+        searchPool.invoke(new BarberSearch(barberIds, 0, barberIds.size(),
+            new Window(from.isAfter(now) ? from : now, to, blocksNeeded, now), top));
+        return top.sorted();
+    }
+
+    /**
+     * Recorre los días del barbero en orden hasta agotar la ventana o alcanzar la cota.
+     */
+    private void scanBarber(String barberId, Window window, TopSlots top) {
+        int effectiveMinutes = window.blocksNeeded() * ReservationTimeCalculator.BLOCK_SIZE_MINUTES;
+        for (LocalDate date = window.from().toLocalDate(); !date.isAfter(window.to().toLocalDate()); date = date.plusDays(1)) {
+            if (!top.canImprove(date.atStartOfDay())) {
+                return;
+            }
+            for (LocalTime time : availabilityService.freeStartTimes(barberId, date, window.blocksNeeded(), window.now())) {
+                LocalDateTime start = date.atTime(time);
+                if (start.isBefore(window.from())) {
+                    continue;
+                }
+                // Los inicios vienen ordenados: pasada la ventana o la cota, el resto tampoco sirve
+                if (start.isAfter(window.to()) || !top.offer(new AvailableSlotDTO(barberId, start, start.plusMinutes(effectiveMinutes)))) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private record Window(LocalDateTime from, LocalDateTime to, int blocksNeeded, LocalDateTime now) {
+    }
+
+    /**
+     * Divide la lista de barberos hasta llegar a uno por tarea.
+     */
+    private final class BarberSearch extends RecursiveAction {
+
+        private final List<String> barberIds;
+        private final int from;
+        private final int to;
+        private final Window window;
+        private final TopSlots top;
+
+        BarberSearch(List<String> barberIds, int from, int to, Window window, TopSlots top) {
+            this.barberIds = barberIds;
+            this.from = from;
+            this.to = to;
+            this.window = window;
+            this.top = top;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                scanBarber(barberIds.get(from), window, top);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new BarberSearch(barberIds, from, middle, window, top),
+                      new BarberSearch(barberIds, middle, to, window, top));
+        }
+    }
+
+    /**
+     * Los N mejores horarios encontrados hasta el momento (montículo de máximos acotado).
+     */
+    static final class TopSlots {
+
+        private final int limit;
+        private final PriorityQueue<AvailableSlotDTO> heap;
+
+        /** Peor inicio del top cuando está lleno; null mientras no lo esté */
+        private volatile LocalDateTime bound;
+
+        TopSlots(int limit) {
+            this.limit = limit;
+            this.heap = new PriorityQueue<>(limit, ORDER.reversed());
+        }
+
+        boolean canImprove(LocalDateTime start) {
+            LocalDateTime current = bound;
+            return current == null || start.isBefore(current);
+        }
+
+        /**
+         * Agrega el horario si entra en el top. Devuelve false si ya no puede entrar
+         * (ni este ni los posteriores del mismo barbero).
+         */
+        synchronized boolean offer(AvailableSlotDTO slot) {
+            if (heap.size() < limit) {
+                heap.add(slot);
+            } else if (ORDER.compare(slot, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(slot);
+            } else {
+                return false;
+            }
+            if (heap.size() == limit) {
+                bound = heap.peek().getStartTime();
+            }
+            return true;
+        }
+
+        synchronized List<AvailableSlotDTO> sorted() {
+            List<AvailableSlotDTO> slots = new ArrayList<>(heap);
+            slots.sort(ORDER);
+            return slots;
+        }
+    }
+}
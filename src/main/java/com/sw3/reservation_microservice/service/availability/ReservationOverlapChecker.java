@@ -0,0 +1,47 @@
+package com.sw3.reservation_microservice.service.availability;
+
+import com.sw3.reservation_microservice.access.ReservationRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Decide si un barbero tiene reservas que se solapen con un horario antes de aceptar
+ * una reserva, una reprogramación o un hold.
+ *
+ * Con un solo nodo (reservation.locking.backend=local) responde desde DayOccupancyMap, en memoria.
+ * Con varios nodos (postgres) la memoria de cada nodo solo se entera de las reservas confirmadas
+ * en otro nodo cuando llega la invalidación por RabbitMQ, así que consulta la BD: la consulta
+ * corre bajo el advisory lock del barbero y ve toda reserva que otro nodo ya confirmó.
+ */
+@Component
+public class ReservationOverlapChecker {
+
+    private final DayOccupancyMap occupancyMap;
+    private final ReservationRepository reservationRepository;
+    private final boolean fromDatabase;
+
+    public ReservationOverlapChecker(DayOccupancyMap occupancyMap,
+                                     ReservationRepository reservationRepository,
+                                     @Value("${reservation.locking.backend:local}") String lockingBackend) {
+        this.occupancyMap = occupancyMap;
+        this.reservationRepository = reservationRepository;
+        this.fromDatabase = "postgres".equals(lockingBackend);
+    }
+
+    public boolean hasOverlap(String barberId, LocalDateTime start, LocalDateTime end) {
+        return hasOverlap(barberId, start, end, null);
+    }
+
+    /**
+     * Igual que {@link #hasOverlap(String, LocalDateTime, LocalDateTime)} ignorando una reserva
+     * concreta (la que se está reprogramando).
+     */
+    public boolean hasOverlap(String barberId, LocalDateTime start, LocalDateTime end, Long excludedReservationId) {
+        if (fromDatabase) {
+            return reservationRepository.existsOverlapping(barberId, start, end, excludedReservationId);
+        }
+        return occupancyMap.hasOverlap(barberId, start, end, excludedReservationId);
+    }
+}
@@ -0,0 +1,31 @@
+package com.sw3.reservation_microservice.service.availability;
+
+import lombok.Value;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+/**
+ * Reserva temporal (lease) de un horario mientras el cliente termina el checkout.
+ */
+@Value
+public class SlotHold {
+    String token;
+    String barberId;
+    String clientId;
+    LocalDateTime startTime;
+    LocalDateTime endTime;
+    Instant expiresAt;
+
+    public boolean isExpired(Instant now) {
+        return !expiresAt.isAfter(now);
+    }
+
+    public boolean overlaps(LocalDateTime start, LocalDateTime end) {
+        return startTime.isBefore(end) && endTime.isAfter(start);
+    }
+
+    public boolean covers(LocalDateTime start, LocalDateTime end) {
+        return !start.isBefore(startTime) && !end.isAfter(endTime);
+    }
+}
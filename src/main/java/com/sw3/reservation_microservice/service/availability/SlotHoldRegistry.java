@@ -0,0 +1,213 @@
+package com.sw3.reservation_microservice.service.availability;
+
+import com.sw3.reservation_microservice.utils.BlockBitmap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Reservas temporales de horario (holds) en memoria.
+ *
+ * Cada hold se indexa por token y por barbero (para la verificación de solapamiento).
+ * La expiración usa una rueda de tiempo (hashed timing wheel): el hold se encola en la
+ * casilla de su tick de vencimiento y cada tick solo se revisa una casilla, sin recorrer
+ * todos los holds. Aun así, un hold vencido que la rueda no ha barrido nunca se considera activo.
+ */
+@Component
+@Slf4j
+public class SlotHoldRegistry {
+
+    private final Clock clock;
+    private final Duration ttl;
+    private final long tickMillis;
+
+    private final Queue<SlotHold>[] wheel;
+    private final int mask;
+    /** Último tick barrido (protegido por advance()) */
+    private long lastTick;
+
+    private final Map<String, SlotHold> byToken = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, SlotHold>> byBarber = new ConcurrentHashMap<>();
+
+    @Autowired
+    public SlotHoldRegistry(@Value("${reservation.holds.ttl-seconds:300}") long ttlSeconds,
+                            @Value("${reservation.holds.tick-ms:1000}") long tickMillis,
+                            @Value("${reservation.holds.wheel-size:512}") int wheelSize) {
+        this(Clock.systemDefaultZone(), Duration.ofSeconds(ttlSeconds), tickMillis, wheelSize);
+    }
+
+    @SuppressWarnings("unchecked")
+    SlotHoldRegistry(Clock clock, Duration ttl, long tickMillis, int wheelSize) {
+        this.clock = clock;
+        this.ttl = ttl;
+        this.tickMillis = tickMillis;
+        int size = Integer.highestOneBit(Math.max(1, wheelSize - 1) << 1);
+        this.wheel = new Queue[size];
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.mask = size - 1;
+        this.lastTick = clock.millis() / tickMillis;
+    }
+
+    /**
+     * Registra un hold. El llamador debe haber verificado antes (bajo el bloqueo del barbero)
+     * que el horario está libre de reservas y de holds de otros clientes.
+     */
+    public SlotHold place(String barberId, String clientId, LocalDateTime start, LocalDateTime end) {
+        SlotHold hold = new SlotHold(UUID.randomUUID().toString(), barberId, clientId, start, end,
+            clock.instant().plus(ttl));
+        byToken.put(hold.getToken(), hold);
+        byBarber.computeIfAbsent(barberId, id -> new ConcurrentHashMap<>()).put(hold.getToken(), hold);
+
+        long deadlineTick = (hold.getExpiresAt().toEpochMilli() + tickMillis - 1) / tickMillis;
+        wheel[(int) (deadlineTick & mask)].add(hold);
+        return hold;
+    }
+
+    /**
+     * Indica si otro cliente tiene un hold activo que se solape con [start, end).
+     */
+    public boolean hasConflictingHold(String barberId, LocalDateTime start, LocalDateTime end, String clientId) {
+        Map<String, SlotHold> holds = byBarber.get(barberId);
+        if (holds == null || holds.isEmpty()) {
+            return false;
+        }
+        Instant now = clock.instant();
+        for (SlotHold hold : holds.values()) {
+            if (!hold.isExpired(now) && !hold.getClientId().equals(clientId) && hold.overlaps(start, end)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Bloques del día ocupados por holds activos del barbero (redondeados hacia afuera).
+     */
+    public long[] heldBlocks(String barberId, LocalDate date) {
+        long[] bits = BlockBitmap.empty();
+        Map<String, SlotHold> holds = byBarber.get(barberId);
+        if (holds == null || holds.isEmpty()) {
+            return bits;
+        }
+        Instant now = clock.instant();
+        LocalDateTime dayStart = date.atStartOfDay();
+        LocalDateTime dayEnd = dayStart.plusDays(1);
+        for (SlotHold hold : holds.values()) {
+            if (!hold.isExpired(now) && hold.overlaps(dayStart, dayEnd)) {
+                LocalTime from = hold.getStartTime().isAfter(dayStart) ? hold.getStartTime().toLocalTime() : LocalTime.MIDNIGHT;
+                LocalTime to = hold.getEndTime().isBefore(dayEnd) ? hold.getEndTime().toLocalTime() : null;
+                BlockBitmap.or(bits, BlockBitmap.outward(from, to));
+            }
+        }
+        return bits;
+    }
+
+    /**
+     * Indica si el token corresponde a un hold activo del cliente que cubre [start, end) con ese barbero.
+     */
+    public boolean covers(String token, String barberId, String clientId, LocalDateTime start, LocalDateTime end) {
+        return findActive(token)
+            .filter(hold -> hold.getBarberId().equals(barberId) && hold.getClientId().equals(clientId))
+            .filter(hold -> hold.covers(start, end))
+            .isPresent();
+    }
+
+    /**
+     * Holds activos del barbero.
+     */
+    public int activeHoldsOfBarber(String barberId) {
+        Map<String, SlotHold> holds = byBarber.get(barberId);
+        if (holds == null) {
+            return 0;
+        }
+        Instant now = clock.instant();
+        return (int) holds.values().stream().filter(hold -> !hold.isExpired(now)).count();
+    }
+
+    /**
+     * Holds activos del cliente con cualquier barbero.
+     */
+    public int activeHoldsOfClient(String clientId) {
+        Instant now = clock.instant();
+        return (int) byToken.values().stream()
+            .filter(hold -> !hold.isExpired(now) && hold.getClientId().equals(clientId))
+            .count();
+    }
+
+    public Optional<SlotHold> findActive(String token) {
+        if (token == null) {
+            return Optional.empty();
+        }
+        SlotHold hold = byToken.get(token);
+        return hold == null || hold.isExpired(clock.instant()) ? Optional.empty() : Optional.of(hold);
+    }
+
+    /**
+     * Libera el hold (consumido por una reserva o cancelado por el cliente).
+     */
+    public void release(String token) {
+        SlotHold hold = byToken.remove(token);
+        if (hold != null) {
+            Map<String, SlotHold> holds = byBarber.get(hold.getBarberId());
+            if (holds != null) {
+                holds.remove(token);
+            }
+        }
+    }
+
+    /**
+     * Avanza la rueda hasta el tick actual y elimina los holds vencidos de las casillas recorridas.
+     *
+     * @return cuántos holds vencieron
+     */
+    @Scheduled(fixedDelayString = "${reservation.holds.tick-ms:1000}")
+    public synchronized int advance() {
+        long nowTick = clock.millis() / tickMillis;
+        Instant now = clock.instant();
+        long steps = Math.min(nowTick - lastTick + 1, wheel.length);
+        int expired = 0;
+
+        for (long i = 0; i < steps; i++) {
+            Iterator<SlotHold> bucket = wheel[(int) ((nowTick - i) & mask)].iterator();
+            while (bucket.hasNext()) {
+                SlotHold hold = bucket.next();
+                if (byToken.get(hold.getToken()) != hold) {
+                    // Ya liberado: solo queda quitarlo de la rueda
+                    bucket.remove();
+                } else if (hold.isExpired(now)) {
+                    bucket.remove();
+                    release(hold.getToken());
+                    expired++;
+                }
+                // Si no ha vencido, su vencimiento está una o más vueltas más adelante
+            }
+        }
+        lastTick = nowTick;
+        if (expired > 0) {
+            log.debug("[SlotHoldRegistry] {} holds vencidos", expired);
+        }
+        return expired;
+    }
+
+    public int activeHolds() {
+        return byToken.size();
+    }
+}
@@ -0,0 +1,73 @@
+package com.sw3.reservation_microservice.service.availability;
+
+import com.sw3.reservation_microservice.config.controladorExcepciones.excepcionesPropias.ReservationValidationException;
+import com.sw3.reservation_microservice.controller.dto.request.CreateSlotHoldRequestDTO;
+import com.sw3.reservation_microservice.controller.dto.response.SlotHoldResponseDTO;
+import com.sw3.reservation_microservice.service.validation.ReservationValidationContext;
+import com.sw3.reservation_microservice.service.validation.ReservationValidatorChain;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Aparta horarios durante el checkout. La competencia por un mismo horario se resuelve aquí,
+ * en memoria, antes de que el cliente llegue a la cadena de validación de la reserva.
+ *
+ * Un hold pasa por las mismas reglas que la reserva (servicio activo que el barbero ofrece,
+ * inicio futuro, dentro de un turno y sin solapamientos) y hay un tope de holds activos por
+ * cliente y por barbero, para que nadie pueda apartar (y renovar) toda la agenda de un barbero.
+ */
+@Service
+public class SlotHoldService {
+
+    private final ReservationValidatorChain validatorChain;
+    private final SlotHoldRegistry slotHoldRegistry;
+    private final int maxPerClient;
+    private final int maxPerBarber;
+
+    public SlotHoldService(ReservationValidatorChain validatorChain,
+                           SlotHoldRegistry slotHoldRegistry,
+                           @Value("${reservation.holds.max-per-client:2}") int maxPerClient,
+                           @Value("${reservation.holds.max-per-barber:20}") int maxPerBarber) {
+        this.validatorChain = validatorChain;
+        this.slotHoldRegistry = slotHoldRegistry;
+        this.maxPerClient = maxPerClient;
+        this.maxPerBarber = maxPerBarber;
+    }
+
+    /**
+     * Aparta el horario del servicio. Debe llamarse bajo el bloqueo del barbero, con el contexto
+     * que devolvió ReservationValidatorChain.resolve para la misma petición.
+     */
+    public SlotHoldResponseDTO placeHold(CreateSlotHoldRequestDTO request, ReservationValidationContext resolved) {
+        if (slotHoldRegistry.activeHoldsOfClient(request.getClientId()) >= maxPerClient) {
+            throw new ReservationValidationException(
+                "Ya tienes " + maxPerClient + " horarios apartados. Reserva o libera alguno antes de apartar otro."
+            );
+        }
+        if (slotHoldRegistry.activeHoldsOfBarber(request.getBarberId()) >= maxPerBarber) {
+            throw new ReservationValidationException(
+                "El barbero tiene demasiados horarios apartados en este momento. Intenta de nuevo en unos minutos."
+            );
+        }
+
+        // Turnos del barbero, reservas y holds de otros clientes, igual que al reservar
+        validatorChain.checkAvailability(resolved);
+
+        SlotHold hold = slotHoldRegistry.place(request.getBarberId(), request.getClientId(),
+            resolved.getStartTime(), resolved.requireEndTime());
+        return new SlotHoldResponseDTO(hold.getToken(), hold.getBarberId(), hold.getStartTime(), hold.getEndTime(),
+            LocalDateTime.ofInstant(hold.getExpiresAt(), ZoneId.systemDefault()));
+    }
+
+    /**
+     * Libera un horario apartado. Solo su dueño puede liberarlo.
+     */
+    public void releaseHold(String token, String clientId) {
+        slotHoldRegistry.findActive(token)
+            .filter(hold -> hold.getClientId().equals(clientId))
+            .ifPresent(hold -> slotHoldRegistry.release(token));
+    }
+}
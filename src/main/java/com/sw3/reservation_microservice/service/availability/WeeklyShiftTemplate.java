@@ -0,0 +1,140 @@
+package com.sw3.reservation_microservice.service.availability;
+
+import com.sw3.reservation_microservice.domain.model.WorkShift;
+import com.sw3.reservation_microservice.utils.BlockBitmap;
+import com.sw3.reservation_microservice.utils.DayOfWeekMapper;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * Turnos de un barbero compilados en una plantilla semanal inmutable: por cada DayOfWeek.ordinal()
+ * un int[] con pares [inicio, fin) en segundos desde las 00:00, ordenados por inicio.
+ *
+ * Verificar si una reserva cabe en un turno son unas pocas comparaciones de enteros.
+ */
+public final class WeeklyShiftTemplate {
+
+    private static final int SECONDS_PER_DAY = 24 * 60 * 60;
+
+    private static final WeeklyShiftTemplate EMPTY = new WeeklyShiftTemplate(new int[7][0]);
+
+    private final int[][] days;
+
+    private WeeklyShiftTemplate(int[][] days) {
+        this.days = days;
+    }
+
+    public static WeeklyShiftTemplate empty() {
+        return EMPTY;
+    }
+
+    public static WeeklyShiftTemplate compile(List<WorkShift> shifts) {
+        List<List<int[]>> byDay = new ArrayList<>(7);
+        for (int i = 0; i < 7; i++) {
+            byDay.add(new ArrayList<>());
+        }
+        for (WorkShift shift : shifts) {
+            DayOfWeek dow = DayOfWeekMapper.fromDatabaseKey(shift.getDayOfWeek());
+            if (dow != null) {
+                byDay.get(dow.ordinal()).add(new int[]{shift.getStartTime().toSecondOfDay(), shift.getEndTime().toSecondOfDay()});
+            }
+        }
+
+        int[][] days = new int[7][];
+        for (int i = 0; i < 7; i++) {
+            List<int[]> pairs = byDay.get(i);
+            pairs.sort((a, b) -> Integer.compare(a[0], b[0]));
+            int[] flat = new int[pairs.size() * 2];
+            for (int p = 0; p < pairs.size(); p++) {
+                flat[2 * p] = pairs.get(p)[0];
+                flat[2 * p + 1] = pairs.get(p)[1];
+            }
+            days[i] = flat;
+        }
+        return new WeeklyShiftTemplate(days);
+    }
+
+    public boolean hasShifts(DayOfWeek dow) {
+        return days[dow.ordinal()].length > 0;
+    }
+
+    /**
+     * Indica si [start, end) cae completo dentro de alguno de los turnos del día de {@code start}.
+     */
+    public boolean fits(LocalDateTime start, LocalDateTime end) {
+        int startSecond = start.toLocalTime().toSecondOfDay();
+        long endSecond = startSecond + Duration.between(start, end).getSeconds();
+        if (endSecond >= SECONDS_PER_DAY) {
+            return false;
+        }
+        int[] pairs = days[start.getDayOfWeek().ordinal()];
+        for (int i = 0; i < pairs.length && pairs[i] <= startSecond; i += 2) {
+            if (endSecond <= pairs[i + 1]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Bloques completos de cada turno del día (para los mapas de bits de disponibilidad).
+     */
+    public long[][] blocks(DayOfWeek dow) {
+        int[] pairs = days[dow.ordinal()];
+        long[][] blocks = new long[pairs.length / 2][];
+        for (int i = 0; i < pairs.length; i += 2) {
+            blocks[i / 2] = BlockBitmap.inward(LocalTime.ofSecondOfDay(pairs[i]), LocalTime.ofSecondOfDay(pairs[i + 1]));
+        }
+        return blocks;
+    }
+
+    /**
+     * Minutos de turno en cada hora del día (índice 0-23). Si dos turnos se traslapan, cada
+     * minuto cuenta una vez.
+     */
+    public int[] minutesByHour(DayOfWeek dow) {
+        int[] pairs = days[dow.ordinal()];
+        int[] seconds = new int[24];
+        int covered = 0;
+        for (int i = 0; i < pairs.length; i += 2) {
+            int start = Math.max(pairs[i], covered);
+            int end = pairs[i + 1];
+            for (int second = start; second < end; ) {
+                int hour = second / 3600;
+                int hourEnd = Math.min(end, (hour + 1) * 3600);
+                seconds[hour] += hourEnd - second;
+                second = hourEnd;
+            }
+            covered = Math.max(covered, end);
+        }
+        int[] minutes = new int[24];
+        for (int hour = 0; hour < 24; hour++) {
+            minutes[hour] = seconds[hour] / 60;
+        }
+        return minutes;
+    }
+
+    /**
+     * Turnos del día como texto ("09:00 - 12:00, 14:00 - 18:00") para los mensajes de error.
+     */
+    public String describe(DayOfWeek dow) {
+        int[] pairs = days[dow.ordinal()];
+        StringJoiner joiner = new StringJoiner(", ");
+        for (int i = 0; i < pairs.length; i += 2) {
+            joiner.add(LocalTime.ofSecondOfDay(pairs[i]) + " - " + LocalTime.ofSecondOfDay(pairs[i + 1]));
+        }
+        return joiner.toString();
+    }
+
+    @Override
+    public String toString() {
+        return "WeeklyShiftTemplate" + Arrays.deepToString(days);
+    }
+}
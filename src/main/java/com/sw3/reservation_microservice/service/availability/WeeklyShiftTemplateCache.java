@@ -0,0 +1,56 @@
+package com.sw3.reservation_microservice.service.availability;
+
+import com.sw3.reservation_microservice.access.WorkShiftRepository;
+import com.sw3.reservation_microservice.service.event.CacheInvalidatedEvent;
+import com.sw3.reservation_microservice.service.event.WorkShiftChangedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Plantillas semanales de turnos por barbero. Se compilan con una sola consulta la primera vez
+ * que se piden y se reemplazan completas (nunca se modifican) cuando WorkShiftEventListener
+ * sincroniza un turno del barbero (o, si lo sincronizó otra instancia, con su invalidación).
+ */
+@Component
+@RequiredArgsConstructor
+public class WeeklyShiftTemplateCache {
+
+    private final WorkShiftRepository workShiftRepository;
+
+    private final Map<String, WeeklyShiftTemplate> templates = new ConcurrentHashMap<>();
+
+    public WeeklyShiftTemplate forBarber(String barberId) {
+        return templates.computeIfAbsent(barberId, this::compile);
+    }
+
+    /**
+     * Descarta todas las plantillas; se recompilan desde la BD en la siguiente consulta.
+     */
+    public void clear() {
+        templates.clear();
+    }
+
+    /** Antes que las caches que se construyen a partir de la plantilla (DayOccupancyMap) */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onWorkShiftChanged(WorkShiftChangedEvent event) {
+        templates.put(event.getBarberId(), compile(event.getBarberId()));
+    }
+
+    /** Cambios hechos en otra instancia: se recompilan en la siguiente consulta */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCacheInvalidated(CacheInvalidatedEvent event) {
+        templates.keySet().removeAll(event.getBarberIds());
+    }
+
+    private WeeklyShiftTemplate compile(String barberId) {
+        return WeeklyShiftTemplate.compile(workShiftRepository.findByBarberId(barberId));
+    }
+}
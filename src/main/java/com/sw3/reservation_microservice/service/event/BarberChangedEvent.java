@@ -0,0 +1,18 @@
+package com.sw3.reservation_microservice.service.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Evento interno publicado cuando se sincroniza un barbero (alta, baja o cambio de estado).
+ * Las proyecciones de disponibilidad lo escuchan para ocultar o volver a mostrar al barbero.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class BarberChangedEvent {
+
+    private final String barberId;
+    private final boolean active;
+}
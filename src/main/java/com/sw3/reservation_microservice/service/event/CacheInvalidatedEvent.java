@@ -0,0 +1,21 @@
+package com.sw3.reservation_microservice.service.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Set;
+
+/**
+ * Evento interno publicado cuando otra instancia avisa que cambiaron reservas, turnos o el
+ * estado de ciertos barberos y clientes. Las caches en memoria recargan lo de esos barberos
+ * desde la BD en lugar de aplicar un cambio puntual (el mensaje no trae los datos).
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class CacheInvalidatedEvent {
+
+    private final Set<String> barberIds;
+    private final Set<String> clientIds;
+}
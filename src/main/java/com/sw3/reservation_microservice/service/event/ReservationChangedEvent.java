@@ -0,0 +1,62 @@
+package com.sw3.reservation_microservice.service.event;
+
+import com.sw3.reservation_microservice.domain.model.Reservation;
+import com.sw3.reservation_microservice.domain.model.ReservationStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/**
+ * Evento interno que ReservationService publica cada vez que una reserva cambia.
+ * Lo consumen las estructuras en memoria (índices, caches) para mantenerse al día
+ * una vez confirmada la transacción.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class ReservationChangedEvent {
+
+    public enum Type {
+        CREATED,
+        CANCELLED,
+        RESCHEDULED,
+        STATUS_CHANGED,
+        DELETED
+    }
+
+    private final Type type;
+    private final Long reservationId;
+    private final String clientId;
+    private final String barberId;
+    private final Long serviceId;
+    private final LocalDateTime startTime;
+    private final LocalDateTime endTime;
+    private final ReservationStatus status;
+
+    /** Horario anterior (solo en reprogramaciones), null en el resto de casos */
+    private final LocalDateTime previousStartTime;
+    private final LocalDateTime previousEndTime;
+
+    public static ReservationChangedEvent of(Type type, Reservation reservation) {
+        return new ReservationChangedEvent(type, reservation.getId(), reservation.getClientId(),
+                reservation.getBarberId(), reservation.getServiceId(), reservation.getStartTime(),
+                reservation.getEndTime(), reservation.getStatus(), null, null);
+    }
+
+    public static ReservationChangedEvent rescheduled(Reservation reservation,
+                                                      LocalDateTime previousStartTime,
+                                                      LocalDateTime previousEndTime) {
+        return new ReservationChangedEvent(Type.RESCHEDULED, reservation.getId(), reservation.getClientId(),
+                reservation.getBarberId(), reservation.getServiceId(), reservation.getStartTime(),
+                reservation.getEndTime(), reservation.getStatus(), previousStartTime, previousEndTime);
+    }
+
+    /**
+     * Indica si la reserva sigue ocupando su horario (todo estado excepto CANCELADA).
+     */
+    public boolean occupiesSlot() {
+        return type != Type.DELETED && status != ReservationStatus.CANCELADA;
+    }
+}
@@ -0,0 +1,17 @@
+package com.sw3.reservation_microservice.service.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Evento interno publicado cuando cambian los turnos (WorkShift) de un barbero.
+ * Las caches de turnos lo escuchan para recompilar los del barbero afectado.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class WorkShiftChangedEvent {
+
+    private final String barberId;
+}
@@ -0,0 +1,35 @@
+package com.sw3.reservation_microservice.service.export;
+
+import com.sw3.reservation_microservice.config.controladorExcepciones.excepcionesPropias.ReservationValidationException;
+import org.springframework.http.MediaType;
+
+/**
+ * Formatos de la exportación de reservas.
+ */
+public enum ExportFormat {
+
+    /** Un único arreglo JSON */
+    JSON(MediaType.APPLICATION_JSON),
+
+    /** Un objeto JSON por línea (NDJSON), cómodo para procesar fila por fila */
+    NDJSON(MediaType.parseMediaType("application/x-ndjson"));
+
+    private final MediaType mediaType;
+
+    ExportFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public static ExportFormat from(String value) {
+        for (ExportFormat format : values()) {
+            if (format.name().equalsIgnoreCase(value)) {
+                return format;
+            }
+        }
+        throw new ReservationValidationException("Formato de exportación no soportado: " + value + ". Use json o ndjson.");
+    }
+}
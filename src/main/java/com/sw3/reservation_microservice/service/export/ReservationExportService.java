@@ -0,0 +1,70 @@
+package com.sw3.reservation_microservice.service.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sw3.reservation_microservice.access.ReservationRepository;
+import com.sw3.reservation_microservice.controller.dto.response.ReservationListItemDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Exporta la tabla completa de reservas escribiendo cada fila en la respuesta a medida que
+ * llega del cursor JDBC, en lugar de armar una lista con todas (findAll) y serializarla de una vez.
+ *
+ * Las filas se leen como DTO (no quedan entidades en el contexto de persistencia) y cada
+ * {@link ReservationRepository#EXPORT_BATCH_SIZE} filas se vacía el generador, así que la memoria
+ * usada no depende del tamaño de la tabla.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReservationExportService {
+
+    private final ReservationRepository reservationRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Escribe todas las reservas en {@code out}. Corre dentro de una transacción de solo lectura
+     * porque PostgreSQL solo respeta el fetch size con el autocommit desactivado.
+     *
+     * @return cantidad de reservas exportadas
+     */
+    @Transactional(readOnly = true)
+    public long export(OutputStream out, ExportFormat format) throws IOException {
+        long rows = 0;
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(out);
+             Stream<ReservationListItemDTO> reservations = reservationRepository.streamAllForExport()) {
+            if (format == ExportFormat.NDJSON) {
+                json.setPrettyPrinter(new MinimalPrettyPrinter("\n"));
+            } else {
+                json.writeStartArray();
+            }
+
+            Iterator<ReservationListItemDTO> iterator = reservations.iterator();
+            while (iterator.hasNext()) {
+                json.writeObject(iterator.next());
+                if (++rows % ReservationRepository.EXPORT_BATCH_SIZE == 0) {
+                    json.flush();
+                }
+            }
+
+            if (format == ExportFormat.NDJSON) {
+                if (rows > 0) {
+                    json.writeRaw('\n');
+                }
+            } else {
+                json.writeEndArray();
+            }
+        }
+        log.info("[ReservationExport] {} reservas exportadas en formato {}", rows, format);
+        return rows;
+    }
+}
@@ -1,14 +1,43 @@
 package com.sw3.reservation_microservice.service.facade;
 
+import com.sw3.reservation_microservice.controller.dto.request.CreateBatchReservationRequestDTO;
 import com.sw3.reservation_microservice.controller.dto.request.CreateReservationRequestDTO;
+import com.sw3.reservation_microservice.controller.dto.request.CreateSlotHoldRequestDTO;
 import com.sw3.reservation_microservice.controller.dto.request.RescheduleReservationRequestDTO;
+import com.sw3.reservation_microservice.controller.dto.response.AvailabilityResponseDTO;
+import com.sw3.reservation_microservice.controller.dto.response.AvailableSlotDTO;
+import com.sw3.reservation_microservice.controller.dto.response.BarberUtilizationDTO;
+import com.sw3.reservation_microservice.controller.dto.response.ProjectionConsistencyDTO;
+import com.sw3.reservation_microservice.controller.dto.response.ReservationListItemDTO;
+import com.sw3.reservation_microservice.controller.dto.response.SlotHoldResponseDTO;
 import com.sw3.reservation_microservice.domain.model.Reservation;
 import com.sw3.reservation_microservice.service.ReservationService;
+import com.sw3.reservation_microservice.service.analytics.BarberUtilizationService;
+import com.sw3.reservation_microservice.service.availability.AvailabilityProjection;
+import com.sw3.reservation_microservice.service.availability.AvailabilityService;
+import com.sw3.reservation_microservice.service.availability.AvailabilityStreamRegistry;
+import com.sw3.reservation_microservice.service.availability.EarliestSlotFinder;
+import com.sw3.reservation_microservice.service.availability.SlotHoldRegistry;
+import com.sw3.reservation_microservice.service.availability.SlotHoldService;
+import com.sw3.reservation_microservice.service.export.ExportFormat;
+import com.sw3.reservation_microservice.service.export.ReservationExportService;
+import com.sw3.reservation_microservice.service.idempotency.IdempotencyService;
+import com.sw3.reservation_microservice.service.locking.BookingLockManager;
+import com.sw3.reservation_microservice.service.locking.BookingLockMetrics;
+import com.sw3.reservation_microservice.service.schedule.ScheduleVersionRegistry;
+import com.sw3.reservation_microservice.service.validation.ReservationValidationContext;
+import com.sw3.reservation_microservice.service.validation.ReservationValidatorChain;
+import com.sw3.reservation_microservice.utils.CursorPage;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 /**
  * PATRÓN FACHADA: Proporciona una interfaz simplificada para las operaciones de reservas.
@@ -20,24 +49,110 @@ public class ReservationFacade {
     @Autowired
     private ReservationService reservationService;
 
+    @Autowired
+    private BookingLockManager bookingLockManager;
+
+    @Autowired
+    private ReservationValidatorChain validatorChain;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private SlotHoldService slotHoldService;
+
+    @Autowired
+    private SlotHoldRegistry slotHoldRegistry;
+
+    @Autowired
+    private AvailabilityService availabilityService;
+
+    @Autowired
+    private EarliestSlotFinder earliestSlotFinder;
+
+    @Autowired
+    private AvailabilityProjection availabilityProjection;
+
+    @Autowired
+    private AvailabilityStreamRegistry availabilityStreamRegistry;
+
+    @Autowired
+    private BarberUtilizationService barberUtilizationService;
+
+    @Autowired
+    private ReservationExportService reservationExportService;
+
+    @Autowired
+    private ScheduleVersionRegistry scheduleVersionRegistry;
+
     /**
      * Crea una nueva reserva coordinando:
+     * - Bloqueo por barbero (validar y guardar sin carreras)
      * - Cadena de responsabilidades (validaciones)
      * - Patrón State (estado inicial)
      * - Persistencia
      */
     public Reservation createReservation(CreateReservationRequestDTO request) {
-        return reservationService.createReservation(request);
+        // Servicio y barbero se resuelven antes del bloqueo y de la transacción (ver ReservationValidatorChain)
+        ReservationValidationContext resolved = validatorChain.resolve(request);
+        return bookingLockManager.executeWithLock(request.getBarberId(),
+            () -> consumingHold(request, reservationService.createReservation(request, resolved)));
+    }
+
+    /**
+     * Crea una reserva con cabecera Idempotency-Key:
+     * - Si la clave ya se usó, devuelve la respuesta guardada sin validar ni consultar la BD
+     * - Si no, crea la reserva bajo el bloqueo del barbero y guarda la respuesta
+     */
+    public Reservation createReservation(CreateReservationRequestDTO request, String idempotencyKey) {
+        return idempotencyService
+            .findReplay(request.getClientId(), idempotencyKey, request, Reservation.class)
+            .orElseGet(() -> {
+                ReservationValidationContext resolved = validatorChain.resolve(request);
+                return bookingLockManager.executeWithLock(request.getBarberId(),
+                    () -> idempotencyService.executeOnce(request.getClientId(), idempotencyKey, request,
+                        Reservation.class, () -> consumingHold(request, reservationService.createReservation(request, resolved))));
+            });
+    }
+
+    /**
+     * Aparta temporalmente un horario (hold) bajo el bloqueo del barbero.
+     */
+    public SlotHoldResponseDTO placeSlotHold(CreateSlotHoldRequestDTO request) {
+        ReservationValidationContext resolved = validatorChain.resolve(request);
+        return bookingLockManager.executeWithLock(request.getBarberId(),
+            () -> slotHoldService.placeHold(request, resolved));
+    }
+
+    /**
+     * Libera un horario apartado antes de que venza.
+     */
+    public void releaseSlotHold(String holdToken, String clientId) {
+        slotHoldService.releaseHold(holdToken, clientId);
+    }
+
+    /**
+     * Crea un combo de servicios consecutivos coordinando:
+     * - Bloqueo por barbero
+     * - Cadena de responsabilidades sobre el intervalo combinado
+     * - Persistencia atómica por lotes
+     */
+    public List<Reservation> createBatchReservation(CreateBatchReservationRequestDTO request) {
+        ReservationValidationContext resolved = validatorChain.resolve(request);
+        return bookingLockManager.executeWithLock(request.getBarberId(),
+            () -> reservationService.createBatchReservation(request, resolved));
     }
 
     /**
      * Cancela una reserva coordinando:
+     * - Bloqueo por barbero
      * - Patrón State (validación de transición)
      * - Validación de tiempo (1 hora antes)
      * - Persistencia
      */
     public Reservation cancelReservation(Long reservationId, String clientId) {
-        return reservationService.cancelReservation(reservationId, clientId);
+        return withReservationBarberLock(reservationId,
+            () -> reservationService.cancelReservation(reservationId, clientId));
     }
 
     /**
@@ -53,45 +168,143 @@ public class ReservationFacade {
     /**
      * Consulta simplificada: Obtener reserva por ID
      */
-    public Optional<Reservation> findById(Long id) {
+    public Optional<ReservationListItemDTO> findById(Long id) {
         return reservationService.getReservationById(id);
     }
 
     /**
-     * Consulta simplificada: Obtener todas las reservas
+     * Consulta simplificada: Todas las reservas
      */
-    public List<Reservation> findAll() {
+    public List<ReservationListItemDTO> findAll() {
         return reservationService.getAllReservations();
     }
 
+    /**
+     * Consulta simplificada: Página de todas las reservas
+     */
+    public CursorPage<ReservationListItemDTO> findAll(String cursor, int limit) {
+        return reservationService.getAllReservations(cursor, limit);
+    }
+
+    /**
+     * Exportación: Escribe todas las reservas en el flujo de salida, fila por fila
+     */
+    public long exportReservations(OutputStream out, ExportFormat format) throws IOException {
+        return reservationExportService.export(out, format);
+    }
+
     /**
      * Consulta simplificada: Reservas activas del cliente
      */
-    public List<Reservation> getClientActiveReservations(String clientId) {
+    public List<ReservationListItemDTO> getClientActiveReservations(String clientId) {
         return reservationService.getActiveReservationsByClient(clientId);
     }
 
     /**
      * Consulta simplificada: Historial del cliente
      */
-    public List<Reservation> getClientHistory(String clientId) {
+    public List<ReservationListItemDTO> getClientHistory(String clientId) {
         return reservationService.getReservationHistoryByClient(clientId);
     }
 
+    /**
+     * Consulta simplificada: Página del historial del cliente
+     */
+    public CursorPage<ReservationListItemDTO> getClientHistory(String clientId, String cursor, int limit) {
+        return reservationService.getReservationHistoryByClient(clientId, cursor, limit);
+    }
+
     /**
      * Consulta simplificada: Todas las reservas de un barbero
      */
-    public List<Reservation> getBarberReservations(String barberId) {
+    public List<ReservationListItemDTO> getBarberReservations(String barberId) {
         return reservationService.getAllReservationsByBarber(barberId);
     }
 
+    /**
+     * Consulta simplificada: Página de las reservas de un barbero
+     */
+    public CursorPage<ReservationListItemDTO> getBarberReservations(String barberId, String cursor, int limit) {
+        return reservationService.getAllReservationsByBarber(barberId, cursor, limit);
+    }
+
+    /**
+     * Consulta simplificada: ETag de la agenda del barbero en el día (sin consultar reservas)
+     */
+    public String getBarberScheduleETag(String barberId, LocalDateTime day) {
+        return scheduleVersionRegistry.etag(barberId, day.toLocalDate());
+    }
+
     /**
      * Consulta simplificada: Agenda del barbero
      */
-    public List<Reservation> getBarberSchedule(String barberId, LocalDateTime day) {
+    public List<ReservationListItemDTO> getBarberSchedule(String barberId, LocalDateTime day) {
         return reservationService.getBarberReservationsByDay(barberId, day);
     }
 
+    /**
+     * Consulta simplificada: Horas reservables del barbero en un día para un servicio
+     */
+    public AvailabilityResponseDTO getBarberAvailability(String barberId, LocalDate date, Long serviceId) {
+        return availabilityService.findAvailableSlots(barberId, date, serviceId);
+    }
+
+    /**
+     * Consulta simplificada: Primeros horarios libres del servicio con cualquier barbero
+     */
+    public List<AvailableSlotDTO> findEarliestSlots(Long serviceId, LocalDateTime from, LocalDateTime to, int limit) {
+        return earliestSlotFinder.findEarliest(serviceId, from, to, limit);
+    }
+
+    /**
+     * Consulta simplificada: Minutos libres por día del barbero (mapa de calor del calendario)
+     */
+    public int[] getBarberHeatmap(String barberId, LocalDate from, LocalDate to) {
+        return availabilityService.freeMinutesByDay(barberId, from, to);
+    }
+
+    /**
+     * Consulta simplificada: Minutos libres por día entre los barberos que ofrecen el servicio
+     */
+    public int[] getServiceHeatmap(Long serviceId, LocalDate from, LocalDate to) {
+        return availabilityService.freeMinutesByDayForService(serviceId, from, to);
+    }
+
+    /**
+     * Suscripción: Cambios de disponibilidad de un barbero (SSE)
+     */
+    public SseEmitter subscribeBarberAvailability(String barberId) {
+        return availabilityStreamRegistry.subscribeBarber(barberId);
+    }
+
+    /**
+     * Suscripción: Cambios de disponibilidad de los barberos que ofrecen el servicio (SSE)
+     */
+    public SseEmitter subscribeServiceAvailability(Long serviceId) {
+        return availabilityStreamRegistry.subscribeService(serviceId);
+    }
+
+    /**
+     * Administración: Ocupación de uno o todos los barberos por día y hora del día
+     */
+    public List<BarberUtilizationDTO> getBarberUtilization(String barberId, LocalDate from, LocalDate to) {
+        return barberUtilizationService.utilization(barberId, from, to);
+    }
+
+    /**
+     * Administración: Reconstruye la proyección de disponibilidad desde la BD
+     */
+    public int rebuildAvailabilityProjection() {
+        return availabilityProjection.rebuild();
+    }
+
+    /**
+     * Administración: Compara la proyección de disponibilidad de un barbero con las tablas fuente
+     */
+    public ProjectionConsistencyDTO checkAvailabilityProjection(String barberId, LocalDate from, LocalDate to) {
+        return availabilityProjection.checkConsistency(barberId, from, to);
+    }
+
     /**
      * Validación de regla de negocio: ¿Se puede desactivar un barbero?
      */
@@ -108,12 +321,14 @@ public class ReservationFacade {
 
     /**
      * Reprograma una reserva coordinando:
+     * - Bloqueo por barbero
      * - Cadena de validaciones de reprogramación
      * - Actualización de fechas
      * - Persistencia
      */
     public Reservation rescheduleReservation(Long reservationId, String clientId, RescheduleReservationRequestDTO request) {
-        return reservationService.rescheduleReservation(reservationId, clientId, request);
+        return withReservationBarberLock(reservationId,
+            () -> reservationService.rescheduleReservation(reservationId, clientId, request));
     }
 
     /**
@@ -125,4 +340,37 @@ public class ReservationFacade {
     public void deleteReservation(Long reservationId, String clientId) {
         reservationService.deleteReservation(reservationId, clientId);
     }
+
+    /**
+     * Métricas de espera de los bloqueos por barbero.
+     */
+    public BookingLockMetrics.Snapshot getBookingLockMetrics() {
+        return bookingLockManager.getMetrics();
+    }
+
+    /**
+     * La reserva ya quedó guardada: el horario apartado se libera (todavía bajo el bloqueo
+     * del barbero, así que nadie ve el horario libre entre una cosa y otra).
+     * Solo si el hold es del mismo cliente y cubre la reserva: un token ajeno o de otro
+     * horario no libera el hold de nadie.
+     */
+    private Reservation consumingHold(CreateReservationRequestDTO request, Reservation reservation) {
+        if (request.getHoldToken() != null && slotHoldRegistry.covers(request.getHoldToken(),
+                reservation.getBarberId(), reservation.getClientId(), reservation.getStartTime(), reservation.getEndTime())) {
+            slotHoldRegistry.release(request.getHoldToken());
+        }
+        return reservation;
+    }
+
+    /**
+     * Ejecuta la operación bajo el bloqueo del barbero dueño de la reserva.
+     * Si la reserva no existe se ejecuta sin bloqueo y el servicio reporta el error.
+     */
+    private Reservation withReservationBarberLock(Long reservationId, Supplier<Reservation> action) {
+        Optional<String> barberId = reservationService.findBarberIdOfReservation(reservationId);
+        if (barberId.isEmpty()) {
+            return action.get();
+        }
+        return bookingLockManager.executeWithLock(barberId.get(), action);
+    }
 }
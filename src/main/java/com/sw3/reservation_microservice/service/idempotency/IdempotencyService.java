@@ -0,0 +1,153 @@
+package com.sw3.reservation_microservice.service.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sw3.reservation_microservice.config.controladorExcepciones.excepcionesPropias.IdempotencyKeyConflictException;
+import com.sw3.reservation_microservice.config.controladorExcepciones.excepcionesPropias.ReservationValidationException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Soporte de la cabecera Idempotency-Key: la primera petición con una clave se ejecuta
+ * y su respuesta se guarda; los reintentos con la misma clave (y el mismo cuerpo)
+ * reciben esa respuesta sin pasar por las validaciones ni por la base de datos.
+ *
+ * Las claves tienen alcance por cliente y solo se guardan respuestas exitosas:
+ * si la primera petición falló, el reintento se ejecuta de nuevo.
+ *
+ * La clave se guarda en la misma transacción que la operación: si no se puede guardar,
+ * la reserva tampoco queda creada y el reintento no produce una segunda.
+ */
+@Component
+@Slf4j
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+
+    private static final int MAX_KEY_LENGTH = 100;
+
+    private final IdempotencyStore store;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final TransactionTemplate transactionTemplate;
+
+    public IdempotencyService(IdempotencyStore store,
+                              ObjectMapper objectMapper,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${reservation.idempotency.ttl-minutes:1440}") long ttlMinutes) {
+        this.store = store;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ttl = Duration.ofMinutes(ttlMinutes);
+    }
+
+    /**
+     * Busca una respuesta ya entregada para la clave.
+     *
+     * @throws IdempotencyKeyConflictException si la clave se usó antes con otra petición
+     */
+    public <T> Optional<T> findReplay(String clientId, String key, Object request, Class<T> responseType) {
+        String scopedKey = scope(clientId, key);
+        String fingerprint = fingerprint(request);
+        return store.find(scopedKey).map(stored -> {
+            if (!stored.getRequestFingerprint().equals(fingerprint)) {
+                throw new IdempotencyKeyConflictException(key);
+            }
+            log.debug("[Idempotency] Reintento con clave {}: se devuelve la respuesta guardada", scopedKey);
+            return read(stored.getBody(), responseType);
+        });
+    }
+
+    /**
+     * Ejecuta la operación una sola vez por clave. Vuelve a consultar el almacén antes de
+     * ejecutar porque otro reintento pudo terminar mientras se esperaba el bloqueo del barbero.
+     *
+     * La operación y el guardado de la clave van en una sola transacción (la operación se une
+     * a ella): si guardar falla o la clave ya la tomó otra petición, se deshace todo.
+     *
+     * @throws IdempotencyKeyConflictException si otra petición guardó la clave mientras tanto
+     */
+    public <T> T executeOnce(String clientId, String key, Object request, Class<T> responseType, Supplier<T> action) {
+        Optional<T> replay = findReplay(clientId, key, request, responseType);
+        if (replay.isPresent()) {
+            return replay.get();
+        }
+
+        String scopedKey = scope(clientId, key);
+        return transactionTemplate.execute(status -> {
+            T response = action.get();
+            StoredResponse stored = new StoredResponse(fingerprint(request), write(response), Instant.now().plus(ttl));
+            if (!store.save(scopedKey, stored)) {
+                // Solo ocurre con otra petición (otro barbero, otro bloqueo) que usó la misma clave
+                throw new IdempotencyKeyConflictException(key);
+            }
+            return response;
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${reservation.idempotency.purge-interval-ms:600000}")
+    public void purgeExpired() {
+        int purged = store.purgeExpired();
+        if (purged > 0) {
+            log.info("[Idempotency] {} claves vencidas eliminadas", purged);
+        }
+    }
+
+    /**
+     * Clave con alcance por cliente. Se guarda el SHA-256 de clientId:clave para que su largo
+     * sea fijo (64) sin importar el largo del clientId.
+     */
+    String scope(String clientId, String key) {
+        if (key == null || key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new ReservationValidationException(
+                "La cabecera " + HEADER + " debe tener entre 1 y " + MAX_KEY_LENGTH + " caracteres."
+            );
+        }
+        return HexFormat.of().formatHex(sha256().digest((clientId + ":" + key).getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private String fingerprint(Object request) {
+        try {
+            return HexFormat.of().formatHex(sha256().digest(objectMapper.writeValueAsBytes(request)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo calcular la huella de la petición", e);
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no está disponible", e);
+        }
+    }
+
+    private String write(Object response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar la respuesta", e);
+        }
+    }
+
+    private <T> T read(String body, Class<T> responseType) {
+        try {
+            return objectMapper.readValue(body, responseType);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo leer la respuesta guardada", e);
+        }
+    }
+}
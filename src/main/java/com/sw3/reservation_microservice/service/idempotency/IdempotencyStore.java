@@ -0,0 +1,31 @@
+package com.sw3.reservation_microservice.service.idempotency;
+
+import java.util.Optional;
+
+/**
+ * Almacén de respuestas por clave de idempotencia.
+ * Backends: memoria (un nodo) o tabla idempotency_keys (varios nodos),
+ * elegidos con reservation.idempotency.store.
+ */
+public interface IdempotencyStore {
+
+    /**
+     * Devuelve la respuesta guardada si existe y no ha vencido.
+     */
+    Optional<StoredResponse> find(String scopedKey);
+
+    /**
+     * Guarda la respuesta; si otra petición ya guardó la misma clave (sin vencer), se conserva
+     * la primera.
+     *
+     * @return false si la clave ya estaba guardada
+     */
+    boolean save(String scopedKey, StoredResponse response);
+
+    /**
+     * Elimina las entradas vencidas.
+     *
+     * @return cuántas se eliminaron
+     */
+    int purgeExpired();
+}
@@ -0,0 +1,65 @@
+package com.sw3.reservation_microservice.service.idempotency;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Backend en memoria: mapa LRU acotado a max-entries; al llenarse descarta la clave
+ * usada hace más tiempo. Las entradas vencidas se ignoran al leer y se purgan periódicamente.
+ */
+@Component
+@ConditionalOnProperty(name = "reservation.idempotency.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+
+    private final Map<String, StoredResponse> entries;
+
+    public InMemoryIdempotencyStore(@Value("${reservation.idempotency.max-entries:10000}") int maxEntries) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, StoredResponse> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    @Override
+    public synchronized Optional<StoredResponse> find(String scopedKey) {
+        StoredResponse response = entries.get(scopedKey);
+        if (response == null) {
+            return Optional.empty();
+        }
+        if (response.isExpired(Instant.now())) {
+            entries.remove(scopedKey);
+            return Optional.empty();
+        }
+        return Optional.of(response);
+    }
+
+    @Override
+    public synchronized boolean save(String scopedKey, StoredResponse response) {
+        StoredResponse existing = entries.get(scopedKey);
+        if (existing != null && !existing.isExpired(Instant.now())) {
+            return false;
+        }
+        entries.put(scopedKey, response);
+        return true;
+    }
+
+    @Override
+    public synchronized int purgeExpired() {
+        Instant now = Instant.now();
+        int before = entries.size();
+        entries.values().removeIf(response -> response.isExpired(now));
+        return before - entries.size();
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+}
@@ -0,0 +1,49 @@
+package com.sw3.reservation_microservice.service.idempotency;
+
+import com.sw3.reservation_microservice.access.IdempotencyKeyRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Backend en la tabla idempotency_keys: todos los nodos ven las mismas claves.
+ * La inserción usa ON CONFLICT sobre la clave primaria, así que dos nodos que guardan la misma
+ * clave a la vez no fallan ni se pisan: la primera respuesta es la que queda.
+ */
+@Component
+@ConditionalOnProperty(name = "reservation.idempotency.store", havingValue = "database")
+@RequiredArgsConstructor
+@Slf4j
+public class JpaIdempotencyStore implements IdempotencyStore {
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Override
+    public Optional<StoredResponse> find(String scopedKey) {
+        Instant now = Instant.now();
+        return idempotencyKeyRepository.findById(scopedKey)
+            .filter(key -> key.getExpiresAt().isAfter(now))
+            .map(key -> new StoredResponse(key.getRequestFingerprint(), key.getResponseBody(), key.getExpiresAt()));
+    }
+
+    @Override
+    public boolean save(String scopedKey, StoredResponse response) {
+        // Se une a la transacción de IdempotencyService.executeOnce, la misma de la reserva
+        int written = idempotencyKeyRepository.insertIfAbsent(scopedKey, response.getRequestFingerprint(),
+            response.getBody(), Instant.now(), response.getExpiresAt());
+        if (written == 0) {
+            // Otro nodo guardó la misma clave primero: se conserva su respuesta
+            log.debug("[Idempotency] La clave {} ya estaba guardada", scopedKey);
+        }
+        return written > 0;
+    }
+
+    @Override
+    public int purgeExpired() {
+        return idempotencyKeyRepository.deleteExpired(Instant.now());
+    }
+}
@@ -0,0 +1,20 @@
+package com.sw3.reservation_microservice.service.idempotency;
+
+import lombok.Value;
+
+import java.time.Instant;
+
+/**
+ * Respuesta ya entregada para una clave de idempotencia.
+ */
+@Value
+public class StoredResponse {
+    String requestFingerprint;
+    /** Cuerpo JSON devuelto la primera vez */
+    String body;
+    Instant expiresAt;
+
+    public boolean isExpired(Instant now) {
+        return !expiresAt.isAfter(now);
+    }
+}
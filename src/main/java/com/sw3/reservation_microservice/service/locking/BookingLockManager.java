@@ -0,0 +1,26 @@
+package com.sw3.reservation_microservice.service.locking;
+
+import java.util.function.Supplier;
+
+/**
+ * Serializa las operaciones de reserva que afectan a un mismo barbero.
+ * Las reservas de barberos distintos se ejecutan en paralelo.
+ *
+ * El backend se elige con reservation.locking.backend:
+ * - local: ReentrantLock por franjas dentro de la JVM (un solo nodo)
+ * - postgres: advisory locks de PostgreSQL (varios nodos)
+ */
+public interface BookingLockManager {
+
+    /**
+     * Ejecuta la acción mientras se mantiene el bloqueo del barbero.
+     * El bloqueo debe mantenerse hasta después del commit: el backend local lo toma fuera de la
+     * transacción y el de postgres abre él mismo la transacción a la que se une la operación.
+     */
+    <T> T executeWithLock(String barberId, Supplier<T> action);
+
+    /**
+     * Métricas de espera acumuladas desde el arranque.
+     */
+    BookingLockMetrics.Snapshot getMetrics();
+}
@@ -0,0 +1,61 @@
+package com.sw3.reservation_microservice.service.locking;
+
+import lombok.Value;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contadores de espera de los bloqueos por barbero.
+ */
+public class BookingLockMetrics {
+
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder contended = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    public void recordAcquired(long waitNanos, boolean wasContended) {
+        acquisitions.increment();
+        if (wasContended) {
+            contended.increment();
+        }
+        totalWaitNanos.add(waitNanos);
+        maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+    }
+
+    public void recordTimeout(long waitNanos) {
+        timeouts.increment();
+        totalWaitNanos.add(waitNanos);
+        maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+    }
+
+    public Snapshot snapshot(String backend) {
+        long count = acquisitions.sum();
+        long totalNanos = totalWaitNanos.sum();
+        return new Snapshot(
+            backend,
+            count,
+            contended.sum(),
+            timeouts.sum(),
+            totalNanos / 1_000_000,
+            maxWaitNanos.get() / 1_000_000,
+            count == 0 ? 0 : totalNanos / count / 1_000
+        );
+    }
+
+    /**
+     * Vista inmutable de las métricas, expuesta por el endpoint de administración.
+     */
+    @Value
+    public static class Snapshot {
+        String backend;
+        long acquisitions;
+        long contendedAcquisitions;
+        long timeouts;
+        long totalWaitMillis;
+        long maxWaitMillis;
+        long averageWaitMicros;
+    }
+}
@@ -0,0 +1,85 @@
+package com.sw3.reservation_microservice.service.locking;
+
+import com.sw3.reservation_microservice.config.controladorExcepciones.excepcionesPropias.ReservationValidationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.SQLException;
+import java.util.function.Supplier;
+
+/**
+ * Backend para varios nodos: advisory locks de transacción de PostgreSQL.
+ *
+ * La operación se ejecuta dentro de una transacción que abre este backend (la de ReservationService
+ * se une a ella) y el bloqueo se toma con pg_advisory_xact_lock sobre la misma conexión, así que
+ * se libera solo en el commit o el rollback y no ocupa una segunda conexión del pool.
+ */
+@Component
+@ConditionalOnProperty(name = "reservation.locking.backend", havingValue = "postgres")
+public class PostgresAdvisoryBookingLockManager implements BookingLockManager {
+
+    /** Espacio de claves propio ('RESV') para no chocar con otros advisory locks */
+    private static final int LOCK_NAMESPACE = 0x52455356;
+
+    /** SQLState de PostgreSQL cuando vence lock_timeout */
+    private static final String LOCK_NOT_AVAILABLE = "55P03";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final long timeoutMillis;
+    private final BookingLockMetrics metrics = new BookingLockMetrics();
+
+    public PostgresAdvisoryBookingLockManager(JdbcTemplate jdbcTemplate,
+                                              PlatformTransactionManager transactionManager,
+                                              @Value("${reservation.locking.timeout-ms:5000}") long timeoutMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    @Override
+    public <T> T executeWithLock(String barberId, Supplier<T> action) {
+        int key = barberId.hashCode();
+
+        return transactionTemplate.execute(status -> {
+            long startNanos = System.nanoTime();
+            boolean contended = !tryLock(key);
+            if (contended) {
+                lockWithTimeout(key, startNanos);
+            }
+            metrics.recordAcquired(System.nanoTime() - startNanos, contended);
+            return action.get();
+        });
+    }
+
+    @Override
+    public BookingLockMetrics.Snapshot getMetrics() {
+        return metrics.snapshot("postgres");
+    }
+
+    private boolean tryLock(int key) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+            "SELECT pg_try_advisory_xact_lock(?, ?)", Boolean.class, LOCK_NAMESPACE, key));
+    }
+
+    private void lockWithTimeout(int key, long startNanos) {
+        // SET LOCAL: el timeout vuelve a su valor al terminar la transacción
+        jdbcTemplate.execute("SET LOCAL lock_timeout = '" + timeoutMillis + "ms'");
+        try {
+            jdbcTemplate.queryForObject("SELECT pg_advisory_xact_lock(?, ?)::text", String.class, LOCK_NAMESPACE, key);
+        } catch (DataAccessException e) {
+            if (e.getMostSpecificCause() instanceof SQLException sql && LOCK_NOT_AVAILABLE.equals(sql.getSQLState())) {
+                metrics.recordTimeout(System.nanoTime() - startNanos);
+                throw new ReservationValidationException(
+                    "Hay otra operación en curso para este barbero. Intenta de nuevo en unos segundos."
+                );
+            }
+            throw e;
+        }
+    }
+}
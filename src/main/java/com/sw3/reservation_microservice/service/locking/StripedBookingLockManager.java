@@ -0,0 +1,76 @@
+package com.sw3.reservation_microservice.service.locking;
+
+import com.sw3.reservation_microservice.config.controladorExcepciones.excepcionesPropias.ReservationValidationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Backend en memoria: un arreglo fijo de ReentrantLock y cada barbero cae en una franja
+ * según el hash de su ID. Dos barberos pueden compartir franja (se serializan de más),
+ * pero nunca hay dos reservas simultáneas para el mismo barbero en este nodo.
+ */
+@Component
+@ConditionalOnProperty(name = "reservation.locking.backend", havingValue = "local", matchIfMissing = true)
+public class StripedBookingLockManager implements BookingLockManager {
+
+    private final ReentrantLock[] stripes;
+    private final long timeoutMillis;
+    private final BookingLockMetrics metrics = new BookingLockMetrics();
+
+    public StripedBookingLockManager(@Value("${reservation.locking.stripes:64}") int stripeCount,
+                                     @Value("${reservation.locking.timeout-ms:5000}") long timeoutMillis) {
+        int size = Integer.highestOneBit(Math.max(1, stripeCount - 1) << 1);
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    @Override
+    public <T> T executeWithLock(String barberId, Supplier<T> action) {
+        ReentrantLock lock = stripeFor(barberId);
+        long startNanos = System.nanoTime();
+        boolean acquired = lock.tryLock();
+        boolean contended = !acquired;
+
+        if (!acquired) {
+            try {
+                acquired = lock.tryLock(timeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        long waitNanos = System.nanoTime() - startNanos;
+        if (!acquired) {
+            metrics.recordTimeout(waitNanos);
+            throw new ReservationValidationException(
+                "Hay otra operación en curso para este barbero. Intenta de nuevo en unos segundos."
+            );
+        }
+
+        metrics.recordAcquired(waitNanos, contended);
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public BookingLockMetrics.Snapshot getMetrics() {
+        return metrics.snapshot("local");
+    }
+
+    private ReentrantLock stripeFor(String barberId) {
+        int hash = barberId.hashCode();
+        hash ^= (hash >>> 16);
+        return stripes[hash & (stripes.length - 1)];
+    }
+}
@@ -0,0 +1,127 @@
+package com.sw3.reservation_microservice.service.routing;
+
+import com.sw3.reservation_microservice.config.ReplicaRoutingDataSource;
+import com.sw3.reservation_microservice.service.event.CacheInvalidatedEvent;
+import com.sw3.reservation_microservice.service.event.ReservationChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Ventana "read-your-writes" por cliente cuando las lecturas van a la réplica.
+ *
+ * Tras confirmarse una escritura de un cliente, sus propias lecturas van a la primaria durante
+ * reservation.datasource.replica.read-your-writes-ms, para que el retraso de replicación no
+ * le oculte la reserva que acaba de crear, cancelar o mover. Sin réplica o con ventana 0 no hace nada.
+ *
+ * Se abre la misma ventana para el barbero afectado: su agenda diaria se sirve con un ETag que
+ * cambia al confirmar, y leerla de una réplica atrasada guardaría en caché el contenido viejo
+ * con el ETag nuevo.
+ */
+@Component
+@Slf4j
+public class ReadYourWritesTracker {
+
+    private static final String CLIENT = "client:";
+    private static final String BARBER = "barber:";
+
+    private final boolean enabled;
+    private final long windowNanos;
+
+    /** "client:id" / "barber:id" -> instante (System.nanoTime) en que termina su ventana */
+    private final Map<String, Long> windows = new ConcurrentHashMap<>();
+
+    public ReadYourWritesTracker(@Value("${reservation.datasource.replica.enabled:false}") boolean replicaEnabled,
+                                 @Value("${reservation.datasource.replica.read-your-writes-ms:5000}") long windowMs) {
+        this.enabled = replicaEnabled && windowMs > 0;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMs);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservationChanged(ReservationChangedEvent event) {
+        recordWrite(event.getClientId(), event.getBarberId());
+    }
+
+    /** Escrituras confirmadas en otra instancia: el cliente puede leer en esta la siguiente vez */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCacheInvalidated(CacheInvalidatedEvent event) {
+        event.getClientIds().forEach(clientId -> recordWrite(clientId, null));
+        event.getBarberIds().forEach(barberId -> recordWrite(null, barberId));
+    }
+
+    /**
+     * Abre (o alarga) la ventana del cliente y del barbero de una escritura.
+     */
+    public void recordWrite(String clientId, String barberId) {
+        if (!enabled) {
+            return;
+        }
+        long deadline = System.nanoTime() + windowNanos;
+        if (clientId != null) {
+            windows.put(CLIENT + clientId, deadline);
+        }
+        if (barberId != null) {
+            windows.put(BARBER + barberId, deadline);
+        }
+    }
+
+    /**
+     * Indica si las lecturas del cliente deben ir todavía a la primaria.
+     */
+    public boolean mustReadFromPrimary(String clientId) {
+        return clientId != null && windowOpen(CLIENT + clientId);
+    }
+
+    /**
+     * Ejecuta una lectura del cliente en la primaria si su ventana sigue abierta.
+     */
+    public <T> T read(String clientId, Supplier<T> query) {
+        return mustReadFromPrimary(clientId) ? ReplicaRoutingDataSource.onPrimary(query) : query.get();
+    }
+
+    /**
+     * Ejecuta una lectura de la agenda del barbero en la primaria si su ventana sigue abierta.
+     */
+    public <T> T readBarber(String barberId, Supplier<T> query) {
+        boolean primary = barberId != null && windowOpen(BARBER + barberId);
+        return primary ? ReplicaRoutingDataSource.onPrimary(query) : query.get();
+    }
+
+    private boolean windowOpen(String key) {
+        if (!enabled) {
+            return false;
+        }
+        Long deadline = windows.get(key);
+        if (deadline == null) {
+            return false;
+        }
+        if (System.nanoTime() - deadline >= 0) {
+            windows.remove(key, deadline);
+            return false;
+        }
+        return true;
+    }
+
+    /** Descarta las ventanas vencidas de clientes y barberos que no volvieron a leer */
+    @Scheduled(fixedDelayString = "${reservation.datasource.replica.purge-interval-ms:60000}")
+    public void purgeExpired() {
+        long now = System.nanoTime();
+        int before = windows.size();
+        windows.values().removeIf(deadline -> now - deadline >= 0);
+        int purged = before - windows.size();
+        if (purged > 0) {
+            log.debug("[ReadYourWrites] {} ventanas vencidas eliminadas", purged);
+        }
+    }
+
+    int size() {
+        return windows.size();
+    }
+}
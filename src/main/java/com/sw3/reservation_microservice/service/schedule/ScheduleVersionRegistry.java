@@ -0,0 +1,99 @@
+package com.sw3.reservation_microservice.service.schedule;
+
+import com.sw3.reservation_microservice.service.event.CacheInvalidatedEvent;
+import com.sw3.reservation_microservice.service.event.ReservationChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Versión de la agenda de cada barbero por día, expuesta como ETag en
+ * barbero/reservations/barbero/{barberId}/day: con If-None-Match vigente se responde 304 sin
+ * consultar la tabla reservations.
+ *
+ * Las versiones son contadores atómicos repartidos en franjas (stripes): un (barbero, día) se
+ * asigna a una franja por hash y cada escritura de ReservationService incrementa la franja del
+ * día afectado. Dos agendas que comparten franja solo se invalidan de más, nunca de menos.
+ * El ETag lleva además la época del nodo para que un reinicio no repita versiones ya entregadas.
+ *
+ * Las versiones son locales al nodo; las escrituras de otras instancias llegan como
+ * CacheInvalidatedEvent, que no trae los días, así que invalidan todas las agendas del barbero
+ * con un segundo contador por barbero. La versión publicada es la suma de ambos: los dos solo
+ * crecen, así que la suma nunca repite un valor ya entregado.
+ */
+@Component
+public class ScheduleVersionRegistry {
+
+    private final AtomicLongArray versions;
+    private final AtomicLongArray barberVersions;
+    private final int mask;
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    public ScheduleVersionRegistry(@Value("${reservation.schedule-etag.stripes:4096}") int stripes) {
+        int size = Integer.highestOneBit(Math.max(1, stripes - 1) << 1);
+        this.versions = new AtomicLongArray(size);
+        this.barberVersions = new AtomicLongArray(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * ETag actual de la agenda del barbero en el día. Se lee antes de consultar las reservas:
+     * si una escritura se confirma en medio, la siguiente petición ya no coincide.
+     */
+    public String etag(String barberId, LocalDate date) {
+        long version = versions.get(stripe(barberId, date)) + barberVersions.get(barberStripe(barberId));
+        return "\"" + epoch + "-" + version + "\"";
+    }
+
+    /**
+     * Invalida la agenda del barbero en el día.
+     */
+    public void bump(String barberId, LocalDate date) {
+        versions.incrementAndGet(stripe(barberId, date));
+    }
+
+    /**
+     * Invalida todas las agendas del barbero.
+     */
+    public void bumpBarber(String barberId) {
+        barberVersions.incrementAndGet(barberStripe(barberId));
+    }
+
+    /** Después del commit y antes que el resto de listeners, para acortar la ventana de 304 obsoletos */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservationChanged(ReservationChangedEvent event) {
+        bump(event.getBarberId(), event.getStartTime());
+        if (event.getPreviousStartTime() != null) {
+            bump(event.getBarberId(), event.getPreviousStartTime());
+        }
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCacheInvalidated(CacheInvalidatedEvent event) {
+        event.getBarberIds().forEach(this::bumpBarber);
+    }
+
+    int stripe(String barberId, LocalDate date) {
+        int hash = 31 * barberId.hashCode() + date.hashCode();
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    private int barberStripe(String barberId) {
+        int hash = barberId.hashCode();
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    private void bump(String barberId, LocalDateTime start) {
+        if (barberId != null && start != null) {
+            bump(barberId, start.toLocalDate());
+        }
+    }
+}
@@ -1,7 +1,5 @@
 package com.sw3.reservation_microservice.service.validation;
 
-import com.sw3.reservation_microservice.controller.dto.request.CreateReservationRequestDTO;
-
 public abstract class BaseValidatorHandler implements ReservationValidatorHandler {
     private ReservationValidatorHandler next;
 
@@ -11,14 +9,26 @@ public abstract class BaseValidatorHandler implements ReservationValidatorHandle
     }
 
     @Override
-    public void validate(CreateReservationRequestDTO request) {
-        //Logica de validacion especifica del validador actual
-        validateConcrete(request);
+    public void validate(ReservationValidationContext context) {
+        validateStep(context);
         //Si pasa la validacion, se llama al siguiente validador en la cadena
         if (next != null) {
-            next.validate(request);
+            next.validate(context);
+        }
+    }
+
+    /**
+     * Ejecuta solo este validador, sin seguir la cadena (lo usa ValidationPlan).
+     */
+    public void validateStep(ReservationValidationContext context) {
+        //Logica de validacion especifica del validador actual (se mide el tiempo de cada etapa)
+        long startNanos = System.nanoTime();
+        try {
+            validateConcrete(context);
+        } finally {
+            context.recordStage(getClass().getSimpleName(), System.nanoTime() - startNanos);
         }
     }
 
-    protected abstract void validateConcrete(CreateReservationRequestDTO request);
-}
\ No newline at end of file
+    protected abstract void validateConcrete(ReservationValidationContext context);
+}
@@ -0,0 +1,36 @@
+package com.sw3.reservation_microservice.service.validation;
+
+import com.sw3.reservation_microservice.controller.dto.request.RescheduleReservationRequestDTO;
+import com.sw3.reservation_microservice.domain.model.Reservation;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Contexto de validación para la reprogramación de reservas.
+ * Parte de la reserva ya cargada, de la que se toman barbero y servicio.
+ */
+@Getter
+public class RescheduleValidationContext extends ValidationContext {
+
+    private final RescheduleReservationRequestDTO request;
+    private final Reservation reservation;
+
+    public RescheduleValidationContext(RescheduleReservationRequestDTO request, Reservation reservation) {
+        this.request = request;
+        this.reservation = reservation;
+    }
+
+    @Override
+    public LocalDateTime getStartTime() {
+        return request.getStartTime();
+    }
+
+    public String getBarberId() {
+        return reservation.getBarberId();
+    }
+
+    public Long getReservationId() {
+        return reservation.getId();
+    }
+}
@@ -1,9 +1,12 @@
 package com.sw3.reservation_microservice.service.validation;
 
 import com.sw3.reservation_microservice.controller.dto.request.RescheduleReservationRequestDTO;
+import com.sw3.reservation_microservice.domain.model.Reservation;
 import com.sw3.reservation_microservice.service.validation.handlers.BarberAvailabilityForRescheduleHandler;
 import com.sw3.reservation_microservice.service.validation.handlers.BusinessHoursForRescheduleHandler;
+import com.sw3.reservation_microservice.service.validation.handlers.ServiceDurationForRescheduleHandler;
 import com.sw3.reservation_microservice.service.validation.handlers.TimeConsistencyForRescheduleHandler;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
@@ -14,8 +17,12 @@ import jakarta.annotation.PostConstruct;
  * Solo valida tiempo y disponibilidad (no barbero/servicio porque ya existen).
  */
 @Component
+@Slf4j
 public class RescheduleValidatorChain {
 
+    @Autowired
+    private ServiceDurationForRescheduleHandler serviceDurationHandler;
+
     @Autowired
     private TimeConsistencyForRescheduleHandler timeConsistencyHandler;
 
@@ -29,17 +36,23 @@ public class RescheduleValidatorChain {
 
     @PostConstruct
     public void buildChain() {
-        // Cadena simplificada: tiempo → horario → disponibilidad
+        // Cadena simplificada: duración → tiempo → horario → disponibilidad
+        serviceDurationHandler.setNext(timeConsistencyHandler);
         timeConsistencyHandler.setNext(businessHoursHandler);
         businessHoursHandler.setNext(availabilityHandler);
 
-        chain = timeConsistencyHandler;
+        chain = serviceDurationHandler;
     }
 
     /**
      * Ejecuta las validaciones de reprogramación.
+     *
+     * @return el contexto con el servicio resuelto y la nueva hora de fin calculada
      */
-    public void validate(RescheduleReservationRequestDTO request, String barberId, Long reservationId) {
-        chain.validate(request, barberId, reservationId);
+    public RescheduleValidationContext validate(RescheduleReservationRequestDTO request, Reservation reservation) {
+        RescheduleValidationContext context = new RescheduleValidationContext(request, reservation);
+        chain.validate(context);
+        log.debug("[RescheduleValidatorChain] Tiempos por etapa (µs): {}", context.getStageTimingsMicros());
+        return context;
     }
 }
@@ -1,7 +1,5 @@
 package com.sw3.reservation_microservice.service.validation;
 
-import com.sw3.reservation_microservice.controller.dto.request.RescheduleReservationRequestDTO;
-
 /**
  * Interface base para los validadores de reprogramación.
  */
@@ -13,12 +11,17 @@ public abstract class RescheduleValidatorHandler {
         this.next = next;
     }
 
-    public void validate(RescheduleReservationRequestDTO request, String barberId, Long reservationId) {
-        validateConcrete(request, barberId, reservationId);
+    public void validate(RescheduleValidationContext context) {
+        long startNanos = System.nanoTime();
+        try {
+            validateConcrete(context);
+        } finally {
+            context.recordStage(getClass().getSimpleName(), System.nanoTime() - startNanos);
+        }
         if (next != null) {
-            next.validate(request, barberId, reservationId);
+            next.validate(context);
         }
     }
 
-    protected abstract void validateConcrete(RescheduleReservationRequestDTO request, String barberId, Long reservationId);
+    protected abstract void validateConcrete(RescheduleValidationContext context);
 }
@@ -0,0 +1,69 @@
+package com.sw3.reservation_microservice.service.validation;
+
+import com.sw3.reservation_microservice.controller.dto.request.CreateBatchReservationRequestDTO;
+import com.sw3.reservation_microservice.controller.dto.request.CreateReservationRequestDTO;
+import com.sw3.reservation_microservice.controller.dto.request.CreateSlotHoldRequestDTO;
+import com.sw3.reservation_microservice.domain.model.Barber;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Contexto de validación para la creación de reservas.
+ * Sirve tanto para una reserva individual como para un combo de servicios
+ * consecutivos con el mismo barbero, y para apartar un horario (hold) con las
+ * mismas reglas que la reserva que lo consumirá.
+ */
+@Getter
+public class ReservationValidationContext extends ValidationContext {
+
+    private final String clientId;
+    private final String barberId;
+    private final LocalDateTime startTime;
+    private final List<Long> serviceIds;
+
+    /** Precio enviado por el cliente; null en combos (se toma el precio de cada servicio) */
+    private final Double requestedPrice;
+
+    private final boolean batch;
+
+    /** Solo la reserva individual trae precio; combos y holds no */
+    private final boolean priceRequired;
+
+    @Setter
+    private volatile Barber barber;
+
+    public ReservationValidationContext(CreateReservationRequestDTO request) {
+        this.clientId = request.getClientId();
+        this.barberId = request.getBarberId();
+        this.startTime = request.getStartTime();
+        this.serviceIds = request.getServiceId() == null ? List.of() : List.of(request.getServiceId());
+        this.requestedPrice = request.getPrice();
+        this.batch = false;
+        this.priceRequired = true;
+    }
+
+    public ReservationValidationContext(CreateBatchReservationRequestDTO request) {
+        this.clientId = request.getClientId();
+        this.barberId = request.getBarberId();
+        this.startTime = request.getStartTime();
+        this.serviceIds = request.getServiceIds() == null ? List.of() : Collections.unmodifiableList(new ArrayList<>(request.getServiceIds()));
+        this.requestedPrice = null;
+        this.batch = true;
+        this.priceRequired = false;
+    }
+
+    public ReservationValidationContext(CreateSlotHoldRequestDTO request) {
+        this.clientId = request.getClientId();
+        this.barberId = request.getBarberId();
+        this.startTime = request.getStartTime();
+        this.serviceIds = request.getServiceId() == null ? List.of() : List.of(request.getServiceId());
+        this.requestedPrice = null;
+        this.batch = false;
+        this.priceRequired = false;
+    }
+}
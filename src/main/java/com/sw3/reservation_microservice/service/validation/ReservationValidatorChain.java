@@ -1,16 +1,24 @@
 package com.sw3.reservation_microservice.service.validation;
 
+import com.sw3.reservation_microservice.controller.dto.request.CreateBatchReservationRequestDTO;
 import com.sw3.reservation_microservice.controller.dto.request.CreateReservationRequestDTO;
+import com.sw3.reservation_microservice.controller.dto.request.CreateSlotHoldRequestDTO;
 import com.sw3.reservation_microservice.service.validation.handlers.BarberAvailabilityHandler;
 import com.sw3.reservation_microservice.service.validation.handlers.BarberServiceValidatorHandler;
 import com.sw3.reservation_microservice.service.validation.handlers.RequiredFieldsHandler;
 import com.sw3.reservation_microservice.service.validation.handlers.ServiceValidatorHandler;
 import com.sw3.reservation_microservice.service.validation.handlers.TimeConsistencyHandler;
 import com.sw3.reservation_microservice.service.validation.handlers.WorkShiftValidatorHandler;
+import com.sw3.reservation_microservice.config.ValidationExecutorConfig;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import jakarta.annotation.PostConstruct;
+import java.util.concurrent.ExecutorService;
 
 /**
  * Construye y ejecuta la cadena de validación de reservas.
@@ -22,8 +30,24 @@ import jakarta.annotation.PostConstruct;
  * 4. Barbero existe, está activo y ofrece el servicio
  * 5. Horarios disponibles del barbero (WorkShift)
  * 6. Disponibilidad del barbero (sin solapamiento de reservas)
+ *
+ * Los handlers comparten un ReservationValidationContext: el servicio se consulta una sola vez
+ * y la hora de fin se calcula una sola vez, y ambos se devuelven al servicio.
+ *
+ * La cadena tiene dos etapas:
+ * - resolve (1 a 4): datos de referencia. Se llama antes de tomar el bloqueo del barbero y de
+ *   abrir la transacción de la reserva. Con reservation.validation.parallel.enabled=true
+ *   (por defecto) se ejecuta como un ValidationPlan y 3 y 4 consultan en paralelo.
+ * - checkAvailability (5 y 6): turnos y solapamientos. Va dentro de la transacción, en el hilo
+ *   que llama, porque debe leer lo que ve la transacción que luego inserta.
+ * Si varios fallan, se reporta el primero en el orden de arriba, igual que la cadena secuencial.
+ *
+ * Los validadores en paralelo toman su propia conexión del pool. Si quien llama ya tiene una
+ * transacción abierta (y por tanto una conexión), la etapa 1 se ejecuta en su hilo: esperar a
+ * otra conexión mientras se retiene la propia puede agotar el pool.
  */
 @Component
+@Slf4j
 public class ReservationValidatorChain {
 
     @Autowired
@@ -44,7 +68,18 @@ public class ReservationValidatorChain {
     @Autowired
     private BarberAvailabilityHandler barberAvailabilityHandler;
 
-    private ReservationValidatorHandler chain;
+    @Autowired
+    @Qualifier(ValidationExecutorConfig.VALIDATION_EXECUTOR)
+    private ExecutorService validationExecutor;
+
+    @Value("${reservation.validation.parallel.enabled:true}")
+    private boolean parallel;
+
+    private ReservationValidatorHandler referenceChain;
+
+    private ReservationValidatorHandler availabilityChain;
+
+    private ValidationPlan referencePlan;
 
     @PostConstruct
     public void buildChain() {
@@ -52,17 +87,79 @@ public class ReservationValidatorChain {
         requiredFieldsHandler.setNext(timeConsistencyHandler);
         timeConsistencyHandler.setNext(serviceValidatorHandler);
         serviceValidatorHandler.setNext(barberServiceValidatorHandler);
-        barberServiceValidatorHandler.setNext(workShiftValidatorHandler);
         workShiftValidatorHandler.setNext(barberAvailabilityHandler);
 
-        chain = requiredFieldsHandler;
+        referenceChain = requiredFieldsHandler;
+        availabilityChain = workShiftValidatorHandler;
+
+        // Misma etapa 1, con las dependencias reales entre validadores
+        referencePlan = ValidationPlan.builder()
+            .inline(requiredFieldsHandler)
+            .inline(timeConsistencyHandler, requiredFieldsHandler)
+            .async(serviceValidatorHandler, timeConsistencyHandler)
+            .async(barberServiceValidatorHandler, timeConsistencyHandler)
+            .build();
     }
 
     /**
-     * Ejecuta todas las validaciones en la cadena.
+     * Ejecuta todas las validaciones en la cadena, en el hilo que llama.
      * Si alguna validación falla, lanza una excepción.
+     *
+     * @return el contexto con las entidades resueltas y la hora de fin calculada
+     */
+    public ReservationValidationContext validate(CreateReservationRequestDTO request) {
+        return validate(new ReservationValidationContext(request));
+    }
+
+    /**
+     * Valida un combo de servicios consecutivos en una sola pasada: el intervalo combinado
+     * se verifica una vez contra los turnos y contra las reservas existentes.
+     */
+    public ReservationValidationContext validate(CreateBatchReservationRequestDTO request) {
+        return validate(new ReservationValidationContext(request));
+    }
+
+    /**
+     * Etapa 1: campos, tiempo, servicio y barbero. Llamar antes de abrir la transacción.
+     */
+    public ReservationValidationContext resolve(CreateReservationRequestDTO request) {
+        return resolve(new ReservationValidationContext(request));
+    }
+
+    /**
+     * Etapa 1 para un combo de servicios consecutivos.
+     */
+    public ReservationValidationContext resolve(CreateBatchReservationRequestDTO request) {
+        return resolve(new ReservationValidationContext(request));
+    }
+
+    /**
+     * Etapa 1 para apartar un horario: las mismas reglas que la reserva, sin precio.
      */
-    public void validate(CreateReservationRequestDTO request) {
-        chain.validate(request);
+    public ReservationValidationContext resolve(CreateSlotHoldRequestDTO request) {
+        return resolve(new ReservationValidationContext(request));
+    }
+
+    /**
+     * Etapa 2: turnos del barbero y solapamientos, sobre un contexto ya resuelto.
+     */
+    public void checkAvailability(ReservationValidationContext context) {
+        availabilityChain.validate(context);
+        log.debug("[ReservationValidatorChain] Tiempos por etapa (µs): {}", context.getStageTimingsMicros());
+    }
+
+    private ReservationValidationContext validate(ReservationValidationContext context) {
+        resolve(context);
+        checkAvailability(context);
+        return context;
+    }
+
+    private ReservationValidationContext resolve(ReservationValidationContext context) {
+        if (parallel && !TransactionSynchronizationManager.isActualTransactionActive()) {
+            referencePlan.run(context, validationExecutor);
+        } else {
+            referenceChain.validate(context);
+        }
+        return context;
     }
 }
@@ -1,10 +1,9 @@
 package com.sw3.reservation_microservice.service.validation;
-import com.sw3.reservation_microservice.controller.dto.request.*;;;;
 
 public interface ReservationValidatorHandler {
     //Metodo para establecer el siguiente validador en la cadena
     void setNext(ReservationValidatorHandler next);
 
-    //Metodo que ejecuta la logica de validacion
-    void validate(CreateReservationRequestDTO request);
+    //Metodo que ejecuta la logica de validacion sobre el contexto compartido
+    void validate(ReservationValidationContext context);
 }
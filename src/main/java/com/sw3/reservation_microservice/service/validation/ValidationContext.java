@@ -0,0 +1,106 @@
+package com.sw3.reservation_microservice.service.validation;
+
+import com.sw3.reservation_microservice.config.controladorExcepciones.excepcionesPropias.ReservationValidationException;
+import com.sw3.reservation_microservice.domain.model.ServiceEntity;
+import com.sw3.reservation_microservice.utils.ReservationTimeCalculator;
+import lombok.Getter;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Estado compartido que recorre una cadena de validación.
+ * Los handlers guardan aquí lo que resuelven (servicio, hora de fin calculada, ...)
+ * para que los siguientes handlers y el servicio lo reutilicen sin volver a consultarlo.
+ * También registra cuánto tardó cada etapa.
+ */
+public abstract class ValidationContext {
+
+    /** Servicios resueltos, en el orden en que se atienden */
+    @Getter
+    private volatile List<ServiceEntity> services = List.of();
+
+    /** Tramo de agenda de cada servicio, consecutivos a partir de la hora de inicio */
+    @Getter
+    private volatile List<ServiceSegment> segments = List.of();
+
+    @Getter
+    private volatile LocalDateTime endTime;
+
+    private final Map<String, Long> stageNanos = new LinkedHashMap<>();
+
+    /**
+     * Hora de inicio solicitada (la que se usa para calcular la hora de fin).
+     */
+    public abstract LocalDateTime getStartTime();
+
+    /**
+     * Primer (o único) servicio resuelto.
+     */
+    public ServiceEntity getService() {
+        return services.isEmpty() ? null : services.get(0);
+    }
+
+    /**
+     * Registra el servicio resuelto y calcula una sola vez la hora de fin
+     * con la regla de bloques de 10 minutos.
+     */
+    public void resolveService(ServiceEntity service) {
+        resolveServices(List.of(service));
+    }
+
+    /**
+     * Registra varios servicios atendidos uno tras otro: cada uno empieza donde termina
+     * el anterior y ocupa sus bloques de 10 minutos. La hora de fin es la del último.
+     */
+    public void resolveServices(List<ServiceEntity> orderedServices) {
+        List<ServiceSegment> laidOut = new ArrayList<>(orderedServices.size());
+        LocalDateTime cursor = getStartTime();
+        for (ServiceEntity service : orderedServices) {
+            LocalDateTime segmentEnd = ReservationTimeCalculator.calculateEndTime(cursor, service.getDuration());
+            laidOut.add(new ServiceSegment(service, cursor, segmentEnd));
+            cursor = segmentEnd;
+        }
+        this.services = List.copyOf(orderedServices);
+        this.segments = Collections.unmodifiableList(laidOut);
+        this.endTime = cursor;
+    }
+
+    /**
+     * Devuelve la hora de fin calculada; falla si ningún handler previo resolvió el servicio.
+     */
+    public LocalDateTime requireEndTime() {
+        if (endTime == null) {
+            throw new ReservationValidationException("Servicio no encontrado.");
+        }
+        return endTime;
+    }
+
+    public synchronized void recordStage(String stage, long elapsedNanos) {
+        stageNanos.put(stage, elapsedNanos);
+    }
+
+    /**
+     * Tiempos por etapa en microsegundos, en el orden en que se ejecutaron.
+     */
+    public synchronized Map<String, Long> getStageTimingsMicros() {
+        Map<String, Long> micros = new LinkedHashMap<>();
+        stageNanos.forEach((stage, nanos) -> micros.put(stage, nanos / 1_000));
+        return Collections.unmodifiableMap(micros);
+    }
+
+    /**
+     * Servicio con su tramo [startTime, endTime) dentro de la agenda del barbero.
+     */
+    @Value
+    public static class ServiceSegment {
+        ServiceEntity service;
+        LocalDateTime startTime;
+        LocalDateTime endTime;
+    }
+}
@@ -0,0 +1,139 @@
+package com.sw3.reservation_microservice.service.validation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Plan de ejecución de una cadena de validación con dependencias declaradas.
+ *
+ * Cada paso se ejecuta en cuanto terminan bien los pasos de los que depende, así que los
+ * pasos independientes (consultas a repositorios distintos) corren en paralelo.
+ * Los errores se resuelven en el orden en que se declararon los pasos: gana el primer paso
+ * que falla en ese orden, igual que en la cadena secuencial. Los pasos posteriores a un fallo
+ * no se esperan y sus dependientes ya no se lanzan.
+ */
+public final class ValidationPlan {
+
+    private final List<Step> steps;
+
+    private ValidationPlan(List<Step> steps) {
+        this.steps = Collections.unmodifiableList(steps);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Ejecuta el plan sobre el contexto.
+     *
+     * @throws RuntimeException la excepción del primer paso (en orden de declaración) que falló
+     */
+    public void run(ReservationValidationContext context, Executor executor) {
+        List<CompletableFuture<Void>> futures = new ArrayList<>(steps.size());
+        for (Step step : steps) {
+            CompletableFuture<?>[] dependencies = step.dependencies.stream()
+                .map(futures::get)
+                .toArray(CompletableFuture[]::new);
+            CompletableFuture<Void> ready = dependencies.length == 0
+                ? CompletableFuture.completedFuture(null)
+                : CompletableFuture.allOf(dependencies);
+            Runnable task = () -> step.handler.validateStep(context);
+
+            futures.add(step.async ? ready.thenRunAsync(task, executor) : runOnCaller(ready, task));
+        }
+
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                futures.get(i).join();
+            } catch (CompletionException | CancellationException e) {
+                futures.subList(i + 1, futures.size()).forEach(f -> f.cancel(false));
+                throw unwrap(e);
+            }
+        }
+    }
+
+    /**
+     * Espera las dependencias y ejecuta el paso en este hilo. Con thenRun el paso correría en el
+     * hilo del executor que terminó la última dependencia, fuera de la transacción de quien llama.
+     */
+    private static CompletableFuture<Void> runOnCaller(CompletableFuture<Void> ready, Runnable task) {
+        try {
+            ready.join();
+            task.run();
+            return CompletableFuture.completedFuture(null);
+        } catch (RuntimeException e) {
+            // El error se reporta después, en orden de declaración, como el de los pasos async
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    public int size() {
+        return steps.size();
+    }
+
+    private static RuntimeException unwrap(RuntimeException e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        if (cause instanceof RuntimeException runtime) {
+            return runtime;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return new IllegalStateException(cause);
+    }
+
+    private record Step(BaseValidatorHandler handler, List<Integer> dependencies, boolean async) {
+    }
+
+    public static final class Builder {
+
+        private final List<Step> steps = new ArrayList<>();
+        private final Map<BaseValidatorHandler, Integer> positions = new IdentityHashMap<>();
+
+        /**
+         * Paso barato (sin E/S): se ejecuta en el hilo que llama, sin saltar al executor,
+         * después de que terminen sus dependencias.
+         */
+        public Builder inline(BaseValidatorHandler handler, BaseValidatorHandler... dependsOn) {
+            return add(handler, dependsOn, false);
+        }
+
+        /**
+         * Paso con consultas: se ejecuta en el executor en cuanto terminan sus dependencias.
+         */
+        public Builder async(BaseValidatorHandler handler, BaseValidatorHandler... dependsOn) {
+            return add(handler, dependsOn, true);
+        }
+
+        public ValidationPlan build() {
+            return new ValidationPlan(new ArrayList<>(steps));
+        }
+
+        private Builder add(BaseValidatorHandler handler, BaseValidatorHandler[] dependsOn, boolean async) {
+            if (positions.containsKey(handler)) {
+                throw new IllegalArgumentException(handler.getClass().getSimpleName() + " ya está en el plan");
+            }
+            List<Integer> dependencies = new ArrayList<>(dependsOn.length);
+            for (BaseValidatorHandler dependency : dependsOn) {
+                Integer position = positions.get(dependency);
+                if (position == null) {
+                    // Las dependencias deben declararse antes: así el orden de error sigue siendo el de la cadena
+                    throw new IllegalArgumentException(dependency.getClass().getSimpleName()
+                        + " debe declararse antes que " + handler.getClass().getSimpleName());
+                }
+                dependencies.add(position);
+            }
+            positions.put(handler, steps.size());
+            steps.add(new Step(handler, dependencies, async));
+            return this;
+        }
+    }
+}
@@ -1,40 +1,42 @@
 package com.sw3.reservation_microservice.service.validation.handlers;
 
-import com.sw3.reservation_microservice.access.ReservationRepository;
 import com.sw3.reservation_microservice.config.controladorExcepciones.excepcionesPropias.ReservationValidationException;
-import com.sw3.reservation_microservice.controller.dto.request.RescheduleReservationRequestDTO;
-import com.sw3.reservation_microservice.domain.model.Reservation;
+import com.sw3.reservation_microservice.service.availability.ReservationOverlapChecker;
+import com.sw3.reservation_microservice.service.availability.SlotHoldRegistry;
+import com.sw3.reservation_microservice.service.validation.RescheduleValidationContext;
 import com.sw3.reservation_microservice.service.validation.RescheduleValidatorHandler;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
-import java.util.List;
-import java.util.stream.Collectors;
-
 /**
- * Valida que el barbero esté disponible en el nuevo horario (excluyendo la reserva actual).
+ * Valida que el barbero esté disponible en el nuevo horario (excluyendo la reserva actual)
+ * y que ningún otro cliente lo tenga apartado.
  */
 @Component
 public class BarberAvailabilityForRescheduleHandler extends RescheduleValidatorHandler {
 
     @Autowired
-    private ReservationRepository reservationRepository;
+    private ReservationOverlapChecker overlapChecker;
+
+    @Autowired
+    private SlotHoldRegistry slotHoldRegistry;
 
     @Override
-    protected void validateConcrete(RescheduleReservationRequestDTO request, String barberId, Long reservationId) {
-        // Buscar reservas que se solapen
-        List<Reservation> overlappingReservations = reservationRepository.findOverlappingReservations(
-            barberId,
-            request.getStartTime(),
-            request.getEndTime()
+    protected void validateConcrete(RescheduleValidationContext context) {
+        // Buscar reservas que se solapen, excluyendo la reserva actual (la que estamos reprogramando)
+        boolean overlaps = overlapChecker.hasOverlap(
+            context.getBarberId(),
+            context.getStartTime(),
+            context.requireEndTime(),
+            context.getReservationId()
+        ) || slotHoldRegistry.hasConflictingHold(
+            context.getBarberId(),
+            context.getStartTime(),
+            context.requireEndTime(),
+            context.getReservation().getClientId()
         );
 
-        // Excluir la reserva actual (la que estamos reprogramando)
-        List<Reservation> conflictingReservations = overlappingReservations.stream()
-            .filter(r -> !r.getId().equals(reservationId))
-            .collect(Collectors.toList());
-
-        if (!conflictingReservations.isEmpty()) {
+        if (overlaps) {
             throw new ReservationValidationException(
                 "El barbero no está disponible en el nuevo horario solicitado. Ya tiene otra reserva."
             );
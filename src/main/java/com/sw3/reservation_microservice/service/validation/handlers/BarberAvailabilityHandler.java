@@ -1,23 +1,28 @@
 package com.sw3.reservation_microservice.service.validation.handlers;
 
-import com.sw3.reservation_microservice.access.ReservationRepository;
-import com.sw3.reservation_microservice.access.ServiceRepository;
 import com.sw3.reservation_microservice.config.controladorExcepciones.excepcionesPropias.ReservationValidationException;
-import com.sw3.reservation_microservice.controller.dto.request.CreateReservationRequestDTO;
-import com.sw3.reservation_microservice.domain.model.Reservation;
-import com.sw3.reservation_microservice.domain.model.ServiceEntity;
+import com.sw3.reservation_microservice.service.availability.AlternativeSlotSuggester;
+import com.sw3.reservation_microservice.service.availability.ReservationOverlapChecker;
+import com.sw3.reservation_microservice.service.availability.SlotHoldRegistry;
 import com.sw3.reservation_microservice.service.validation.BaseValidatorHandler;
-import com.sw3.reservation_microservice.utils.ReservationTimeCalculator;
+import com.sw3.reservation_microservice.service.validation.ReservationValidationContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
-import java.util.List;
 
 /**
- * Valida que el barbero no tenga reservas que se solapen con el horario solicitado.
+ * Valida que el barbero no tenga reservas que se solapen con el horario solicitado
+ * (ReservationOverlapChecker: en memoria con un nodo, en la BD con el backend de bloqueo postgres)
+ * ni horarios apartados por otros clientes.
+ *
+ * Al rechazar, la excepción incluye los horarios libres más cercanos del mismo día.
+ *
+ * Los holds del propio cliente no cuentan como conflicto, así que su reserva pasa sobre el
+ * horario que apartó. Las reservas sí se verifican siempre: los holds viven en la memoria del
+ * nodo que los creó y otra instancia pudo aceptar una reserva en ese horario.
  */
 @Component
 public class BarberAvailabilityHandler extends BaseValidatorHandler {
@@ -25,43 +30,36 @@ public class BarberAvailabilityHandler extends BaseValidatorHandler {
     private static final Logger logger = LoggerFactory.getLogger(BarberAvailabilityHandler.class);
 
     @Autowired
-    private ReservationRepository reservationRepository;
+    private ReservationOverlapChecker overlapChecker;
 
     @Autowired
-    private ServiceRepository serviceRepository;
+    private SlotHoldRegistry slotHoldRegistry;
+
+    @Autowired
+    private AlternativeSlotSuggester alternativeSlotSuggester;
 
     @Override
-    protected void validateConcrete(CreateReservationRequestDTO request) {
-        String barberId = request.getBarberId();
+    protected void validateConcrete(ReservationValidationContext context) {
+        String barberId = context.getBarberId();
         
         if (barberId == null || barberId.trim().isEmpty()) {
             throw new ReservationValidationException("El ID del barbero es obligatorio.");
         }
 
-        // Obtener el servicio para calcular el endTime
-        ServiceEntity service = serviceRepository.findById(request.getServiceId())
-            .orElseThrow(() -> new ReservationValidationException("Servicio no encontrado."));
-
-        // Calcular el endTime basado en la duración del servicio
-        LocalDateTime endTime = ReservationTimeCalculator.calculateEndTime(
-            request.getStartTime(),
-            service.getDuration()
-        );
+        // endTime ya calculado a partir de la duración del servicio (ver ServiceValidatorHandler)
+        LocalDateTime endTime = context.requireEndTime();
 
-        // Buscar reservas que se solapen
-        List<Reservation> overlappingReservations = reservationRepository.findOverlappingReservations(
-            barberId,
-            request.getStartTime(),
-            endTime
-        );
+        // Buscar reservas (o horarios apartados por otros clientes) que se solapen
+        boolean overlaps = overlapChecker.hasOverlap(barberId, context.getStartTime(), endTime)
+            || slotHoldRegistry.hasConflictingHold(barberId, context.getStartTime(), endTime, context.getClientId());
 
-        logger.info("Barbero: {}, Reservas solapadas encontradas: {}", barberId, overlappingReservations.size());
+        logger.info("Barbero: {}, Solapamiento encontrado: {}", barberId, overlaps);
         
-        if (!overlappingReservations.isEmpty()) {
-            logger.warn("Reserva rechazada - Barbero {} ya tiene {} reserva(s) en ese horario", 
-                        barberId, overlappingReservations.size());
+        if (overlaps) {
+            logger.warn("Reserva rechazada - Barbero {} ya tiene reserva(s) en ese horario", barberId);
             throw new ReservationValidationException(
-                "El barbero no está disponible en el horario solicitado. Ya tiene una reserva."
+                "El barbero no está disponible en el horario solicitado. Ya tiene una reserva.",
+                alternativeSlotSuggester.suggest(barberId, context.getStartTime(), endTime)
             );
         }
     }
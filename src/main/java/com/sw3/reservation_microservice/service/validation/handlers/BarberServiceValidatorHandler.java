@@ -3,17 +3,23 @@ package com.sw3.reservation_microservice.service.validation.handlers;
 import com.sw3.reservation_microservice.access.BarberRepository;
 import com.sw3.reservation_microservice.access.BarberServiceRepository;
 import com.sw3.reservation_microservice.config.controladorExcepciones.excepcionesPropias.ReservationValidationException;
-import com.sw3.reservation_microservice.controller.dto.request.CreateReservationRequestDTO;
 import com.sw3.reservation_microservice.domain.model.Barber;
+import com.sw3.reservation_microservice.domain.model.BarberService;
 import com.sw3.reservation_microservice.service.validation.BaseValidatorHandler;
+import com.sw3.reservation_microservice.service.validation.ReservationValidationContext;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
 /**
  * Valida que:
  * 1. El barbero exista
  * 2. El barbero esté activo (availabilityStatus = true)
  * 3. El barbero ofrezca el servicio solicitado (mediante BarberService)
+ *    En combos se verifica cada servicio con una sola consulta.
  */
 @Component
 @RequiredArgsConstructor
@@ -23,9 +29,9 @@ public class BarberServiceValidatorHandler extends BaseValidatorHandler {
     private final BarberServiceRepository barberServiceRepository;
 
     @Override
-    protected void validateConcrete(CreateReservationRequestDTO request) {
-        String barberId = request.getBarberId();
-        Long serviceId = request.getServiceId();
+    protected void validateConcrete(ReservationValidationContext context) {
+        String barberId = context.getBarberId();
+        List<Long> serviceIds = context.getServiceIds();
 
         // 1. Verificar que el barbero existe
         Barber barber = barberRepository.findById(barberId)
@@ -40,14 +46,31 @@ public class BarberServiceValidatorHandler extends BaseValidatorHandler {
             );
         }
 
-        // 3. Verificar que el barbero ofrece el servicio solicitado
-        boolean offersService = barberServiceRepository
-            .existsByBarberIdAndServiceIdAndActiveTrue(barberId, serviceId);
-
-        if (!offersService) {
-            throw new ReservationValidationException(
-                "El barbero con ID " + barberId + " no ofrece el servicio con ID " + serviceId + "."
-            );
+        // 3. Verificar que el barbero ofrece el/los servicio(s) solicitado(s)
+        if (serviceIds.size() == 1) {
+            Long serviceId = serviceIds.get(0);
+            boolean offersService = barberServiceRepository
+                .existsByBarberIdAndServiceIdAndActiveTrue(barberId, serviceId);
+            if (!offersService) {
+                throw notOffered(barberId, serviceId);
+            }
+        } else {
+            Set<Long> offered = barberServiceRepository.findByBarberIdAndActiveTrue(barberId).stream()
+                .map(BarberService::getServiceId)
+                .collect(Collectors.toSet());
+            for (Long serviceId : serviceIds) {
+                if (!offered.contains(serviceId)) {
+                    throw notOffered(barberId, serviceId);
+                }
+            }
         }
+
+        context.setBarber(barber);
+    }
+
+    private ReservationValidationException notOffered(String barberId, Long serviceId) {
+        return new ReservationValidationException(
+            "El barbero con ID " + barberId + " no ofrece el servicio con ID " + serviceId + "."
+        );
     }
 }
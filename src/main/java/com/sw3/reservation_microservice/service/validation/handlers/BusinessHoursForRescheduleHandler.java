@@ -1,17 +1,16 @@
 package com.sw3.reservation_microservice.service.validation.handlers;
 
-import com.sw3.reservation_microservice.access.WorkShiftRepository;
 import com.sw3.reservation_microservice.config.controladorExcepciones.excepcionesPropias.ReservationValidationException;
-import com.sw3.reservation_microservice.controller.dto.request.RescheduleReservationRequestDTO;
-import com.sw3.reservation_microservice.domain.model.WorkShift;
+import com.sw3.reservation_microservice.service.availability.WeeklyShiftTemplate;
+import com.sw3.reservation_microservice.service.availability.WeeklyShiftTemplateCache;
+import com.sw3.reservation_microservice.service.validation.RescheduleValidationContext;
+import com.sw3.reservation_microservice.utils.DayOfWeekMapper;
 import com.sw3.reservation_microservice.service.validation.RescheduleValidatorHandler;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.time.DayOfWeek;
 import java.time.LocalDateTime;
-import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Valida que la nueva fecha de reprogramación esté dentro de los horarios disponibles del barbero (WorkShift).
@@ -20,72 +19,31 @@ import java.util.stream.Collectors;
 public class BusinessHoursForRescheduleHandler extends RescheduleValidatorHandler {
 
     @Autowired
-    private WorkShiftRepository workShiftRepository;
+    private WeeklyShiftTemplateCache shiftTemplates;
 
     @Override
-    protected void validateConcrete(RescheduleReservationRequestDTO request, String barberId, Long reservationId) {
-        LocalDateTime start = request.getStartTime();
-        LocalDateTime end = request.getEndTime();
+    protected void validateConcrete(RescheduleValidationContext context) {
+        LocalDateTime start = context.getStartTime();
+        LocalDateTime end = context.requireEndTime();
+        String barberId = context.getBarberId();
+
+        // Plantilla semanal compilada del barbero: sin consulta a la BD
+        WeeklyShiftTemplate template = shiftTemplates.forBarber(barberId);
+        if (template.fits(start, end)) {
+            return;
+        }
 
-        // Determinar el día de la semana
         DayOfWeek dow = start.getDayOfWeek();
-        String dayKey = mapToDatabaseDayKey(dow);
-
-        // Buscar turnos del barbero para ese día
-        List<WorkShift> shifts = workShiftRepository.findShiftsForDay(barberId, dayKey);
-        
-        if (shifts.isEmpty()) {
+        if (!template.hasShifts(dow)) {
             throw new ReservationValidationException(
-                "El barbero no tiene turnos configurados para " + getDayNameSpanish(dow) + "."
+                "El barbero no tiene turnos configurados para " + DayOfWeekMapper.toSpanishName(dow) + "."
             );
         }
 
-        // Verificar que la nueva fecha caiga dentro de algún turno
-        boolean fits = shifts.stream().anyMatch(ws ->
-                !start.toLocalTime().isBefore(ws.getStartTime()) &&
-                !end.toLocalTime().isAfter(ws.getEndTime())
+        throw new ReservationValidationException(
+            String.format("La nueva fecha (%s - %s) debe estar dentro del horario disponible del barbero. " +
+                         "Turnos disponibles para %s: %s",
+                start.toLocalTime(), end.toLocalTime(), DayOfWeekMapper.toSpanishName(dow), template.describe(dow))
         );
-
-        if (!fits) {
-            String availableShifts = shifts.stream()
-                .map(ws -> ws.getStartTime() + " - " + ws.getEndTime())
-                .collect(Collectors.joining(", "));
-            
-            throw new ReservationValidationException(
-                String.format("La nueva fecha (%s - %s) debe estar dentro del horario disponible del barbero. " +
-                             "Turnos disponibles para %s: %s",
-                    start.toLocalTime(), end.toLocalTime(), getDayNameSpanish(dow), availableShifts)
-            );
-        }
-    }
-
-    /**
-     * Mapea el DayOfWeek al formato almacenado en la base de datos (Enum en español sin tildes).
-     */
-    private String mapToDatabaseDayKey(DayOfWeek dow) {
-        return switch (dow) {
-            case MONDAY -> "LUNES";
-            case TUESDAY -> "MARTES";
-            case WEDNESDAY -> "MIERCOLES";
-            case THURSDAY -> "JUEVES";
-            case FRIDAY -> "VIERNES";
-            case SATURDAY -> "SABADO";
-            case SUNDAY -> "DOMINGO";
-        };
-    }
-
-    /**
-     * Convierte el DayOfWeek a nombre en español.
-     */
-    private String getDayNameSpanish(DayOfWeek dow) {
-        return switch (dow) {
-            case MONDAY -> "lunes";
-            case TUESDAY -> "martes";
-            case WEDNESDAY -> "miércoles";
-            case THURSDAY -> "jueves";
-            case FRIDAY -> "viernes";
-            case SATURDAY -> "sábado";
-            case SUNDAY -> "domingo";
-        };
     }
 }
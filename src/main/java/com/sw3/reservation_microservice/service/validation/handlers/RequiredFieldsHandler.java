@@ -1,8 +1,8 @@
 package com.sw3.reservation_microservice.service.validation.handlers;
 
 import com.sw3.reservation_microservice.config.controladorExcepciones.excepcionesPropias.ReservationValidationException;
-import com.sw3.reservation_microservice.controller.dto.request.CreateReservationRequestDTO;
 import com.sw3.reservation_microservice.service.validation.BaseValidatorHandler;
+import com.sw3.reservation_microservice.service.validation.ReservationValidationContext;
 import org.springframework.stereotype.Component;
 
 /**
@@ -12,20 +12,22 @@ import org.springframework.stereotype.Component;
 public class RequiredFieldsHandler extends BaseValidatorHandler {
 
     @Override
-    protected void validateConcrete(CreateReservationRequestDTO request) {
-        if (request.getClientId() == null || request.getClientId().trim().isEmpty()) {
+    protected void validateConcrete(ReservationValidationContext context) {
+        if (context.getClientId() == null || context.getClientId().trim().isEmpty()) {
             throw new ReservationValidationException("El ID del cliente es obligatorio.");
         }
 
-        if (request.getBarberId() == null || request.getBarberId().trim().isEmpty()) {
+        if (context.getBarberId() == null || context.getBarberId().trim().isEmpty()) {
             throw new ReservationValidationException("El ID del barbero es obligatorio.");
         }
 
-        if (request.getServiceId() == null) {
+        if (context.getServiceIds().isEmpty() || context.getServiceIds().contains(null)) {
             throw new ReservationValidationException("El ID del servicio es obligatorio.");
         }
 
-        if (request.getPrice() == null || request.getPrice() <= 0) {
+        // En combos el precio sale de cada servicio y un hold no lleva precio;
+        // en reservas individuales lo envía el cliente
+        if (context.isPriceRequired() && (context.getRequestedPrice() == null || context.getRequestedPrice() <= 0)) {
             throw new ReservationValidationException("El precio debe ser mayor a 0.");
         }
     }
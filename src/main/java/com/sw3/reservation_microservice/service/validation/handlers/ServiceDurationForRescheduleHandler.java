@@ -0,0 +1,30 @@
+package com.sw3.reservation_microservice.service.validation.handlers;
+
+import com.sw3.reservation_microservice.access.ServiceRepository;
+import com.sw3.reservation_microservice.config.controladorExcepciones.excepcionesPropias.ReservationValidationException;
+import com.sw3.reservation_microservice.domain.model.ServiceEntity;
+import com.sw3.reservation_microservice.service.validation.RescheduleValidationContext;
+import com.sw3.reservation_microservice.service.validation.RescheduleValidatorHandler;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Resuelve el servicio de la reserva y calcula la nueva hora de fin
+ * (bloques de 10 minutos) para que la usen el resto de validadores.
+ */
+@Component
+@RequiredArgsConstructor
+public class ServiceDurationForRescheduleHandler extends RescheduleValidatorHandler {
+
+    private final ServiceRepository serviceRepository;
+
+    @Override
+    protected void validateConcrete(RescheduleValidationContext context) {
+        Long serviceId = context.getReservation().getServiceId();
+
+        ServiceEntity service = serviceRepository.findById(serviceId)
+            .orElseThrow(() -> new ReservationValidationException("Servicio no encontrado."));
+
+        context.resolveService(service);
+    }
+}
@@ -2,16 +2,26 @@ package com.sw3.reservation_microservice.service.validation.handlers;
 
 import com.sw3.reservation_microservice.access.ServiceRepository;
 import com.sw3.reservation_microservice.config.controladorExcepciones.excepcionesPropias.ReservationValidationException;
-import com.sw3.reservation_microservice.controller.dto.request.CreateReservationRequestDTO;
 import com.sw3.reservation_microservice.domain.model.ServiceEntity;
 import com.sw3.reservation_microservice.service.validation.BaseValidatorHandler;
+import com.sw3.reservation_microservice.service.validation.ReservationValidationContext;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 /**
  * Valida que:
- * 1. El servicio exista
+ * 1. El servicio (o cada servicio del combo) exista
  * 2. El servicio esté activo (availabilityStatus = true)
+ *
+ * Todos los servicios se consultan en una sola lectura.
+ * El servicio resuelto queda en el contexto (junto con la hora de fin calculada)
+ * para el resto de la cadena.
  */
 @Component
 @RequiredArgsConstructor
@@ -20,20 +30,30 @@ public class ServiceValidatorHandler extends BaseValidatorHandler {
     private final ServiceRepository serviceRepository;
 
     @Override
-    protected void validateConcrete(CreateReservationRequestDTO request) {
-        Long serviceId = request.getServiceId();
-
-        // 1. Verificar que el servicio existe
-        ServiceEntity service = serviceRepository.findById(serviceId)
-            .orElseThrow(() -> new ReservationValidationException(
-                "El servicio con ID " + serviceId + " no existe."
-            ));
-
-        // 2. Verificar que el servicio está activo
-        if (!service.getAvailabilityStatus()) {
-            throw new ReservationValidationException(
-                "El servicio con ID " + serviceId + " no está activo actualmente."
-            );
+    protected void validateConcrete(ReservationValidationContext context) {
+        List<Long> serviceIds = context.getServiceIds();
+        Map<Long, ServiceEntity> found = serviceRepository.findAllById(serviceIds).stream()
+            .collect(Collectors.toMap(ServiceEntity::getId, Function.identity()));
+
+        List<ServiceEntity> ordered = new ArrayList<>(serviceIds.size());
+        for (Long serviceId : serviceIds) {
+            // 1. Verificar que el servicio existe
+            ServiceEntity service = found.get(serviceId);
+            if (service == null) {
+                throw new ReservationValidationException(
+                    "El servicio con ID " + serviceId + " no existe."
+                );
+            }
+
+            // 2. Verificar que el servicio está activo
+            if (!service.getAvailabilityStatus()) {
+                throw new ReservationValidationException(
+                    "El servicio con ID " + serviceId + " no está activo actualmente."
+                );
+            }
+            ordered.add(service);
         }
+
+        context.resolveServices(ordered);
     }
 }
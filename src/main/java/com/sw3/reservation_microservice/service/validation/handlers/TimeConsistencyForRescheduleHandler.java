@@ -1,7 +1,7 @@
 package com.sw3.reservation_microservice.service.validation.handlers;
 
 import com.sw3.reservation_microservice.config.controladorExcepciones.excepcionesPropias.ReservationValidationException;
-import com.sw3.reservation_microservice.controller.dto.request.RescheduleReservationRequestDTO;
+import com.sw3.reservation_microservice.service.validation.RescheduleValidationContext;
 import com.sw3.reservation_microservice.service.validation.RescheduleValidatorHandler;
 import org.springframework.stereotype.Component;
 
@@ -14,9 +14,9 @@ import java.time.LocalDateTime;
 public class TimeConsistencyForRescheduleHandler extends RescheduleValidatorHandler {
 
     @Override
-    protected void validateConcrete(RescheduleReservationRequestDTO request, String barberId, Long reservationId) {
-        LocalDateTime startTime = request.getStartTime();
-        LocalDateTime endTime = request.getEndTime();
+    protected void validateConcrete(RescheduleValidationContext context) {
+        LocalDateTime startTime = context.getStartTime();
+        LocalDateTime endTime = context.requireEndTime();
 
         // Validar que endTime sea después de startTime
         if (!endTime.isAfter(startTime)) {
@@ -1,8 +1,8 @@
 package com.sw3.reservation_microservice.service.validation.handlers;
 
 import com.sw3.reservation_microservice.config.controladorExcepciones.excepcionesPropias.ReservationValidationException;
-import com.sw3.reservation_microservice.controller.dto.request.CreateReservationRequestDTO;
 import com.sw3.reservation_microservice.service.validation.BaseValidatorHandler;
+import com.sw3.reservation_microservice.service.validation.ReservationValidationContext;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
@@ -14,8 +14,8 @@ import java.time.LocalDateTime;
 public class TimeConsistencyHandler extends BaseValidatorHandler {
 
     @Override
-    protected void validateConcrete(CreateReservationRequestDTO request) {
-        LocalDateTime start = request.getStartTime();
+    protected void validateConcrete(ReservationValidationContext context) {
+        LocalDateTime start = context.getStartTime();
         LocalDateTime now = LocalDateTime.now();
 
         // Validar que la fecha de inicio no sea nula
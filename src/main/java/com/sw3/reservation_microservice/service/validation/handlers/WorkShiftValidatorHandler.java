@@ -1,109 +1,59 @@
 package com.sw3.reservation_microservice.service.validation.handlers;
 
-import com.sw3.reservation_microservice.access.WorkShiftRepository;
-import com.sw3.reservation_microservice.access.ServiceRepository;
 import com.sw3.reservation_microservice.config.controladorExcepciones.excepcionesPropias.ReservationValidationException;
-import com.sw3.reservation_microservice.controller.dto.request.CreateReservationRequestDTO;
-import com.sw3.reservation_microservice.domain.model.WorkShift;
-import com.sw3.reservation_microservice.domain.model.ServiceEntity;
+import com.sw3.reservation_microservice.service.availability.AlternativeSlotSuggester;
+import com.sw3.reservation_microservice.service.availability.WeeklyShiftTemplate;
+import com.sw3.reservation_microservice.service.availability.WeeklyShiftTemplateCache;
 import com.sw3.reservation_microservice.service.validation.BaseValidatorHandler;
-import com.sw3.reservation_microservice.utils.ReservationTimeCalculator;
+import com.sw3.reservation_microservice.service.validation.ReservationValidationContext;
+import com.sw3.reservation_microservice.utils.DayOfWeekMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.time.DayOfWeek;
 import java.time.LocalDateTime;
-import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Valida que la reserva esté dentro de los horarios disponibles del barbero (WorkShift).
  * Verifica que el barbero tenga turnos configurados para el día y que la reserva
- * caiga completamente dentro de uno de esos turnos.
+ * caiga completamente dentro de uno de esos turnos. Si cae fuera de turno, la excepción
+ * incluye los horarios libres más cercanos del mismo día.
  */
 @Component
 public class WorkShiftValidatorHandler extends BaseValidatorHandler {
 
     @Autowired
-    private WorkShiftRepository workShiftRepository;
+    private WeeklyShiftTemplateCache shiftTemplates;
 
     @Autowired
-    private ServiceRepository serviceRepository;
+    private AlternativeSlotSuggester alternativeSlotSuggester;
 
     @Override
-    protected void validateConcrete(CreateReservationRequestDTO request) {
-        LocalDateTime start = request.getStartTime();
-        String barberId = request.getBarberId();
+    protected void validateConcrete(ReservationValidationContext context) {
+        LocalDateTime start = context.getStartTime();
+        String barberId = context.getBarberId();
 
-        // Obtener el servicio para calcular el endTime
-        ServiceEntity service = serviceRepository.findById(request.getServiceId())
-            .orElseThrow(() -> new ReservationValidationException("Servicio no encontrado."));
+        // endTime ya calculado por ServiceValidatorHandler (en combos, el fin del último servicio)
+        LocalDateTime end = context.requireEndTime();
 
-        // Calcular el endTime basado en la duración del servicio
-        LocalDateTime end = ReservationTimeCalculator.calculateEndTime(
-            start,
-            service.getDuration()
-        );
+        // Plantilla semanal compilada del barbero: sin consulta a la BD
+        WeeklyShiftTemplate template = shiftTemplates.forBarber(barberId);
+        if (template.fits(start, end)) {
+            return;
+        }
 
-        // Determinar el día de la semana usando nombre de enum estándar MONDAY..SUNDAY
         DayOfWeek dow = start.getDayOfWeek();
-        String dayKey = mapToDatabaseDayKey(dow);
-
-        // Buscar turnos del barbero para ese día
-        List<WorkShift> shifts = workShiftRepository.findShiftsForDay(barberId, dayKey);
-        
-        if (shifts.isEmpty()) {
+        if (!template.hasShifts(dow)) {
             throw new ReservationValidationException(
-                "El barbero no tiene turnos configurados para " + getDayNameSpanish(dow) + "."
+                "El barbero no tiene turnos configurados para " + DayOfWeekMapper.toSpanishName(dow) + "."
             );
         }
 
-        // Verificar que la reserva caiga dentro de algún turno
-        boolean fits = shifts.stream().anyMatch(ws ->
-                !start.toLocalTime().isBefore(ws.getStartTime()) &&
-                !end.toLocalTime().isAfter(ws.getEndTime())
+        throw new ReservationValidationException(
+            String.format("La reserva (%s - %s) debe estar dentro del horario disponible del barbero. " +
+                         "Turnos disponibles para %s: %s",
+                start.toLocalTime(), end.toLocalTime(), DayOfWeekMapper.toSpanishName(dow), template.describe(dow)),
+            alternativeSlotSuggester.suggest(barberId, start, end)
         );
-
-        if (!fits) {
-            String availableShifts = shifts.stream()
-                .map(ws -> ws.getStartTime() + " - " + ws.getEndTime())
-                .collect(Collectors.joining(", "));
-            
-            throw new ReservationValidationException(
-                String.format("La reserva (%s - %s) debe estar dentro del horario disponible del barbero. " +
-                             "Turnos disponibles para %s: %s",
-                    start.toLocalTime(), end.toLocalTime(), getDayNameSpanish(dow), availableShifts)
-            );
-        }
-    }
-
-    /**
-     * Mapea el DayOfWeek al formato almacenado en la base de datos (Enum en español sin tildes).
-     */
-    private String mapToDatabaseDayKey(DayOfWeek dow) {
-        return switch (dow) {
-            case MONDAY -> "LUNES";
-            case TUESDAY -> "MARTES";
-            case WEDNESDAY -> "MIERCOLES";
-            case THURSDAY -> "JUEVES";
-            case FRIDAY -> "VIERNES";
-            case SATURDAY -> "SABADO";
-            case SUNDAY -> "DOMINGO";
-        };
-    }
-
-    /**
-     * Convierte el DayOfWeek a nombre en español.
-     */
-    private String getDayNameSpanish(DayOfWeek dow) {
-        return switch (dow) {
-            case MONDAY -> "lunes";
-            case TUESDAY -> "martes";
-            case WEDNESDAY -> "miércoles";
-            case THURSDAY -> "jueves";
-            case FRIDAY -> "viernes";
-            case SATURDAY -> "sábado";
-            case SUNDAY -> "domingo";
-        };
     }
 }
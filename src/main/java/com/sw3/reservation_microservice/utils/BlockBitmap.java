@@ -0,0 +1,112 @@
+package com.sw3.reservation_microservice.utils;
+
+import java.time.LocalTime;
+
+/**
+ * Mapa de bits de un día sobre la rejilla de bloques de 10 minutos de ReservationTimeCalculator:
+ * 144 bloques caben en un long[3]. El bloque i cubre [i*10, (i+1)*10) minutos desde las 00:00.
+ *
+ * Los rangos se pueden redondear hacia afuera (ocupación: todo bloque tocado cuenta) o hacia
+ * adentro (cobertura de turno: solo los bloques completos cuentan). Así una respuesta negativa
+ * de intersects() y una positiva de containsAll() son siempre exactas.
+ */
+public final class BlockBitmap {
+
+    private static final int BLOCK_SECONDS = ReservationTimeCalculator.BLOCK_SIZE_MINUTES * 60;
+
+    public static final int BLOCKS_PER_DAY = 24 * 60 / ReservationTimeCalculator.BLOCK_SIZE_MINUTES;
+
+    public static final int WORDS = (BLOCKS_PER_DAY + 63) / 64;
+
+    private static final int SECONDS_PER_DAY = 24 * 60 * 60;
+
+    private BlockBitmap() {
+    }
+
+    public static long[] empty() {
+        return new long[WORDS];
+    }
+
+    /**
+     * Bloques [fromBlock, toBlock).
+     */
+    public static long[] range(int fromBlock, int toBlock) {
+        long[] bits = empty();
+        setRange(bits, fromBlock, toBlock);
+        return bits;
+    }
+
+    /**
+     * Bloques tocados por [start, end) dentro del día; {@code end == null} significa medianoche siguiente.
+     */
+    public static long[] outward(LocalTime start, LocalTime end) {
+        int fromBlock = start.toSecondOfDay() / BLOCK_SECONDS;
+        int toBlock = ceilDiv(endSecond(end), BLOCK_SECONDS);
+        return range(fromBlock, toBlock);
+    }
+
+    /**
+     * Bloques completamente contenidos en [start, end); {@code end == null} significa medianoche siguiente.
+     */
+    public static long[] inward(LocalTime start, LocalTime end) {
+        int fromBlock = ceilDiv(start.toSecondOfDay(), BLOCK_SECONDS);
+        int toBlock = endSecond(end) / BLOCK_SECONDS;
+        return range(fromBlock, toBlock);
+    }
+
+    public static void setRange(long[] bits, int fromBlock, int toBlock) {
+        for (int word = fromBlock >>> 6; fromBlock < toBlock; word++) {
+            int bitFrom = fromBlock & 63;
+            int bitTo = Math.min(64, bitFrom + (toBlock - fromBlock));
+            long mask = bitTo == 64 ? -1L << bitFrom : ((1L << bitTo) - 1) & (-1L << bitFrom);
+            bits[word] |= mask;
+            fromBlock += bitTo - bitFrom;
+        }
+    }
+
+    public static boolean intersects(long[] a, long[] b) {
+        return ((a[0] & b[0]) | (a[1] & b[1]) | (a[2] & b[2])) != 0;
+    }
+
+    /**
+     * Indica si todos los bloques de {@code inner} están en {@code outer}.
+     */
+    public static boolean containsAll(long[] outer, long[] inner) {
+        return ((inner[0] & ~outer[0]) | (inner[1] & ~outer[1]) | (inner[2] & ~outer[2])) == 0;
+    }
+
+    public static void or(long[] target, long[] source) {
+        target[0] |= source[0];
+        target[1] |= source[1];
+        target[2] |= source[2];
+    }
+
+    /**
+     * Quita de {@code target} los bloques de {@code source}.
+     */
+    public static void andNot(long[] target, long[] source) {
+        target[0] &= ~source[0];
+        target[1] &= ~source[1];
+        target[2] &= ~source[2];
+    }
+
+    public static boolean get(long[] bits, int block) {
+        return (bits[block >>> 6] & (1L << (block & 63))) != 0;
+    }
+
+    public static int cardinality(long[] bits) {
+        return Long.bitCount(bits[0]) + Long.bitCount(bits[1]) + Long.bitCount(bits[2]);
+    }
+
+    public static boolean isEmpty(long[] bits) {
+        return (bits[0] | bits[1] | bits[2]) == 0;
+    }
+
+    private static int endSecond(LocalTime end) {
+        return end == null ? SECONDS_PER_DAY : end.toSecondOfDay();
+    }
+
+    private static int ceilDiv(int value, int divisor) {
+        return (value + divisor - 1) / divisor;
+    }
+}
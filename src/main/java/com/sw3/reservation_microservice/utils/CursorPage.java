@@ -0,0 +1,22 @@
+package com.sw3.reservation_microservice.utils;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Página de resultados con el cursor opaco de la siguiente (null si no hay más).
+ */
+public record CursorPage<T>(List<T> items, String nextCursor) {
+
+    /**
+     * Arma la página a partir de una consulta que pidió {@code limit + 1} filas: si llegó la fila
+     * extra, hay más resultados y el cursor apunta al último elemento devuelto.
+     */
+    public static <T> CursorPage<T> of(List<T> fetched, int limit, Function<T, PageCursor> cursorOf) {
+        if (fetched.size() <= limit) {
+            return new CursorPage<>(fetched, null);
+        }
+        List<T> items = fetched.subList(0, limit);
+        return new CursorPage<>(List.copyOf(items), cursorOf.apply(items.get(limit - 1)).encode());
+    }
+}
@@ -0,0 +1,47 @@
+package com.sw3.reservation_microservice.utils;
+
+import java.time.DayOfWeek;
+
+/**
+ * Conversión entre DayOfWeek y los días en español que usa la tabla espejo work_shifts
+ * ("LUNES".."DOMINGO", sin tildes) y los mensajes al usuario ("lunes".."domingo").
+ */
+public final class DayOfWeekMapper {
+
+    private static final String[] DATABASE_KEYS =
+        {"LUNES", "MARTES", "MIERCOLES", "JUEVES", "VIERNES", "SABADO", "DOMINGO"};
+
+    private static final String[] SPANISH_NAMES =
+        {"lunes", "martes", "miércoles", "jueves", "viernes", "sábado", "domingo"};
+
+    private DayOfWeekMapper() {
+    }
+
+    /**
+     * Día en el formato almacenado en la base de datos (enum en español sin tildes).
+     */
+    public static String toDatabaseKey(DayOfWeek dow) {
+        return DATABASE_KEYS[dow.ordinal()];
+    }
+
+    /**
+     * Día de la semana de un valor de work_shifts.day_of_week; null si no se reconoce.
+     */
+    public static DayOfWeek fromDatabaseKey(String dayKey) {
+        if (dayKey != null) {
+            for (int i = 0; i < DATABASE_KEYS.length; i++) {
+                if (DATABASE_KEYS[i].equalsIgnoreCase(dayKey.trim())) {
+                    return DayOfWeek.of(i + 1);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Nombre del día en español para mensajes.
+     */
+    public static String toSpanishName(DayOfWeek dow) {
+        return SPANISH_NAMES[dow.ordinal()];
+    }
+}
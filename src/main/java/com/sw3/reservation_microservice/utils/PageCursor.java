@@ -0,0 +1,36 @@
+package com.sw3.reservation_microservice.utils;
+
+import com.sw3.reservation_microservice.config.controladorExcepciones.excepcionesPropias.ReservationValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Posición de la última reserva devuelta en una página: (startTime, id). La siguiente página se
+ * pide con un predicado de búsqueda sobre ese par, así que una página profunda cuesta lo mismo
+ * que la primera (sin OFFSET).
+ *
+ * Para el cliente es un token opaco: Base64 URL sin relleno de "startTime|id".
+ */
+public record PageCursor(LocalDateTime startTime, Long id) {
+
+    private static final char SEPARATOR = '|';
+
+    public String encode() {
+        String raw = startTime.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PageCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            return new PageCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                                  Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new ReservationValidationException("El cursor de página no es válido.");
+        }
+    }
+}
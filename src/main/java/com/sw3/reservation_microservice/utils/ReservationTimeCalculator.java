@@ -8,7 +8,7 @@ import java.time.LocalDateTime;
  */
 public class ReservationTimeCalculator {
 
-    private static final int BLOCK_SIZE_MINUTES = 10;
+    public static final int BLOCK_SIZE_MINUTES = 10;
 
     /**
      * Calcula la hora de fin de la reserva basado en la hora de inicio y la duración del servicio.
@@ -0,0 +1,136 @@
+package com.sw3.reservation_microservice.access;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Regresión de planes de ejecución: cada consulta caliente sobre reservations debe poder
+ * resolverse con un índice. Con enable_seqscan = off el planificador solo elige Seq Scan si
+ * ningún índice sirve, así que el resultado no depende de cuántas filas tenga la tabla.
+ *
+ * Necesita el PostgreSQL local de application.properties (el esquema lo crea Hibernate al
+ * levantar el contexto); si no está disponible, el test se omite.
+ */
+@SpringBootTest
+@EnabledIf("postgresAvailable")
+class ReservationQueryPlanTest {
+
+    private static final String TS = "TIMESTAMP '2030-01-07 10:00:00'";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    static Stream<Arguments> hotQueries() {
+        return Stream.of(
+            Arguments.of("findOverlappingReservations",
+                "SELECT * FROM reservations WHERE barber_id = 'b1' AND start_time < " + TS + " + INTERVAL '1 hour' " +
+                "AND end_time > " + TS + " AND status <> 'CANCELADA'"),
+            Arguments.of("findOccupyingReservationsByBarberEndingAfter",
+                "SELECT * FROM reservations WHERE barber_id = 'b1' AND status <> 'CANCELADA' AND end_time > " + TS),
+            Arguments.of("findOccupyingReservationsEndingAfter",
+                "SELECT * FROM reservations WHERE status <> 'CANCELADA' AND end_time > " + TS),
+            Arguments.of("findActivePageByBarberId",
+                "SELECT * FROM reservations WHERE barber_id = 'b1' AND status <> 'CANCELADA' " +
+                "AND (start_time > " + TS + " OR (start_time = " + TS + " AND id > 0)) ORDER BY start_time, id LIMIT 51"),
+            Arguments.of("findHistoryPage",
+                "SELECT * FROM reservations WHERE client_id = 'c1' " +
+                "AND (start_time < " + TS + " OR (start_time = " + TS + " AND id < 0)) " +
+                "ORDER BY start_time DESC, id DESC LIMIT 51"),
+            Arguments.of("findUpcomingByClientId",
+                "SELECT * FROM reservations WHERE client_id = 'c1' AND start_time > " + TS + " ORDER BY start_time"),
+            Arguments.of("findDayByBarberId",
+                "SELECT * FROM reservations WHERE barber_id = 'b1' AND start_time BETWEEN " + TS +
+                " AND " + TS + " + INTERVAL '1 day' ORDER BY start_time"),
+            Arguments.of("existsByBarberIdAndStartTimeAfter",
+                "SELECT id FROM reservations WHERE barber_id = 'b1' AND start_time > " + TS + " LIMIT 1"),
+            Arguments.of("existsByServiceIdAndStartTimeAfter",
+                "SELECT id FROM reservations WHERE service_id = 1 AND start_time > " + TS + " LIMIT 1"),
+            Arguments.of("findPageAfter",
+                "SELECT * FROM reservations WHERE start_time > " + TS + " OR (start_time = " + TS + " AND id > 0) " +
+                "ORDER BY start_time, id LIMIT 51")
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("hotQueries")
+    @DisplayName("Las consultas calientes de reservas no caen en un Seq Scan")
+    void shouldUseIndex(String name, String sql) {
+        String plan = jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET enable_seqscan = off");
+                try (ResultSet rs = statement.executeQuery("EXPLAIN (FORMAT JSON) " + sql)) {
+                    rs.next();
+                    return rs.getString(1);
+                } finally {
+                    statement.execute("RESET enable_seqscan");
+                }
+            }
+        });
+
+        List<String> seqScans = new ArrayList<>();
+        collectSeqScans(readTree(plan), seqScans);
+        assertThat(seqScans).as("%s hace Seq Scan sobre %s. Plan: %s", name, seqScans, plan).isEmpty();
+    }
+
+    private void collectSeqScans(JsonNode node, List<String> seqScans) {
+        if (node.isArray()) {
+            node.forEach(child -> collectSeqScans(child, seqScans));
+            return;
+        }
+        if ("Seq Scan".equals(node.path("Node Type").asText()) && "reservations".equals(node.path("Relation Name").asText())) {
+            seqScans.add(node.path("Relation Name").asText());
+        }
+        if (node.has("Plan")) {
+            collectSeqScans(node.get("Plan"), seqScans);
+        }
+        if (node.has("Plans")) {
+            collectSeqScans(node.get("Plans"), seqScans);
+        }
+    }
+
+    private JsonNode readTree(String plan) {
+        try {
+            return objectMapper.readTree(plan);
+        } catch (Exception e) {
+            throw new IllegalStateException("Plan no legible: " + plan, e);
+        }
+    }
+
+    static boolean postgresAvailable() {
+        try {
+            Properties properties = PropertiesLoaderUtils.loadProperties(new ClassPathResource("application.properties"));
+            DriverManager.setLoginTimeout(2);
+            try (Connection ignored = DriverManager.getConnection(properties.getProperty("spring.datasource.url"),
+                    properties.getProperty("spring.datasource.username"),
+                    properties.getProperty("spring.datasource.password"))) {
+                return true;
+            }
+        } catch (Exception e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.sw3.reservation_microservice.benchmark;
+
+import com.sw3.reservation_microservice.access.ReservationRepository;
+import com.sw3.reservation_microservice.domain.model.Reservation;
+import com.sw3.reservation_microservice.domain.model.WorkShift;
+import com.sw3.reservation_microservice.service.availability.BarberIntervalIndex;
+import com.sw3.reservation_microservice.service.availability.DayOccupancyMap;
+import com.sw3.reservation_microservice.service.availability.WeeklyShiftTemplate;
+import com.sw3.reservation_microservice.service.availability.WeeklyShiftTemplateCache;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Compara la verificación de disponibilidad de BarberAvailabilityHandler:
+ * - listScan: lo que hacía la consulta findOverlappingReservations, fila por fila
+ *   (sin contar el viaje a la BD, que domina en producción)
+ * - intervalIndex: BarberIntervalIndex (mapa ordenado por inicio)
+ * - bitmap: DayOccupancyMap (AND de long[3], con confirmación exacta solo si hay choque)
+ *
+ * Ejecutar: mvn test-compile y luego el main() con el classpath de test.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AvailabilityCheckBenchmark {
+
+    /** Reservas futuras del barbero (18 por día, de 08:00 a 20:00) */
+    @Param({"200", "2000"})
+    private int bookings;
+
+    private List<Reservation> reservations;
+    private BarberIntervalIndex intervalIndex;
+    private DayOccupancyMap occupancyMap;
+    private WeeklyShiftTemplate template;
+
+    private LocalDateTime freeStart;
+    private LocalDateTime busyStart;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime monday = LocalDateTime.now().with(TemporalAdjusters.next(DayOfWeek.MONDAY))
+            .withHour(8).withMinute(0).withSecond(0).withNano(0);
+        reservations = new ArrayList<>(bookings);
+        int perDay = 18;
+        for (int i = 0; i < bookings; i++) {
+            LocalDateTime start = monday.plusDays(i / perDay).plusMinutes((i % perDay) * 40L);
+            Reservation r = new Reservation();
+            r.setId((long) i);
+            r.setBarberId("barber1");
+            r.setStartTime(start);
+            r.setEndTime(start.plusMinutes(30));
+            reservations.add(r);
+        }
+
+        ReservationRepository reservationRepository = mock(ReservationRepository.class);
+        when(reservationRepository.findOccupyingReservationsEndingAfter(any(LocalDateTime.class))).thenReturn(reservations);
+        WorkShift shift = new WorkShift();
+        shift.setDayOfWeek("LUNES");
+        shift.setStartTime(LocalTime.of(8, 0));
+        shift.setEndTime(LocalTime.of(20, 0));
+        template = WeeklyShiftTemplate.compile(List.of(shift));
+
+        intervalIndex = new BarberIntervalIndex(reservationRepository);
+        intervalIndex.load();
+        occupancyMap = new DayOccupancyMap(reservationRepository, mock(WeeklyShiftTemplateCache.class), intervalIndex);
+        occupancyMap.load();
+
+        // Hueco de 10 minutos entre dos reservas (30 min ocupados + 10 libres), y un horario ocupado
+        LocalDateTime day = monday.plusDays(bookings / perDay / 2);
+        freeStart = day.plusMinutes(30);
+        busyStart = day.plusMinutes(10);
+    }
+
+    @Benchmark
+    public boolean listScanFree() {
+        return scan(freeStart, freeStart.plusMinutes(10));
+    }
+
+    @Benchmark
+    public boolean intervalIndexFree() {
+        return intervalIndex.hasOverlap("barber1", freeStart, freeStart.plusMinutes(10));
+    }
+
+    @Benchmark
+    public boolean bitmapFree() {
+        return occupancyMap.hasOverlap("barber1", freeStart, freeStart.plusMinutes(10));
+    }
+
+    @Benchmark
+    public boolean intervalIndexBusy() {
+        return intervalIndex.hasOverlap("barber1", busyStart, busyStart.plusMinutes(30));
+    }
+
+    @Benchmark
+    public boolean bitmapBusy() {
+        return occupancyMap.hasOverlap("barber1", busyStart, busyStart.plusMinutes(30));
+    }
+
+    @Benchmark
+    public boolean templateFitsInShift() {
+        return template.fits(freeStart, freeStart.plusMinutes(10));
+    }
+
+    private boolean scan(LocalDateTime start, LocalDateTime end) {
+        for (Reservation r : reservations) {
+            if (r.getStartTime().isBefore(end) && r.getEndTime().isAfter(start)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(AvailabilityCheckBenchmark.class.getSimpleName()).build()).run();
+    }
+}
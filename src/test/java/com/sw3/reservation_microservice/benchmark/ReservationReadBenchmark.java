@@ -0,0 +1,91 @@
+package com.sw3.reservation_microservice.benchmark;
+
+import com.sw3.reservation_microservice.controller.dto.response.ReservationListItemDTO;
+import com.sw3.reservation_microservice.domain.model.Reservation;
+import com.sw3.reservation_microservice.domain.model.ReservationStatus;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Memoria asignada al leer 1.000 filas de reservas en los endpoints de lectura:
+ * - entityHydration: lo que hacía cada fila como entidad administrada: la instancia (cuyo
+ *   constructor crea un EnEsperaState), el Object[] con el estado cargado que Hibernate guarda
+ *   para el dirty checking y el estado nuevo que asigna @PostLoad loadState(). No incluye
+ *   EntityEntry/EntityKey ni el registro en el contexto de persistencia, así que el costo real es mayor.
+ * - recordProjection: el DTO construido directamente con SELECT new (ReservationListItemDTO).
+ *
+ * Las columnas ya leídas del ResultSet se simulan con un Object[][] precargado.
+ * Ejecutar: mvn test-compile y luego el main() con el classpath de test; el perfilador de GC
+ * reporta gc.alloc.rate.norm (bytes por operación = por 1.000 filas).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReservationReadBenchmark {
+
+    private static final int ROWS = 1_000;
+
+    private Object[][] resultSet;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime base = LocalDateTime.of(2025, 1, 6, 8, 0);
+        ReservationStatus[] statuses = ReservationStatus.values();
+        resultSet = new Object[ROWS][];
+        for (int i = 0; i < ROWS; i++) {
+            LocalDateTime start = base.plusMinutes(40L * i);
+            resultSet[i] = new Object[]{(long) i, "cliente" + (i % 50), "barber" + (i % 5), (long) (i % 8),
+                start, start.plusMinutes(30), 20.0, statuses[i % statuses.length]};
+        }
+    }
+
+    @Benchmark
+    public List<Reservation> entityHydration() {
+        List<Reservation> rows = new ArrayList<>(ROWS);
+        List<Object[]> loadedState = new ArrayList<>(ROWS);
+        for (Object[] row : resultSet) {
+            Reservation reservation = new Reservation();
+            reservation.setId((Long) row[0]);
+            reservation.setClientId((String) row[1]);
+            reservation.setBarberId((String) row[2]);
+            reservation.setServiceId((Long) row[3]);
+            reservation.setStartTime((LocalDateTime) row[4]);
+            reservation.setEndTime((LocalDateTime) row[5]);
+            reservation.setPrice((Double) row[6]);
+            reservation.setStatus((ReservationStatus) row[7]);
+            // Snapshot para el dirty checking (sin el id)
+            loadedState.add(new Object[]{row[1], row[2], row[3], row[4], row[5], row[6], row[7]});
+            reservation.loadState();
+            rows.add(reservation);
+        }
+        return loadedState.size() == ROWS ? rows : List.of();
+    }
+
+    @Benchmark
+    public List<ReservationListItemDTO> recordProjection() {
+        List<ReservationListItemDTO> rows = new ArrayList<>(ROWS);
+        for (Object[] row : resultSet) {
+            rows.add(new ReservationListItemDTO((Long) row[0], (String) row[1], (String) row[2], (Long) row[3],
+                (LocalDateTime) row[4], (LocalDateTime) row[5], (Double) row[6], (ReservationStatus) row[7]));
+        }
+        return rows;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(ReservationReadBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .build()).run();
+    }
+}
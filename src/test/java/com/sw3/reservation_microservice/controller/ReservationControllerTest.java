@@ -2,8 +2,11 @@ package com.sw3.reservation_microservice.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.sw3.reservation_microservice.controller.dto.request.CreateReservationRequestDTO;
+import com.sw3.reservation_microservice.controller.dto.response.ReservationListItemDTO;
 import com.sw3.reservation_microservice.domain.model.Reservation;
+import com.sw3.reservation_microservice.domain.model.ReservationStatus;
 import com.sw3.reservation_microservice.service.facade.ReservationFacade;
+import com.sw3.reservation_microservice.utils.CursorPage;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,7 +14,9 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -19,6 +24,8 @@ import java.util.Optional;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -74,8 +81,9 @@ class ReservationControllerTest {
     void shouldGetReservationById() throws Exception {
         // ARRANGE
         Long resId = 1L;
-        Reservation reservation = new Reservation();
-        reservation.setId(resId);
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        ReservationListItemDTO reservation = new ReservationListItemDTO(resId, "cli1", "bar1", 1L,
+                start, start.plusMinutes(30), 20.0, ReservationStatus.EN_ESPERA);
 
         when(reservationFacade.findById(resId)).thenReturn(Optional.of(reservation));
 
@@ -96,6 +104,39 @@ class ReservationControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    @DisplayName("GET /.../history - Devuelve el historial completo como arreglo, sin paginar")
+    void shouldReturnFullHistory() throws Exception {
+        // ARRANGE
+        LocalDateTime start = LocalDateTime.now().minusDays(1).withNano(0);
+        List<ReservationListItemDTO> history = List.of(
+                new ReservationListItemDTO(2L, "cli1", "bar1", 1L, start, start.plusMinutes(30), 20.0, ReservationStatus.FINALIZADA),
+                new ReservationListItemDTO(1L, "cli1", "bar1", 1L, start.minusDays(1), start.minusDays(1).plusMinutes(30), 20.0, ReservationStatus.FINALIZADA));
+        when(reservationFacade.getClientHistory("cli1")).thenReturn(history);
+
+        // ACT & ASSERT
+        mockMvc.perform(get("/cliente/reservations/cliente/{clientId}/history", "cli1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[1].id").value(1L));
+    }
+
+    @Test
+    @DisplayName("GET /.../history/page - Devuelve la página con el cursor siguiente en el cuerpo")
+    void shouldReturnHistoryPage_WithCursorInBody() throws Exception {
+        // ARRANGE
+        LocalDateTime start = LocalDateTime.now().minusDays(1).withNano(0);
+        ReservationListItemDTO item = new ReservationListItemDTO(2L, "cli1", "bar1", 1L,
+                start, start.plusMinutes(30), 20.0, ReservationStatus.FINALIZADA);
+        when(reservationFacade.getClientHistory("cli1", null, 1)).thenReturn(new CursorPage<>(List.of(item), "abc"));
+
+        // ACT & ASSERT
+        mockMvc.perform(get("/cliente/reservations/cliente/{clientId}/history/page", "cli1").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(2L))
+                .andExpect(jsonPath("$.nextCursor").value("abc"));
+    }
+
     // --- TEST 3: Cancelar Reserva (PUT con RequestParam) ---
     @Test
     @DisplayName("PUT /.../cancelar - Debería cancelar y retornar 200")
@@ -125,16 +166,39 @@ class ReservationControllerTest {
         String barberId = "bar1";
         String dateStr = "2023-10-15T10:00:00"; // Formato ISO
 
+        when(reservationFacade.getBarberScheduleETag(eq(barberId), any(LocalDateTime.class))).thenReturn("\"e1-1\"");
         when(reservationFacade.getBarberSchedule(eq(barberId), any(LocalDateTime.class)))
-                .thenReturn(List.of(new Reservation()));
+                .thenReturn(List.of(new ReservationListItemDTO(1L, "cli1", barberId, 1L,
+                        LocalDateTime.parse(dateStr), LocalDateTime.parse(dateStr).plusMinutes(30), 20.0,
+                        ReservationStatus.EN_ESPERA)));
 
         // ACT & ASSERT
         mockMvc.perform(get("/barbero/reservations/barbero/{barberId}/day", barberId)
                         .param("day", dateStr))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$").isArray()); // Esperamos un array JSON
+                .andExpect(jsonPath("$").isArray()) // Esperamos un array JSON
+                .andExpect(jsonPath("$[0].startTime").value(dateStr))
+                .andExpect(jsonPath("$[0].status").value("EN_ESPERA"))
+                .andExpect(header().exists("ETag"));
     }
     
+    // --- TEST 4b: Agenda del día sin cambios (ETag) ---
+    @Test
+    @DisplayName("GET /barbero/.../day - Con If-None-Match vigente debería retornar 304 sin consultar reservas")
+    void shouldReturnNotModified_WhenScheduleETagMatches() throws Exception {
+        // ARRANGE
+        String barberId = "bar1";
+        when(reservationFacade.getBarberScheduleETag(eq(barberId), any(LocalDateTime.class))).thenReturn("\"e1-7\"");
+
+        // ACT & ASSERT
+        mockMvc.perform(get("/barbero/reservations/barbero/{barberId}/day", barberId)
+                        .param("day", "2023-10-15T10:00:00")
+                        .header("If-None-Match", "\"e1-7\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"e1-7\""));
+        verify(reservationFacade, never()).getBarberSchedule(any(), any());
+    }
+
     // --- TEST 5: Eliminar Reserva (DELETE) ---
     @Test
     @DisplayName("DELETE /... - Debería eliminar y retornar mensaje")
@@ -151,4 +215,26 @@ class ReservationControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().string("Reserva eliminada exitosamente"));
     }
-}
\ No newline at end of file
+
+    // --- TEST 7: Mapa de calor (respuesta en streaming) ---
+    @Test
+    @DisplayName("GET /barbero/{id}/availability/heatmap - Debería devolver los minutos libres por día")
+    void shouldStreamBarberHeatmap() throws Exception {
+        // ARRANGE
+        LocalDate from = LocalDate.of(2030, 1, 1);
+        LocalDate to = LocalDate.of(2030, 1, 3);
+        when(reservationFacade.getBarberHeatmap("bar1", from, to)).thenReturn(new int[]{120, 0, 480});
+
+        // ACT
+        MvcResult started = mockMvc.perform(get("/barbero/{barberId}/availability/heatmap", "bar1")
+                        .param("from", "2030-01-01")
+                        .param("to", "2030-01-03"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // ASSERT
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().json("{\"from\":\"2030-01-01\",\"to\":\"2030-01-03\",\"freeMinutes\":[120,0,480]}"));
+    }
+}
@@ -0,0 +1,125 @@
+package com.sw3.reservation_microservice.messaging;
+
+import com.sw3.reservation_microservice.config.NodeIdentity;
+import com.sw3.reservation_microservice.config.RabbitMqConfig;
+import com.sw3.reservation_microservice.domain.model.Reservation;
+import com.sw3.reservation_microservice.messaging.dto.CacheInvalidationMessage;
+import com.sw3.reservation_microservice.messaging.events.CacheInvalidationListener;
+import com.sw3.reservation_microservice.messaging.publisher.CacheInvalidationPublisher;
+import com.sw3.reservation_microservice.service.event.CacheInvalidatedEvent;
+import com.sw3.reservation_microservice.service.event.ReservationChangedEvent;
+import com.sw3.reservation_microservice.service.event.WorkShiftChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.amqp.AmqpConnectException;
+import org.springframework.amqp.core.AmqpTemplate;
+
+import java.net.ConnectException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Dos instancias conectadas por un broker de mentira que reparte cada mensaje a todas las
+ * colas, como el exchange fanout de RabbitMqConfig.
+ */
+class CacheInvalidationBusTest {
+
+    private final AmqpTemplate broker = mock(AmqpTemplate.class);
+    private final List<CacheInvalidationMessage> sent = new ArrayList<>();
+
+    private Node nodeA;
+    private Node nodeB;
+
+    @BeforeEach
+    void setUp() {
+        nodeA = new Node("node-a");
+        nodeB = new Node("node-b");
+        doAnswer(invocation -> {
+            CacheInvalidationMessage message = invocation.getArgument(2);
+            sent.add(message);
+            nodeA.listener.handleInvalidation(message);
+            nodeB.listener.handleInvalidation(message);
+            return null;
+        }).when(broker).convertAndSend(eq(RabbitMqConfig.CACHE_INVALIDATION_EXCHANGE), eq(""), any(Object.class));
+    }
+
+    @Test
+    @DisplayName("Una ráfaga de cambios sale en un solo mensaje y solo la aplica el otro nodo")
+    void shouldCoalesceBurst_AndSkipOwnNode() {
+        // ARRANGE
+        for (long id = 1; id <= 5; id++) {
+            nodeA.publisher.onReservationChanged(ReservationChangedEvent.of(ReservationChangedEvent.Type.CREATED,
+                    reservation(id, "barber1", "cliente" + (id % 2))));
+        }
+        nodeA.publisher.onWorkShiftChanged(new WorkShiftChangedEvent("barber2"));
+
+        // ACT
+        nodeA.publisher.flush();
+        nodeA.publisher.flush();
+
+        // ASSERT
+        assertThat(sent).hasSize(1);
+        assertThat(sent.get(0).getBarberIds()).containsExactlyInAnyOrder("barber1", "barber2");
+        assertThat(sent.get(0).getClientIds()).containsExactlyInAnyOrder("cliente0", "cliente1");
+
+        assertThat(nodeA.received).isEmpty();
+        assertThat(nodeB.received).hasSize(1);
+        assertThat(nodeB.received.get(0).getBarberIds()).containsExactlyInAnyOrder("barber1", "barber2");
+    }
+
+    @Test
+    @DisplayName("Si el broker falla, las claves se reenvían en el siguiente intento")
+    void shouldRetryPendingKeys_WhenBrokerFails() {
+        // ARRANGE: el primer envío falla y el segundo llega
+        reset(broker);
+        doThrow(new AmqpConnectException(new ConnectException("broker caído")))
+                .doNothing()
+                .when(broker).convertAndSend(eq(RabbitMqConfig.CACHE_INVALIDATION_EXCHANGE), eq(""), any(Object.class));
+        nodeA.publisher.enqueue("barber1", "cliente1");
+
+        // ACT
+        nodeA.publisher.flush();
+        nodeA.publisher.enqueue("barber3", null);
+        nodeA.publisher.flush();
+
+        // ASSERT
+        ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+        verify(broker, times(2)).convertAndSend(eq(RabbitMqConfig.CACHE_INVALIDATION_EXCHANGE), eq(""), captor.capture());
+        CacheInvalidationMessage retried = (CacheInvalidationMessage) captor.getAllValues().get(1);
+        assertThat(retried.getBarberIds()).containsExactlyInAnyOrder("barber1", "barber3");
+        assertThat(retried.getClientIds()).containsExactly("cliente1");
+        assertThat(retried.getOriginNodeId()).isEqualTo("node-a");
+    }
+
+    /** Publisher y listener de una instancia, con los eventos internos que recibe */
+    private final class Node {
+        final CacheInvalidationPublisher publisher;
+        final CacheInvalidationListener listener;
+        final List<CacheInvalidatedEvent> received = new ArrayList<>();
+
+        Node(String nodeId) {
+            NodeIdentity identity = new NodeIdentity(nodeId);
+            this.publisher = new CacheInvalidationPublisher(broker, identity);
+            this.listener = new CacheInvalidationListener(identity, event -> received.add((CacheInvalidatedEvent) event));
+        }
+    }
+
+    private static Reservation reservation(Long id, String barberId, String clientId) {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withHour(10).withMinute(0).withSecond(0).withNano(0);
+        Reservation reservation = new Reservation();
+        reservation.setId(id);
+        reservation.setBarberId(barberId);
+        reservation.setClientId(clientId);
+        reservation.setStartTime(start);
+        reservation.setEndTime(start.plusMinutes(30));
+        return reservation;
+    }
+}
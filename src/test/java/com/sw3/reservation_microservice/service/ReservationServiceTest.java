@@ -1,28 +1,45 @@
 package com.sw3.reservation_microservice.service;
 
 import com.sw3.reservation_microservice.access.ReservationRepository;
-import com.sw3.reservation_microservice.access.ServiceRepository;
+import com.sw3.reservation_microservice.config.controladorExcepciones.excepcionesPropias.CancellationNotAllowedException;
 import com.sw3.reservation_microservice.config.controladorExcepciones.excepcionesPropias.InvalidReservationDeletionException;
 import com.sw3.reservation_microservice.config.controladorExcepciones.excepcionesPropias.ReservationNotFoundException;
+import com.sw3.reservation_microservice.config.controladorExcepciones.excepcionesPropias.ReservationValidationException;
+import com.sw3.reservation_microservice.controller.dto.request.CreateBatchReservationRequestDTO;
 import com.sw3.reservation_microservice.controller.dto.request.CreateReservationRequestDTO;
+import com.sw3.reservation_microservice.controller.dto.response.ReservationListItemDTO;
 import com.sw3.reservation_microservice.domain.model.Reservation;
 import com.sw3.reservation_microservice.domain.model.ReservationStatus;
 import com.sw3.reservation_microservice.domain.model.ServiceEntity;
 import com.sw3.reservation_microservice.domain.state.EnEsperaState;
+import com.sw3.reservation_microservice.service.event.ReservationChangedEvent;
+import com.sw3.reservation_microservice.service.routing.ReadYourWritesTracker;
+import com.sw3.reservation_microservice.service.validation.ReservationValidationContext;
 import com.sw3.reservation_microservice.service.validation.ReservationValidatorChain;
+import com.sw3.reservation_microservice.utils.CursorPage;
+import com.sw3.reservation_microservice.utils.PageCursor;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.sql.SQLException;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class) // 1. Habilita Mockito
@@ -36,7 +53,11 @@ class ReservationServiceTest {
     private ReservationValidatorChain validatorChain;
 
     @Mock
-    private ServiceRepository serviceRepository;
+    private ApplicationEventPublisher eventPublisher;
+
+    // Sin réplica configurada: todas las lecturas van directas al repositorio
+    @Spy
+    private ReadYourWritesTracker readYourWrites = new ReadYourWritesTracker(false, 0);
 
     // InjectMocks: Crea la instancia real del servicio e inyecta los Mocks definidos arriba
     @InjectMocks
@@ -56,11 +77,13 @@ class ReservationServiceTest {
         ServiceEntity mockService = new ServiceEntity();
         mockService.setDuration(60); // Duración de 60 mins
 
-        // Cuando busquen el servicio ID 1, devuelve nuestro mockService
-        when(serviceRepository.findById(1L)).thenReturn(Optional.of(mockService));
+        // La cadena de validación devuelve el contexto con el servicio ya resuelto
+        ReservationValidationContext context = new ReservationValidationContext(request);
+        context.resolveService(mockService);
+        when(validatorChain.validate(request)).thenReturn(context);
         
         // Cuando guarden cualquier reserva, devuélvela (simulamos que la BD la guardó)
-        when(reservationRepository.save(any(Reservation.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(reservationRepository.saveAndFlush(any(Reservation.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         // ACT (Actuar)
         Reservation result = reservationService.createReservation(request);
@@ -87,8 +110,12 @@ class ReservationServiceTest {
         // Hora de inicio fue hace 20 minutos (ya pasaron los 10 de tolerancia)
         reservation.setStartTime(LocalDateTime.now().minusMinutes(20));
 
-        when(reservationRepository.findById(resId)).thenReturn(Optional.of(reservation));
-        when(reservationRepository.save(any(Reservation.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        // La guarda de EN_PROCESO no se cumple; la de inasistencia sí
+        when(reservationRepository.startServiceIfOnTime(eq(resId), any(LocalDateTime.class))).thenReturn(Optional.empty());
+        when(reservationRepository.markNoShowIfLate(eq(resId), any(LocalDateTime.class))).thenAnswer(invocation -> {
+            reservation.setStatus(ReservationStatus.INASISTENCIA);
+            return Optional.of(reservation);
+        });
 
         // ACT
         // Intentamos iniciar el servicio ("EN_PROCESO"), pero llegamos tarde
@@ -117,18 +144,45 @@ class ReservationServiceTest {
         // Ponemos 2 días en el futuro para asegurar que no viole reglas de "cancelación tardía"
         reservation.setStartTime(LocalDateTime.now().plusDays(2)); 
 
-        when(reservationRepository.findByIdAndClientId(resId, clientId))
-                .thenReturn(Optional.of(reservation));
-        
-        // Cuando guarde, devuelve el mismo objeto modificado
-        when(reservationRepository.save(any(Reservation.class))).thenAnswer(i -> i.getArguments()[0]);
+        // El UPDATE condicional devuelve la fila ya cancelada
+        when(reservationRepository.cancelIfAllowed(eq(resId), eq(clientId), any(LocalDateTime.class)))
+                .thenAnswer(i -> {
+                    reservation.setStatus(ReservationStatus.CANCELADA);
+                    return Optional.of(reservation);
+                });
 
         // ACT
         Reservation result = reservationService.cancelReservation(resId, clientId);
 
         // ASSERT
         assertThat(result.getStatus()).isEqualTo(ReservationStatus.CANCELADA);
-        verify(reservationRepository).save(reservation);
+        verify(reservationRepository, never()).findByIdAndClientId(any(), any());
+        verify(reservationRepository, never()).save(any(Reservation.class));
+        verify(eventPublisher).publishEvent(any(ReservationChangedEvent.class));
+    }
+
+    // --- TEST 3b: Cancelación tardía rechazada por el State ---
+    @Test
+    @DisplayName("Debe explicar con la excepción del State por qué no se pudo cancelar")
+    void shouldThrowCancellationNotAllowed_WhenGuardFailsForLateCancel() {
+        // ARRANGE
+        Long resId = 1L;
+        String clientId = "cli1";
+
+        Reservation reservation = new Reservation();
+        reservation.setStatus(ReservationStatus.EN_ESPERA);
+        reservation.setState(new EnEsperaState());
+        // Empieza en 30 minutos: menos de la hora de anticipación exigida
+        reservation.setStartTime(LocalDateTime.now().plusMinutes(30));
+
+        when(reservationRepository.cancelIfAllowed(eq(resId), eq(clientId), any(LocalDateTime.class)))
+                .thenReturn(Optional.empty());
+        when(reservationRepository.findByIdAndClientId(resId, clientId)).thenReturn(Optional.of(reservation));
+
+        // ACT & ASSERT
+        assertThrows(CancellationNotAllowedException.class,
+                () -> reservationService.cancelReservation(resId, clientId));
+        verify(eventPublisher, never()).publishEvent(any(ReservationChangedEvent.class));
     }
 
     // --- TEST 4: Excepción al Eliminar ---
@@ -168,4 +222,113 @@ class ReservationServiceTest {
             reservationService.deleteReservation(99L, "cli1");
         });
     }
-}
\ No newline at end of file
+
+    // --- TEST 6: Violación de la restricción de no solapamiento ---
+    @Test
+    @DisplayName("Debe traducir la violación de la restricción EXCLUDE a ReservationValidationException")
+    void shouldTranslateExclusionViolation_WhenConcurrentBookingWins() {
+        // ARRANGE
+        CreateReservationRequestDTO request = new CreateReservationRequestDTO();
+        request.setServiceId(1L);
+        request.setStartTime(LocalDateTime.of(2023, 10, 10, 10, 0));
+
+        ServiceEntity mockService = new ServiceEntity();
+        mockService.setDuration(30);
+        ReservationValidationContext context = new ReservationValidationContext(request);
+        context.resolveService(mockService);
+        when(validatorChain.validate(request)).thenReturn(context);
+
+        // Simulamos que otra transacción ya ocupó el horario (SQLState 23P01)
+        SQLException exclusion = new SQLException("conflicting key value violates exclusion constraint", "23P01");
+        when(reservationRepository.saveAndFlush(any(Reservation.class)))
+                .thenThrow(new DataIntegrityViolationException("reservations_no_overlap", exclusion));
+
+        // ACT & ASSERT
+        assertThrows(ReservationValidationException.class, () -> reservationService.createReservation(request));
+        verify(eventPublisher, never()).publishEvent(any(ReservationChangedEvent.class));
+    }
+
+    // --- TEST 7: Combo de servicios consecutivos ---
+    @Test
+    @DisplayName("Debe crear un combo de reservas consecutivas en un solo guardado")
+    void shouldCreateBatchReservation_BackToBack() {
+        // ARRANGE
+        CreateBatchReservationRequestDTO request = new CreateBatchReservationRequestDTO();
+        request.setClientId("cliente123");
+        request.setBarberId("barber1");
+        request.setStartTime(LocalDateTime.of(2023, 10, 10, 10, 0));
+        request.setServiceIds(List.of(1L, 2L));
+
+        ServiceEntity corte = new ServiceEntity();
+        corte.setId(1L);
+        corte.setDuration(30);
+        corte.setPrice(20.0);
+        ServiceEntity barba = new ServiceEntity();
+        barba.setId(2L);
+        barba.setDuration(20);
+        barba.setPrice(10.0);
+
+        ReservationValidationContext context = new ReservationValidationContext(request);
+        context.resolveServices(List.of(corte, barba));
+        when(validatorChain.validate(request)).thenReturn(context);
+        when(reservationRepository.saveAllAndFlush(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // ACT
+        List<Reservation> result = reservationService.createBatchReservation(request);
+
+        // ASSERT
+        assertThat(result).hasSize(2);
+        assertThat(result.get(0).getEndTime()).isEqualTo(result.get(1).getStartTime());
+        assertThat(result.get(1).getServiceId()).isEqualTo(2L);
+        assertThat(result.get(1).getPrice()).isEqualTo(10.0);
+        verify(reservationRepository).saveAllAndFlush(anyList());
+        verify(eventPublisher, times(2)).publishEvent(any(ReservationChangedEvent.class));
+    }
+
+    // --- TEST 9: Historial paginado por cursor ---
+    @Test
+    @DisplayName("El historial pagina con un cursor (startTime, id) en lugar de cargar todas las reservas")
+    void shouldPageClientHistory_WithSeekCursor() {
+        // ARRANGE
+        ReflectionTestUtils.setField(reservationService, "maxPageSize", 200);
+        LocalDateTime base = LocalDateTime.now().minusDays(1).withNano(0);
+        ReservationListItemDTO newest = historyItem(7L, base);
+        ReservationListItemDTO older = historyItem(5L, base.minusDays(1));
+        ReservationListItemDTO extra = historyItem(3L, base.minusDays(2));
+        when(reservationRepository.findHistoryPage(eq("cliente123"), any(LocalDateTime.class), eq(Long.MIN_VALUE), eq(Limit.of(3))))
+                .thenReturn(List.of(newest, older, extra));
+
+        // ACT: primera página de 2 (se pide una fila extra para saber si hay más)
+        CursorPage<ReservationListItemDTO> first = reservationService.getReservationHistoryByClient("cliente123", null, 2);
+
+        // ASSERT
+        assertThat(first.items()).containsExactly(newest, older);
+        assertThat(first.nextCursor()).isNotNull();
+        assertThat(PageCursor.decode(first.nextCursor())).isEqualTo(new PageCursor(older.startTime(), 5L));
+
+        // ACT: la siguiente página busca a partir de la última reserva devuelta
+        when(reservationRepository.findHistoryPage("cliente123", older.startTime(), 5L, Limit.of(3)))
+                .thenReturn(List.of(extra));
+        CursorPage<ReservationListItemDTO> second = reservationService.getReservationHistoryByClient("cliente123", first.nextCursor(), 2);
+
+        // ASSERT
+        assertThat(second.items()).containsExactly(extra);
+        assertThat(second.nextCursor()).isNull();
+    }
+
+    // --- TEST 10: Cursor inválido ---
+    @Test
+    @DisplayName("Debe rechazar un cursor de página manipulado")
+    void shouldRejectTamperedCursor() {
+        ReflectionTestUtils.setField(reservationService, "maxPageSize", 200);
+
+        assertThrows(ReservationValidationException.class,
+                () -> reservationService.getAllReservations("no-es-un-cursor", 10));
+        verifyNoInteractions(reservationRepository);
+    }
+
+    private static ReservationListItemDTO historyItem(Long id, LocalDateTime start) {
+        return new ReservationListItemDTO(id, "cliente123", "barber1", 1L, start, start.plusMinutes(30),
+                20.0, ReservationStatus.FINALIZADA);
+    }
+}
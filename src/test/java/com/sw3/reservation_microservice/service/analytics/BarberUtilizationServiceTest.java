@@ -0,0 +1,125 @@
+package com.sw3.reservation_microservice.service.analytics;
+
+import com.sw3.reservation_microservice.access.BarberRepository;
+import com.sw3.reservation_microservice.access.BookedMinutesByHour;
+import com.sw3.reservation_microservice.access.ReservationRepository;
+import com.sw3.reservation_microservice.config.controladorExcepciones.excepcionesPropias.ReservationValidationException;
+import com.sw3.reservation_microservice.controller.dto.response.BarberUtilizationDTO;
+import com.sw3.reservation_microservice.domain.model.WorkShift;
+import com.sw3.reservation_microservice.service.availability.WeeklyShiftTemplate;
+import com.sw3.reservation_microservice.service.availability.WeeklyShiftTemplateCache;
+import com.sw3.reservation_microservice.utils.DayOfWeekMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BarberUtilizationServiceTest {
+
+    @Mock
+    private ReservationRepository reservationRepository;
+
+    @Mock
+    private BarberRepository barberRepository;
+
+    @Mock
+    private WeeklyShiftTemplateCache shiftTemplates;
+
+    private BarberUtilizationService service;
+
+    /** Dos días cerrados: anteayer y ayer */
+    private LocalDate from;
+    private LocalDate to;
+
+    @BeforeEach
+    void setUp() {
+        service = new BarberUtilizationService(reservationRepository, barberRepository, shiftTemplates, 100);
+        to = LocalDate.now().minusDays(1);
+        from = to.minusDays(1);
+        // Turno de 09:00 a 11:00 solo el día "from"
+        WorkShift shift = new WorkShift();
+        shift.setDayOfWeek(DayOfWeekMapper.toDatabaseKey(from.getDayOfWeek()));
+        shift.setStartTime(LocalTime.of(9, 0));
+        shift.setEndTime(LocalTime.of(11, 0));
+        lenient().when(shiftTemplates.forBarber("barber1")).thenReturn(WeeklyShiftTemplate.compile(List.of(shift)));
+    }
+
+    @Test
+    @DisplayName("Calcula la ocupación por día y por hora a partir del agregado de minutos reservados")
+    void shouldComputeOccupancy_ByDayAndHour() {
+        // ARRANGE: 60 min a las 9 y 30 min a las 10 del primer día
+        when(reservationRepository.sumBookedMinutesByHour(anyCollection(), eq(from),
+                any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(List.of(row(0, 9, 60), row(0, 10, 30)));
+
+        // ACT
+        BarberUtilizationDTO result = service.utilization("barber1", from, to).get(0);
+
+        // ASSERT
+        assertThat(result.getBookedMinutes()).isEqualTo(90);
+        assertThat(result.getShiftMinutes()).isEqualTo(120);
+        assertThat(result.getOccupancyPercent()).isEqualTo(75.0);
+        assertThat(result.getDays()).hasSize(2);
+        assertThat(result.getDays().get(0).getHours())
+                .extracting(BarberUtilizationDTO.HourUtilization::getOccupancyPercent)
+                .containsExactly(100.0, 50.0);
+        assertThat(result.getDays().get(1).getHours()).isEmpty();
+        assertThat(result.getHoursOfDay()).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("Los días cerrados se guardan y no se vuelven a consultar")
+    void shouldCacheClosedDays() {
+        // ARRANGE
+        when(reservationRepository.sumBookedMinutesByHour(anyCollection(), eq(from),
+                any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(List.of(row(1, 9, 20)));
+
+        // ACT
+        service.utilization("barber1", from, to);
+        BarberUtilizationDTO second = service.utilization("barber1", from, to).get(0);
+
+        // ASSERT
+        verify(reservationRepository, times(1)).sumBookedMinutesByHour(anyCollection(), any(), any(), any());
+        assertThat(second.getDays().get(1).getBookedMinutes()).isEqualTo(20);
+    }
+
+    @Test
+    @DisplayName("Rechaza rangos invertidos o mayores al máximo")
+    void shouldRejectInvalidRange() {
+        assertThatThrownBy(() -> service.utilization("barber1", to, from))
+                .isInstanceOf(ReservationValidationException.class);
+        assertThatThrownBy(() -> service.utilization("barber1", from,
+                from.plusDays(BarberUtilizationService.MAX_ANALYTICS_DAYS)))
+                .isInstanceOf(ReservationValidationException.class);
+        verifyNoInteractions(reservationRepository);
+    }
+
+    private static BookedMinutesByHour row(int dayOffset, int hour, long minutes) {
+        return new BookedMinutesByHour() {
+            public String getBarberId() { return "barber1"; }
+            public Integer getDayOffset() { return dayOffset; }
+            public Integer getHour() { return hour; }
+            public Long getBookedMinutes() { return minutes; }
+        };
+    }
+}
@@ -0,0 +1,66 @@
+package com.sw3.reservation_microservice.service.availability;
+
+import com.sw3.reservation_microservice.controller.dto.response.AvailableSlotDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AlternativeSlotSuggesterTest {
+
+    @Mock
+    private AvailabilityService availabilityService;
+
+    private AlternativeSlotSuggester suggester;
+
+    private LocalDate day;
+
+    @BeforeEach
+    void setUp() {
+        suggester = new AlternativeSlotSuggester(availabilityService, 3);
+        day = LocalDate.now().plusDays(1);
+    }
+
+    @Test
+    @DisplayName("Devuelve los K horarios libres más cercanos al solicitado, en orden cronológico")
+    void shouldReturnNearestFreeSlots_SortedByTime() {
+        // ARRANGE
+        when(availabilityService.freeStartTimes(eq("barber1"), eq(day), eq(3), any(LocalDateTime.class)))
+                .thenReturn(new TreeSet<>(List.of(
+                        LocalTime.of(8, 0), LocalTime.of(9, 30), LocalTime.of(10, 40),
+                        LocalTime.of(11, 0), LocalTime.of(15, 0))));
+        LocalDateTime start = day.atTime(10, 0);
+
+        // ACT
+        List<AvailableSlotDTO> alternatives = suggester.suggest("barber1", start, start.plusMinutes(30));
+
+        // ASSERT
+        assertThat(alternatives).extracting(AvailableSlotDTO::getStartTime)
+                .containsExactly(day.atTime(9, 30), day.atTime(10, 40), day.atTime(11, 0));
+        assertThat(alternatives.get(0).getEndTime()).isEqualTo(day.atTime(10, 0));
+        assertThat(alternatives).allMatch(slot -> slot.getBarberId().equals("barber1"));
+    }
+
+    @Test
+    @DisplayName("Sin horario calculado no sugiere nada ni consulta la disponibilidad")
+    void shouldReturnEmpty_WhenEndIsMissing() {
+        // ACT & ASSERT
+        assertThat(suggester.suggest("barber1", day.atTime(10, 0), null)).isEmpty();
+        verifyNoInteractions(availabilityService);
+    }
+}
@@ -0,0 +1,129 @@
+package com.sw3.reservation_microservice.service.availability;
+
+import com.sw3.reservation_microservice.access.BarberRepository;
+import com.sw3.reservation_microservice.access.ReservationRepository;
+import com.sw3.reservation_microservice.access.WorkShiftRepository;
+import com.sw3.reservation_microservice.controller.dto.response.ProjectionConsistencyDTO;
+import com.sw3.reservation_microservice.domain.model.Reservation;
+import com.sw3.reservation_microservice.domain.model.WorkShift;
+import com.sw3.reservation_microservice.service.event.BarberChangedEvent;
+import com.sw3.reservation_microservice.service.event.ReservationChangedEvent;
+import com.sw3.reservation_microservice.utils.BlockBitmap;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AvailabilityProjectionTest {
+
+    @Mock
+    private DayOccupancyMap occupancyMap;
+
+    @Mock
+    private BarberRepository barberRepository;
+
+    @Mock
+    private ReservationRepository reservationRepository;
+
+    @Mock
+    private WorkShiftRepository workShiftRepository;
+
+    private AvailabilityProjection projection;
+
+    private LocalDate monday;
+
+    @BeforeEach
+    void setUp() {
+        projection = new AvailabilityProjection(occupancyMap, barberRepository, reservationRepository, workShiftRepository, 30);
+        monday = LocalDate.now().plusWeeks(1).with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+        when(barberRepository.existsByIdAndAvailabilityStatusTrue("barber1")).thenReturn(true);
+        lenient().when(occupancyMap.shiftBlocks("barber1", DayOfWeek.MONDAY))
+                .thenAnswer(i -> List.of(BlockBitmap.inward(LocalTime.of(9, 0), LocalTime.of(12, 0))));
+    }
+
+    @Test
+    @DisplayName("La lectura repetida es una búsqueda por clave; una reserva actualiza solo su día")
+    void shouldServeFromProjection_AndRefreshAffectedDay() {
+        // ARRANGE
+        when(occupancyMap.bookedBlocks("barber1", monday)).thenReturn(BlockBitmap.empty());
+        projection.freeBlocks("barber1", monday);
+        projection.freeBlocks("barber1", monday);
+        verify(occupancyMap, times(1)).bookedBlocks("barber1", monday);
+
+        // ACT: se reserva 10:00-10:30
+        when(occupancyMap.bookedBlocks("barber1", monday))
+                .thenReturn(BlockBitmap.outward(LocalTime.of(10, 0), LocalTime.of(10, 30)));
+        projection.onReservationChanged(ReservationChangedEvent.of(ReservationChangedEvent.Type.CREATED,
+                reservation(monday.atTime(10, 0), monday.atTime(10, 30))));
+
+        // ASSERT
+        long[] free = projection.freeBlocks("barber1", monday).get(0);
+        assertThat(BlockBitmap.get(free, 60)).isFalse();
+        assertThat(BlockBitmap.get(free, 63)).isTrue();
+        verify(occupancyMap, times(2)).bookedBlocks("barber1", monday);
+    }
+
+    @Test
+    @DisplayName("Un barbero desactivado deja de tener disponibilidad")
+    void shouldHideInactiveBarber() {
+        // ARRANGE
+        when(occupancyMap.bookedBlocks("barber1", monday)).thenReturn(BlockBitmap.empty());
+        assertThat(projection.freeBlocks("barber1", monday)).hasSize(1);
+
+        // ACT
+        projection.onBarberChanged(new BarberChangedEvent("barber1", false));
+
+        // ASSERT
+        assertThat(projection.freeBlocks("barber1", monday)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("La verificación detecta y corrige un día que no coincide con las tablas")
+    void shouldReportAndRepairMismatch() {
+        // ARRANGE: la proyección no vio la reserva 09:00-09:30 que sí está en la BD
+        when(occupancyMap.bookedBlocks("barber1", monday)).thenReturn(BlockBitmap.empty());
+        when(workShiftRepository.findByBarberId("barber1")).thenReturn(List.of(shift("LUNES", 9, 12)));
+        when(reservationRepository.findOverlappingReservations(eq("barber1"), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(List.of(reservation(monday.atTime(9, 0), monday.atTime(9, 30))));
+
+        // ACT
+        ProjectionConsistencyDTO report = projection.checkConsistency("barber1", monday, monday);
+
+        // ASSERT
+        assertThat(report.getDaysChecked()).isEqualTo(1);
+        assertThat(report.getMismatchedDays()).containsExactly(monday);
+        assertThat(BlockBitmap.get(projection.freeBlocks("barber1", monday).get(0), 54)).isFalse();
+    }
+
+    private Reservation reservation(LocalDateTime start, LocalDateTime end) {
+        Reservation reservation = new Reservation();
+        reservation.setId(1L);
+        reservation.setBarberId("barber1");
+        reservation.setStartTime(start);
+        reservation.setEndTime(end);
+        return reservation;
+    }
+
+    private WorkShift shift(String day, int fromHour, int toHour) {
+        WorkShift shift = new WorkShift();
+        shift.setBarberId("barber1");
+        shift.setDayOfWeek(day);
+        shift.setStartTime(LocalTime.of(fromHour, 0));
+        shift.setEndTime(LocalTime.of(toHour, 0));
+        return shift;
+    }
+}
@@ -0,0 +1,125 @@
+package com.sw3.reservation_microservice.service.availability;
+
+import com.sw3.reservation_microservice.access.BarberServiceRepository;
+import com.sw3.reservation_microservice.access.ServiceRepository;
+import com.sw3.reservation_microservice.config.controladorExcepciones.excepcionesPropias.ReservationValidationException;
+import com.sw3.reservation_microservice.controller.dto.response.AvailabilityResponseDTO;
+import com.sw3.reservation_microservice.domain.model.ServiceEntity;
+import com.sw3.reservation_microservice.utils.BlockBitmap;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AvailabilityServiceTest {
+
+    @Mock
+    private ServiceRepository serviceRepository;
+
+    @Mock
+    private BarberServiceRepository barberServiceRepository;
+
+    @Mock
+    private AvailabilityProjection projection;
+
+    @Mock
+    private SlotHoldRegistry slotHoldRegistry;
+
+    @InjectMocks
+    private AvailabilityService availabilityService;
+
+    private LocalDate monday;
+
+    @BeforeEach
+    void setUp() {
+        monday = LocalDate.now().plusWeeks(1).with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+    }
+
+    @Test
+    @DisplayName("Devuelve los inicios donde el servicio cabe entre turnos, reservas y holds")
+    void shouldSubtractBookingsAndHoldsFromShift() {
+        // ARRANGE: turno 09:00-11:00, reserva 09:30-10:00, hold 10:30-10:40, servicio de 25 min (3 bloques)
+        when(serviceRepository.findById(5L)).thenReturn(Optional.of(service(25)));
+        when(barberServiceRepository.existsByBarberIdAndServiceIdAndActiveTrue("barber1", 5L)).thenReturn(true);
+        long[] free = BlockBitmap.inward(LocalTime.of(9, 0), LocalTime.of(11, 0));
+        BlockBitmap.andNot(free, BlockBitmap.outward(LocalTime.of(9, 30), LocalTime.of(10, 0)));
+        when(projection.freeBlocks("barber1", monday)).thenReturn(List.of(free));
+        when(slotHoldRegistry.heldBlocks("barber1", monday))
+                .thenReturn(BlockBitmap.outward(LocalTime.of(10, 30), LocalTime.of(10, 40)));
+
+        // ACT
+        AvailabilityResponseDTO response = availabilityService.findAvailableSlots("barber1", monday, 5L);
+
+        // ASSERT: 09:00-09:30 libre (cabe 09:00), 10:00-10:30 libre (cabe 10:00), 10:40-11:00 es muy corto
+        assertThat(response.getDurationMinutes()).isEqualTo(30);
+        assertThat(response.getStartTimes()).containsExactly(LocalTime.of(9, 0), LocalTime.of(10, 0));
+    }
+
+    @Test
+    @DisplayName("Sin turnos ese día no hay horarios disponibles")
+    void shouldReturnEmpty_WhenNoShift() {
+        // ARRANGE
+        when(serviceRepository.findById(5L)).thenReturn(Optional.of(service(10)));
+        when(barberServiceRepository.existsByBarberIdAndServiceIdAndActiveTrue("barber1", 5L)).thenReturn(true);
+        when(projection.freeBlocks("barber1", monday)).thenReturn(List.of());
+
+        // ACT
+        AvailabilityResponseDTO response = availabilityService.findAvailableSlots("barber1", monday, 5L);
+
+        // ASSERT
+        assertThat(response.getStartTimes()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Debe lanzar excepción si el servicio no está activo")
+    void shouldThrow_WhenServiceInactive() {
+        // ARRANGE
+        ServiceEntity inactive = service(30);
+        inactive.setAvailabilityStatus(false);
+        when(serviceRepository.findById(5L)).thenReturn(Optional.of(inactive));
+
+        // ACT & ASSERT
+        assertThrows(ReservationValidationException.class,
+                () -> availabilityService.findAvailableSlots("barber1", monday, 5L));
+    }
+
+    @Test
+    @DisplayName("El mapa de calor cuenta los minutos libres de cada día sin contar dos veces turnos traslapados")
+    void shouldCountFreeMinutesPerDay() {
+        // ARRANGE: lunes con turnos 09:00-11:00 y 10:00-12:00 (se traslapan) y una reserva 09:00-09:30
+        long[] morning = BlockBitmap.inward(LocalTime.of(9, 0), LocalTime.of(11, 0));
+        long[] late = BlockBitmap.inward(LocalTime.of(10, 0), LocalTime.of(12, 0));
+        BlockBitmap.andNot(morning, BlockBitmap.outward(LocalTime.of(9, 0), LocalTime.of(9, 30)));
+        when(projection.freeBlocks("barber1", monday)).thenReturn(List.of(morning, late));
+        when(projection.freeBlocks("barber1", monday.plusDays(1))).thenReturn(List.of());
+
+        // ACT
+        int[] minutes = availabilityService.freeMinutesByDay("barber1", monday, monday.plusDays(1));
+
+        // ASSERT: 09:30-12:00 = 150 minutos; martes sin turnos
+        assertThat(minutes).containsExactly(150, 0);
+    }
+
+    private ServiceEntity service(int duration) {
+        ServiceEntity service = new ServiceEntity();
+        service.setId(5L);
+        service.setDuration(duration);
+        service.setAvailabilityStatus(true);
+        return service;
+    }
+}
@@ -0,0 +1,141 @@
+package com.sw3.reservation_microservice.service.availability;
+
+import com.sw3.reservation_microservice.access.BarberServiceRepository;
+import com.sw3.reservation_microservice.domain.model.Reservation;
+import com.sw3.reservation_microservice.domain.model.ReservationStatus;
+import com.sw3.reservation_microservice.service.event.ReservationChangedEvent;
+import com.sw3.reservation_microservice.service.event.WorkShiftChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(MockitoExtension.class)
+class AvailabilityStreamRegistryTest {
+
+    @Mock
+    private AvailabilityService availabilityService;
+
+    @Mock
+    private BarberServiceRepository barberServiceRepository;
+
+    /** Tareas de envío pendientes; el test decide cuándo corren */
+    private final List<Runnable> pendingDrains = new ArrayList<>();
+
+    private AvailabilityStreamRegistry registry;
+
+    private LocalDateTime base;
+
+    @BeforeEach
+    void setUp() {
+        registry = new AvailabilityStreamRegistry(availabilityService, barberServiceRepository,
+                pendingDrains::add, 2, 60_000);
+        base = LocalDateTime.now().plusDays(1).withHour(10).withMinute(0).withSecond(0).withNano(0);
+    }
+
+    @Test
+    @DisplayName("Reprogramar envía slot-freed del horario anterior y slot-taken del nuevo solo al barbero afectado")
+    void shouldSendFreedThenTaken_OnReschedule() {
+        // ARRANGE
+        CapturingEmitter barber1 = new CapturingEmitter();
+        CapturingEmitter barber2 = new CapturingEmitter();
+        registry.register(barber1, List.of("barber1"));
+        registry.register(barber2, List.of("barber2"));
+        Reservation moved = reservation(base.plusHours(1), base.plusHours(1).plusMinutes(30));
+
+        // ACT
+        registry.onReservationChanged(ReservationChangedEvent.rescheduled(moved, base, base.plusMinutes(30)));
+        runPendingDrains();
+
+        // ASSERT
+        assertThat(barber1.sent).hasSize(2);
+        assertThat(barber2.sent).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Un cliente lento que llena su buffer se desconecta sin afectar a los demás")
+    void shouldDropSlowSubscriber_WhenBufferIsFull() {
+        // ARRANGE
+        CapturingEmitter slow = new CapturingEmitter();
+        registry.register(slow, List.of("barber1"));
+
+        // ACT: el envío nunca corre, así que el tercer delta desborda el buffer de 2
+        registry.onWorkShiftChanged(new WorkShiftChangedEvent("barber1"));
+        registry.onWorkShiftChanged(new WorkShiftChangedEvent("barber1"));
+        assertThat(registry.subscriberCount("barber1")).isEqualTo(1);
+        registry.onWorkShiftChanged(new WorkShiftChangedEvent("barber1"));
+
+        // ASSERT
+        assertThat(registry.subscriberCount("barber1")).isZero();
+        assertThat(slow.completed).isTrue();
+
+        CapturingEmitter fresh = new CapturingEmitter();
+        registry.register(fresh, List.of("barber1"));
+        registry.onReservationChanged(ReservationChangedEvent.of(ReservationChangedEvent.Type.CREATED,
+                reservation(base, base.plusMinutes(30))));
+        runPendingDrains();
+        assertThat(slow.sent).isEmpty();
+        assertThat(fresh.sent).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Eliminar una reserva ya cancelada no envía nada")
+    void shouldNotSendFreed_WhenDeletingCancelledReservation() {
+        // ARRANGE
+        CapturingEmitter emitter = new CapturingEmitter();
+        registry.register(emitter, List.of("barber1"));
+        Reservation cancelled = reservation(base, base.plusMinutes(30));
+        cancelled.setStatus(ReservationStatus.CANCELADA);
+
+        // ACT
+        registry.onReservationChanged(ReservationChangedEvent.of(ReservationChangedEvent.Type.DELETED, cancelled));
+        runPendingDrains();
+
+        // ASSERT
+        assertThat(emitter.sent).isEmpty();
+        assertThat(pendingDrains).isEmpty();
+    }
+
+    private void runPendingDrains() {
+        while (!pendingDrains.isEmpty()) {
+            pendingDrains.remove(0).run();
+        }
+    }
+
+    private Reservation reservation(LocalDateTime start, LocalDateTime end) {
+        Reservation reservation = new Reservation();
+        reservation.setId(1L);
+        reservation.setBarberId("barber1");
+        reservation.setStartTime(start);
+        reservation.setEndTime(end);
+        reservation.setStatus(ReservationStatus.EN_ESPERA);
+        return reservation;
+    }
+
+    /** Emisor que guarda los eventos en lugar de escribirlos en una respuesta HTTP */
+    private static final class CapturingEmitter extends SseEmitter {
+
+        private final List<SseEventBuilder> sent = new ArrayList<>();
+        private boolean completed;
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            sent.add(builder);
+        }
+
+        @Override
+        public synchronized void complete() {
+            completed = true;
+            super.complete();
+        }
+    }
+}
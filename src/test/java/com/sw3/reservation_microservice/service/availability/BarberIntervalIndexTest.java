@@ -0,0 +1,92 @@
+package com.sw3.reservation_microservice.service.availability;
+
+import com.sw3.reservation_microservice.access.ReservationRepository;
+import com.sw3.reservation_microservice.domain.model.Reservation;
+import com.sw3.reservation_microservice.domain.model.ReservationStatus;
+import com.sw3.reservation_microservice.service.event.ReservationChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BarberIntervalIndexTest {
+
+    @Mock
+    private ReservationRepository reservationRepository;
+
+    @InjectMocks
+    private BarberIntervalIndex index;
+
+    private LocalDateTime base;
+
+    @BeforeEach
+    void setUp() {
+        base = LocalDateTime.now().plusDays(1).withHour(10).withMinute(0).withSecond(0).withNano(0);
+        when(reservationRepository.findOccupyingReservationsEndingAfter(any(LocalDateTime.class)))
+                .thenReturn(List.of(reservation(1L, "barber1", base, base.plusMinutes(30))));
+        index.load();
+    }
+
+    @Test
+    @DisplayName("Detecta solapamiento con una reserva cargada al arrancar")
+    void shouldDetectOverlap_WithLoadedReservation() {
+        assertThat(index.hasOverlap("barber1", base.plusMinutes(20), base.plusMinutes(50))).isTrue();
+        assertThat(index.hasOverlap("barber1", base.minusMinutes(20), base.plusMinutes(10))).isTrue();
+    }
+
+    @Test
+    @DisplayName("Intervalos contiguos u otro barbero no se consideran solapados")
+    void shouldNotOverlap_WhenAdjacentOrOtherBarber() {
+        assertThat(index.hasOverlap("barber1", base.plusMinutes(30), base.plusMinutes(60))).isFalse();
+        assertThat(index.hasOverlap("barber1", base.minusMinutes(30), base)).isFalse();
+        assertThat(index.hasOverlap("barber2", base, base.plusMinutes(30))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Una reserva larga que empieza mucho antes sigue detectándose")
+    void shouldDetectOverlap_WithLongReservationStartingEarlier() {
+        index.onReservationChanged(ReservationChangedEvent.of(ReservationChangedEvent.Type.CREATED,
+                reservation(2L, "barber1", base.plusHours(2), base.plusHours(5))));
+        index.onReservationChanged(ReservationChangedEvent.of(ReservationChangedEvent.Type.CREATED,
+                reservation(3L, "barber1", base.plusHours(3), base.plusHours(3).plusMinutes(10))));
+
+        assertThat(index.hasOverlap("barber1", base.plusHours(4), base.plusHours(4).plusMinutes(30))).isTrue();
+    }
+
+    @Test
+    @DisplayName("Cancelar libera el horario y reprogramar lo mueve")
+    void shouldFollowCancelAndReschedule() {
+        Reservation moved = reservation(1L, "barber1", base.plusHours(1), base.plusHours(1).plusMinutes(30));
+        index.onReservationChanged(ReservationChangedEvent.rescheduled(moved, base, base.plusMinutes(30)));
+
+        assertThat(index.hasOverlap("barber1", base, base.plusMinutes(30))).isFalse();
+        assertThat(index.hasOverlap("barber1", base.plusHours(1), base.plusHours(1).plusMinutes(10))).isTrue();
+        // La propia reserva no choca consigo misma al reprogramarse
+        assertThat(index.hasOverlap("barber1", base.plusHours(1), base.plusHours(2), 1L)).isFalse();
+
+        moved.setStatus(ReservationStatus.CANCELADA);
+        index.onReservationChanged(ReservationChangedEvent.of(ReservationChangedEvent.Type.CANCELLED, moved));
+
+        assertThat(index.hasOverlap("barber1", base.plusHours(1), base.plusHours(2))).isFalse();
+    }
+
+    private Reservation reservation(Long id, String barberId, LocalDateTime start, LocalDateTime end) {
+        Reservation reservation = new Reservation();
+        reservation.setId(id);
+        reservation.setBarberId(barberId);
+        reservation.setStartTime(start);
+        reservation.setEndTime(end);
+        return reservation;
+    }
+}
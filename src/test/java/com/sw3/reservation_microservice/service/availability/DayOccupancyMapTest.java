@@ -0,0 +1,114 @@
+package com.sw3.reservation_microservice.service.availability;
+
+import com.sw3.reservation_microservice.access.ReservationRepository;
+import com.sw3.reservation_microservice.domain.model.Reservation;
+import com.sw3.reservation_microservice.domain.model.ReservationStatus;
+import com.sw3.reservation_microservice.service.event.CacheInvalidatedEvent;
+import com.sw3.reservation_microservice.service.event.ReservationChangedEvent;
+import com.sw3.reservation_microservice.utils.BlockBitmap;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DayOccupancyMapTest {
+
+    @Mock
+    private ReservationRepository reservationRepository;
+
+    @Mock
+    private WeeklyShiftTemplateCache shiftTemplates;
+
+    @Mock
+    private BarberIntervalIndex intervalIndex;
+
+    @InjectMocks
+    private DayOccupancyMap occupancyMap;
+
+    private LocalDateTime monday;
+
+    @BeforeEach
+    void setUp() {
+        monday = LocalDateTime.now().plusWeeks(1).with(TemporalAdjusters.next(DayOfWeek.MONDAY))
+                .withHour(10).withMinute(0).withSecond(0).withNano(0);
+        when(reservationRepository.findOccupyingReservationsEndingAfter(any(LocalDateTime.class)))
+                .thenReturn(List.of(reservation(1L, monday, monday.plusMinutes(30))));
+        occupancyMap.load();
+    }
+
+    @Test
+    @DisplayName("Si los bits no se cruzan, el horario está libre sin consultar el índice exacto")
+    void shouldAnswerFree_FromBitmapOnly() {
+        assertThat(occupancyMap.hasOverlap("barber1", monday.plusMinutes(30), monday.plusMinutes(60))).isFalse();
+        assertThat(occupancyMap.hasOverlap("barber2", monday, monday.plusMinutes(30))).isFalse();
+        verifyNoInteractions(intervalIndex);
+    }
+
+    @Test
+    @DisplayName("Si los bits se cruzan, el índice exacto confirma el solapamiento")
+    void shouldConfirmWithIndex_WhenBitsIntersect() {
+        when(intervalIndex.hasOverlap("barber1", monday.plusMinutes(20), monday.plusMinutes(50), null)).thenReturn(true);
+
+        assertThat(occupancyMap.hasOverlap("barber1", monday.plusMinutes(20), monday.plusMinutes(50))).isTrue();
+    }
+
+    @Test
+    @DisplayName("Quitar una reserva fuera de la rejilla no libera el bloque que comparte con otra")
+    void shouldKeepSharedBlock_WhenNeighbourIsCancelled() {
+        // ARRANGE: 10:30-10:35 y 10:35-11:00 comparten el bloque de las 10:30
+        occupancyMap.onReservationChanged(ReservationChangedEvent.of(ReservationChangedEvent.Type.CREATED,
+                reservation(2L, monday.plusMinutes(30), monday.plusMinutes(35))));
+        occupancyMap.onReservationChanged(ReservationChangedEvent.of(ReservationChangedEvent.Type.CREATED,
+                reservation(3L, monday.plusMinutes(35), monday.plusMinutes(60))));
+
+        // ACT
+        Reservation cancelled = reservation(2L, monday.plusMinutes(30), monday.plusMinutes(35));
+        cancelled.setStatus(ReservationStatus.CANCELADA);
+        occupancyMap.onReservationChanged(ReservationChangedEvent.of(ReservationChangedEvent.Type.CANCELLED, cancelled));
+
+        // ASSERT: bloques 60-62 (10:00-10:30) y 63-65 (10:30-11:00) siguen ocupados
+        long[] booked = occupancyMap.bookedBlocks("barber1", monday.toLocalDate());
+        assertThat(BlockBitmap.containsAll(booked, BlockBitmap.range(60, 66))).isTrue();
+        assertThat(BlockBitmap.intersects(booked, BlockBitmap.range(66, 144))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Una invalidación de otro nodo recarga las reservas del barbero desde la BD")
+    void shouldReloadBarber_OnRemoteInvalidation() {
+        // ARRANGE: en otro nodo se canceló la reserva 1 y se creó la 4 a las 12:00
+        when(reservationRepository.findOccupyingReservationsByBarberEndingAfter(eq("barber1"), any(LocalDateTime.class)))
+                .thenReturn(List.of(reservation(4L, monday.plusHours(2), monday.plusHours(2).plusMinutes(30))));
+
+        // ACT
+        occupancyMap.onCacheInvalidated(new CacheInvalidatedEvent(Set.of("barber1"), Set.of()));
+
+        // ASSERT: 10:00 (bloque 60) queda libre y 12:00 (bloque 72) ocupado
+        long[] booked = occupancyMap.bookedBlocks("barber1", monday.toLocalDate());
+        assertThat(BlockBitmap.intersects(booked, BlockBitmap.range(60, 63))).isFalse();
+        assertThat(BlockBitmap.containsAll(booked, BlockBitmap.range(72, 75))).isTrue();
+    }
+
+    private Reservation reservation(Long id, LocalDateTime start, LocalDateTime end) {
+        Reservation reservation = new Reservation();
+        reservation.setId(id);
+        reservation.setBarberId("barber1");
+        reservation.setStartTime(start);
+        reservation.setEndTime(end);
+        return reservation;
+    }
+}
@@ -0,0 +1,106 @@
+package com.sw3.reservation_microservice.service.availability;
+
+import com.sw3.reservation_microservice.access.BarberServiceRepository;
+import com.sw3.reservation_microservice.config.controladorExcepciones.excepcionesPropias.ReservationValidationException;
+import com.sw3.reservation_microservice.controller.dto.response.AvailableSlotDTO;
+import com.sw3.reservation_microservice.domain.model.ServiceEntity;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EarliestSlotFinderTest {
+
+    @Mock
+    private AvailabilityService availabilityService;
+
+    @Mock
+    private BarberServiceRepository barberServiceRepository;
+
+    private ForkJoinPool pool;
+
+    private EarliestSlotFinder finder;
+
+    private LocalDate day;
+
+    @BeforeEach
+    void setUp() {
+        pool = new ForkJoinPool(4);
+        finder = new EarliestSlotFinder(availabilityService, barberServiceRepository, pool, 50, 14);
+        day = LocalDate.now().plusDays(3);
+
+        ServiceEntity service = new ServiceEntity();
+        service.setDuration(30);
+        service.setAvailabilityStatus(true);
+        lenient().when(availabilityService.activeService(7L)).thenReturn(service);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    @DisplayName("Devuelve los N primeros horarios mezclando barberos, ordenados por inicio")
+    void shouldMergeEarliestSlotsAcrossBarbers() {
+        // ARRANGE
+        when(barberServiceRepository.findAvailableBarberIdsByServiceId(7L)).thenReturn(List.of("b1", "b2", "b3"));
+        stubDay("b1", LocalTime.of(11, 0), LocalTime.of(12, 0));
+        stubDay("b2", LocalTime.of(9, 0), LocalTime.of(13, 0));
+        stubDay("b3", LocalTime.of(10, 0));
+
+        // ACT
+        List<AvailableSlotDTO> slots = finder.findEarliest(7L, day.atStartOfDay(), day.atTime(23, 0), 3);
+
+        // ASSERT
+        assertThat(slots).extracting(AvailableSlotDTO::getBarberId).containsExactly("b2", "b3", "b1");
+        assertThat(slots.get(0).getStartTime()).isEqualTo(day.atTime(9, 0));
+        assertThat(slots.get(0).getEndTime()).isEqualTo(day.atTime(9, 30));
+    }
+
+    @Test
+    @DisplayName("Con el top lleno, un barbero deja de recorrer días posteriores")
+    void shouldStopScanning_WhenTopIsFull() {
+        // ARRANGE: un solo barbero con horarios el primer día; los demás días no deberían consultarse
+        when(barberServiceRepository.findAvailableBarberIdsByServiceId(7L)).thenReturn(List.of("b1"));
+        stubDay("b1", LocalTime.of(9, 0), LocalTime.of(10, 0));
+
+        // ACT
+        List<AvailableSlotDTO> slots = finder.findEarliest(7L, day.atStartOfDay(), day.plusDays(5).atTime(20, 0), 2);
+
+        // ASSERT
+        assertThat(slots).hasSize(2);
+        verify(availabilityService, times(1)).freeStartTimes(eq("b1"), any(LocalDate.class), anyInt(), any(LocalDateTime.class));
+    }
+
+    @Test
+    @DisplayName("Rechaza ventanas de búsqueda demasiado largas")
+    void shouldRejectTooLongWindow() {
+        assertThrows(ReservationValidationException.class,
+                () -> finder.findEarliest(7L, day.atStartOfDay(), day.plusDays(30).atStartOfDay(), 3));
+    }
+
+    private void stubDay(String barberId, LocalTime... times) {
+        lenient().when(availabilityService.freeStartTimes(eq(barberId), any(LocalDate.class), eq(3), any(LocalDateTime.class)))
+                .thenAnswer(invocation -> invocation.getArgument(1).equals(day)
+                        ? new TreeSet<>(List.of(times)) : new TreeSet<LocalTime>());
+    }
+}
@@ -0,0 +1,51 @@
+package com.sw3.reservation_microservice.service.availability;
+
+import com.sw3.reservation_microservice.access.ReservationRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReservationOverlapCheckerTest {
+
+    @Mock
+    private DayOccupancyMap occupancyMap;
+
+    @Mock
+    private ReservationRepository reservationRepository;
+
+    private final LocalDateTime start = LocalDateTime.of(2030, 1, 7, 10, 0);
+    private final LocalDateTime end = start.plusMinutes(30);
+
+    @Test
+    @DisplayName("Con un solo nodo el solapamiento se responde en memoria")
+    void shouldUseOccupancyMap_WithLocalBackend() {
+        // ARRANGE
+        ReservationOverlapChecker checker = new ReservationOverlapChecker(occupancyMap, reservationRepository, "local");
+        when(occupancyMap.hasOverlap("barber1", start, end, null)).thenReturn(true);
+
+        // ACT & ASSERT
+        assertThat(checker.hasOverlap("barber1", start, end)).isTrue();
+        verifyNoInteractions(reservationRepository);
+    }
+
+    @Test
+    @DisplayName("Con el backend postgres se consulta la BD: la memoria no ve aún las reservas de otros nodos")
+    void shouldQueryDatabase_WithPostgresBackend() {
+        // ARRANGE: otro nodo confirmó una reserva que este nodo todavía no conoce
+        ReservationOverlapChecker checker = new ReservationOverlapChecker(occupancyMap, reservationRepository, "postgres");
+        when(reservationRepository.existsOverlapping("barber1", start, end, 7L)).thenReturn(true);
+
+        // ACT & ASSERT
+        assertThat(checker.hasOverlap("barber1", start, end, 7L)).isTrue();
+        verifyNoInteractions(occupancyMap);
+    }
+}
@@ -0,0 +1,99 @@
+package com.sw3.reservation_microservice.service.availability;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SlotHoldRegistryTest {
+
+    private MutableClock clock;
+    private SlotHoldRegistry registry;
+    private LocalDateTime base;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2030-01-10T12:00:00Z"));
+        // TTL de 30 s, ticks de 1 s y una rueda de solo 8 casillas (obliga a dar varias vueltas)
+        registry = new SlotHoldRegistry(clock, Duration.ofSeconds(30), 1000, 8);
+        base = LocalDateTime.of(2030, 1, 11, 10, 0);
+    }
+
+    @Test
+    @DisplayName("Un hold bloquea el horario a otros clientes pero no a su dueño")
+    void shouldBlockOtherClients_WhileHoldIsActive() {
+        SlotHold hold = registry.place("barber1", "cliente1", base, base.plusMinutes(30));
+
+        assertThat(registry.hasConflictingHold("barber1", base.plusMinutes(10), base.plusMinutes(40), "cliente2")).isTrue();
+        assertThat(registry.hasConflictingHold("barber1", base.plusMinutes(10), base.plusMinutes(40), "cliente1")).isFalse();
+        assertThat(registry.hasConflictingHold("barber1", base.plusMinutes(30), base.plusMinutes(60), "cliente2")).isFalse();
+        assertThat(registry.covers(hold.getToken(), "barber1", "cliente1", base, base.plusMinutes(30))).isTrue();
+        assertThat(registry.covers(hold.getToken(), "barber1", "cliente2", base, base.plusMinutes(30))).isFalse();
+    }
+
+    @Test
+    @DisplayName("La rueda de tiempo elimina los holds vencidos y respeta los que siguen vigentes")
+    void shouldExpireHolds_WhenWheelAdvances() {
+        SlotHold first = registry.place("barber1", "cliente1", base, base.plusMinutes(30));
+        clock.advance(Duration.ofSeconds(20));
+        SlotHold second = registry.place("barber1", "cliente2", base.plusHours(1), base.plusHours(1).plusMinutes(30));
+
+        // A los 31 s vence el primero; el segundo (30 s desde el segundo 20) sigue vigente
+        for (int i = 0; i < 11; i++) {
+            clock.advance(Duration.ofSeconds(1));
+            registry.advance();
+        }
+
+        assertThat(registry.findActive(first.getToken())).isEmpty();
+        assertThat(registry.findActive(second.getToken())).isPresent();
+        assertThat(registry.activeHolds()).isEqualTo(1);
+        assertThat(registry.hasConflictingHold("barber1", base, base.plusMinutes(30), "cliente3")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Un hold liberado deja de contar de inmediato")
+    void shouldFreeSlot_WhenHoldIsReleased() {
+        SlotHold hold = registry.place("barber1", "cliente1", base, base.plusMinutes(30));
+
+        registry.release(hold.getToken());
+
+        assertThat(registry.hasConflictingHold("barber1", base, base.plusMinutes(30), "cliente2")).isFalse();
+        assertThat(registry.activeHolds()).isZero();
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
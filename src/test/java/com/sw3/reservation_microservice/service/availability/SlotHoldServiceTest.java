@@ -0,0 +1,111 @@
+package com.sw3.reservation_microservice.service.availability;
+
+import com.sw3.reservation_microservice.config.controladorExcepciones.excepcionesPropias.ReservationValidationException;
+import com.sw3.reservation_microservice.controller.dto.request.CreateSlotHoldRequestDTO;
+import com.sw3.reservation_microservice.controller.dto.response.SlotHoldResponseDTO;
+import com.sw3.reservation_microservice.domain.model.ServiceEntity;
+import com.sw3.reservation_microservice.service.validation.ReservationValidationContext;
+import com.sw3.reservation_microservice.service.validation.ReservationValidatorChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class SlotHoldServiceTest {
+
+    @Mock
+    private ReservationValidatorChain validatorChain;
+
+    private SlotHoldRegistry registry;
+    private SlotHoldService slotHoldService;
+    private LocalDateTime start;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SlotHoldRegistry(300, 1000, 512);
+        // Máximo 2 holds por cliente y 3 por barbero
+        slotHoldService = new SlotHoldService(validatorChain, registry, 2, 3);
+        start = LocalDateTime.now().plusDays(1).withHour(10).withMinute(0).withSecond(0).withNano(0);
+    }
+
+    @Test
+    @DisplayName("El hold pasa por las validaciones de turno y disponibilidad de la reserva")
+    void shouldRejectHold_WhenAvailabilityChecksFail() {
+        // ARRANGE: fuera del turno del barbero
+        ReservationValidationContext resolved = resolved("cliente1", start);
+        doThrow(new ReservationValidationException("Fuera de turno"))
+                .when(validatorChain).checkAvailability(resolved);
+
+        // ACT & ASSERT
+        assertThrows(ReservationValidationException.class,
+                () -> slotHoldService.placeHold(request("cliente1", start), resolved));
+        assertThat(registry.activeHolds()).isZero();
+    }
+
+    @Test
+    @DisplayName("Un cliente no puede apartar más horarios que el tope configurado")
+    void shouldRejectHold_WhenClientReachedLimit() {
+        // ARRANGE
+        slotHoldService.placeHold(request("cliente1", start), resolved("cliente1", start));
+        slotHoldService.placeHold(request("cliente1", start.plusHours(1)), resolved("cliente1", start.plusHours(1)));
+        ReservationValidationContext third = resolved("cliente1", start.plusHours(2));
+
+        // ACT & ASSERT
+        assertThrows(ReservationValidationException.class,
+                () -> slotHoldService.placeHold(request("cliente1", start.plusHours(2)), third));
+        verify(validatorChain, never()).checkAvailability(third);
+        assertThat(registry.activeHoldsOfClient("cliente1")).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Un barbero no acepta más holds que el tope configurado")
+    void shouldRejectHold_WhenBarberReachedLimit() {
+        // ARRANGE
+        for (int i = 0; i < 3; i++) {
+            String clientId = "cliente" + i;
+            slotHoldService.placeHold(request(clientId, start.plusHours(i)), resolved(clientId, start.plusHours(i)));
+        }
+
+        // ACT & ASSERT
+        assertThrows(ReservationValidationException.class,
+                () -> slotHoldService.placeHold(request("cliente9", start.plusHours(5)), resolved("cliente9", start.plusHours(5))));
+        assertThat(registry.activeHoldsOfBarber("barber1")).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Un hold válido queda registrado con la hora de fin del servicio")
+    void shouldPlaceHold_WhenChecksPass() {
+        // ACT
+        SlotHoldResponseDTO response = slotHoldService.placeHold(request("cliente1", start), resolved("cliente1", start));
+
+        // ASSERT
+        verify(validatorChain).checkAvailability(any());
+        assertThat(response.getEnd()).isEqualTo(start.plusMinutes(30));
+        assertThat(registry.findActive(response.getHoldToken())).isPresent();
+    }
+
+    private CreateSlotHoldRequestDTO request(String clientId, LocalDateTime startTime) {
+        return new CreateSlotHoldRequestDTO(clientId, "barber1", 1L, startTime);
+    }
+
+    private ReservationValidationContext resolved(String clientId, LocalDateTime startTime) {
+        ServiceEntity service = new ServiceEntity();
+        service.setId(1L);
+        service.setDuration(30);
+        ReservationValidationContext context = new ReservationValidationContext(request(clientId, startTime));
+        context.resolveService(service);
+        return context;
+    }
+}
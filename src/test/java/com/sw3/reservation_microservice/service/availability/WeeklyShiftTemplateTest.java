@@ -0,0 +1,57 @@
+package com.sw3.reservation_microservice.service.availability;
+
+import com.sw3.reservation_microservice.domain.model.WorkShift;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WeeklyShiftTemplateTest {
+
+    private final LocalDateTime monday = LocalDateTime.now().plusWeeks(1)
+            .with(TemporalAdjusters.next(DayOfWeek.MONDAY)).withSecond(0).withNano(0);
+
+    private final WeeklyShiftTemplate template = WeeklyShiftTemplate.compile(List.of(
+            shift("LUNES", LocalTime.of(12, 0), LocalTime.of(18, 0)),
+            shift("LUNES", LocalTime.of(8, 0), LocalTime.of(12, 0)),
+            shift("DESCONOCIDO", LocalTime.of(8, 0), LocalTime.of(12, 0))));
+
+    @Test
+    @DisplayName("La reserva cabe si cae completa dentro de un turno del día")
+    void shouldFitInsideOneShift() {
+        assertThat(template.fits(monday.withHour(11).withMinute(30), monday.withHour(12).withMinute(0))).isTrue();
+        assertThat(template.fits(monday.withHour(8).withMinute(0), monday.withHour(8).withMinute(10))).isTrue();
+        assertThat(template.fits(monday.withHour(17).withMinute(30), monday.withHour(18).withMinute(0))).isTrue();
+    }
+
+    @Test
+    @DisplayName("Cruzar de un turno a otro, salir del turno o caer en un día sin turnos no cabe")
+    void shouldNotFit_WhenCrossingOrOutsideShifts() {
+        assertThat(template.fits(monday.withHour(11).withMinute(30), monday.withHour(12).withMinute(10))).isFalse();
+        assertThat(template.fits(monday.withHour(7).withMinute(50), monday.withHour(8).withMinute(20))).isFalse();
+        assertThat(template.fits(monday.plusDays(1).withHour(9), monday.plusDays(1).withHour(10))).isFalse();
+        assertThat(template.hasShifts(DayOfWeek.TUESDAY)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Los turnos se describen ordenados para los mensajes de error")
+    void shouldDescribeShiftsInOrder() {
+        assertThat(template.describe(DayOfWeek.MONDAY)).isEqualTo("08:00 - 12:00, 12:00 - 18:00");
+        assertThat(template.blocks(DayOfWeek.MONDAY).length).isEqualTo(2);
+    }
+
+    private static WorkShift shift(String day, LocalTime start, LocalTime end) {
+        WorkShift shift = new WorkShift();
+        shift.setBarberId("barber1");
+        shift.setDayOfWeek(day);
+        shift.setStartTime(start);
+        shift.setEndTime(end);
+        return shift;
+    }
+}
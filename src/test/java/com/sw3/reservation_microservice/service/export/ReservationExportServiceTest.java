@@ -0,0 +1,81 @@
+package com.sw3.reservation_microservice.service.export;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sw3.reservation_microservice.access.ReservationRepository;
+import com.sw3.reservation_microservice.controller.dto.response.ReservationListItemDTO;
+import com.sw3.reservation_microservice.domain.model.ReservationStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReservationExportServiceTest {
+
+    @Mock
+    private ReservationRepository reservationRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private ReservationExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        exportService = new ReservationExportService(reservationRepository, objectMapper);
+    }
+
+    @Test
+    @DisplayName("Exporta como un arreglo JSON aunque las filas superen un lote")
+    void shouldExportJsonArray_AcrossBatches() throws Exception {
+        // ARRANGE: un lote completo y una fila más
+        int rows = ReservationRepository.EXPORT_BATCH_SIZE + 1;
+        when(reservationRepository.streamAllForExport())
+                .thenReturn(LongStream.rangeClosed(1, rows).mapToObj(ReservationExportServiceTest::reservation));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // ACT
+        long exported = exportService.export(out, ExportFormat.JSON);
+
+        // ASSERT
+        JsonNode array = objectMapper.readTree(out.toByteArray());
+        assertThat(exported).isEqualTo(rows);
+        assertThat(array.isArray()).isTrue();
+        assertThat(array).hasSize(rows);
+        assertThat(array.get(0).get("id").asLong()).isEqualTo(1L);
+        assertThat(array.get(rows - 1).get("status").asText()).isEqualTo("FINALIZADA");
+    }
+
+    @Test
+    @DisplayName("En NDJSON escribe un objeto por línea")
+    void shouldExportOneObjectPerLine_WhenNdjson() throws Exception {
+        // ARRANGE
+        when(reservationRepository.streamAllForExport()).thenReturn(Stream.of(reservation(1L), reservation(2L)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // ACT
+        exportService.export(out, ExportFormat.NDJSON);
+
+        // ASSERT
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(objectMapper.readTree(lines[1]).get("id").asLong()).isEqualTo(2L);
+    }
+
+    private static ReservationListItemDTO reservation(long id) {
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 10, 0).plusHours(id);
+        return new ReservationListItemDTO(id, "cliente" + id, "barber1", 1L, start, start.plusMinutes(30),
+                20.0, ReservationStatus.FINALIZADA);
+    }
+}
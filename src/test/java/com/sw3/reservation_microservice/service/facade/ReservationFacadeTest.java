@@ -0,0 +1,129 @@
+package com.sw3.reservation_microservice.service.facade;
+
+import com.sw3.reservation_microservice.controller.dto.request.CreateReservationRequestDTO;
+import com.sw3.reservation_microservice.domain.model.Reservation;
+import com.sw3.reservation_microservice.service.ReservationService;
+import com.sw3.reservation_microservice.service.availability.SlotHold;
+import com.sw3.reservation_microservice.service.availability.SlotHoldRegistry;
+import com.sw3.reservation_microservice.service.locking.BookingLockManager;
+import com.sw3.reservation_microservice.service.validation.ReservationValidationContext;
+import com.sw3.reservation_microservice.service.validation.ReservationValidatorChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReservationFacadeTest {
+
+    @Mock
+    private ReservationService reservationService;
+
+    @Mock
+    private BookingLockManager bookingLockManager;
+
+    @Mock
+    private ReservationValidatorChain validatorChain;
+
+    @Spy
+    private SlotHoldRegistry slotHoldRegistry = new SlotHoldRegistry(300, 1000, 512);
+
+    @InjectMocks
+    private ReservationFacade facade;
+
+    private LocalDateTime start;
+
+    @BeforeEach
+    void setUp() {
+        start = LocalDateTime.now().plusDays(1).withHour(10).withMinute(0).withSecond(0).withNano(0);
+        when(bookingLockManager.executeWithLock(eq("barber1"), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+    }
+
+    @Test
+    @DisplayName("El hold se consume al reservar el horario que cubre su propio cliente")
+    void shouldReleaseHold_WhenItCoversTheReservation() {
+        // ARRANGE
+        SlotHold hold = slotHoldRegistry.place("barber1", "clienteA", start, start.plusMinutes(30));
+        CreateReservationRequestDTO request = request("clienteA", hold.getToken());
+        when(reservationService.createReservation(eq(request), any())).thenReturn(reservation("clienteA"));
+
+        // ACT
+        facade.createReservation(request);
+
+        // ASSERT
+        assertThat(slotHoldRegistry.findActive(hold.getToken())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Un cliente que envía el token de otro no libera el hold ajeno")
+    void shouldKeepHold_WhenTokenBelongsToAnotherClient() {
+        // ARRANGE: A aparta las 10:00; B reserva otro horario enviando el token de A
+        SlotHold holdOfA = slotHoldRegistry.place("barber1", "clienteA", start, start.plusMinutes(30));
+        CreateReservationRequestDTO request = request("clienteB", holdOfA.getToken());
+        Reservation reservationOfB = reservation("clienteB");
+        reservationOfB.setStartTime(start.plusHours(2));
+        reservationOfB.setEndTime(start.plusHours(2).plusMinutes(30));
+        when(reservationService.createReservation(eq(request), any())).thenReturn(reservationOfB);
+
+        // ACT
+        facade.createReservation(request);
+
+        // ASSERT
+        assertThat(slotHoldRegistry.findActive(holdOfA.getToken())).isPresent();
+        assertThat(slotHoldRegistry.hasConflictingHold("barber1", start, start.plusMinutes(30), "clienteB")).isTrue();
+    }
+
+    @Test
+    @DisplayName("Servicio y barbero se validan antes de tomar el bloqueo y abrir la transacción")
+    void shouldResolveReferenceData_BeforeTakingTheLock() {
+        // ARRANGE
+        CreateReservationRequestDTO request = request("clienteA", null);
+        ReservationValidationContext resolved = new ReservationValidationContext(request);
+        when(validatorChain.resolve(request)).thenReturn(resolved);
+        when(reservationService.createReservation(request, resolved)).thenReturn(reservation("clienteA"));
+
+        // ACT
+        facade.createReservation(request);
+
+        // ASSERT
+        InOrder order = inOrder(validatorChain, bookingLockManager, reservationService);
+        order.verify(validatorChain).resolve(request);
+        order.verify(bookingLockManager).executeWithLock(eq("barber1"), any());
+        order.verify(reservationService).createReservation(request, resolved);
+    }
+
+    private CreateReservationRequestDTO request(String clientId, String holdToken) {
+        CreateReservationRequestDTO request = new CreateReservationRequestDTO();
+        request.setClientId(clientId);
+        request.setBarberId("barber1");
+        request.setServiceId(1L);
+        request.setStartTime(start);
+        request.setHoldToken(holdToken);
+        return request;
+    }
+
+    private Reservation reservation(String clientId) {
+        Reservation reservation = new Reservation();
+        reservation.setId(1L);
+        reservation.setClientId(clientId);
+        reservation.setBarberId("barber1");
+        reservation.setStartTime(start);
+        reservation.setEndTime(start.plusMinutes(30));
+        return reservation;
+    }
+}
@@ -0,0 +1,149 @@
+package com.sw3.reservation_microservice.service.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sw3.reservation_microservice.config.controladorExcepciones.excepcionesPropias.IdempotencyKeyConflictException;
+import com.sw3.reservation_microservice.controller.dto.request.CreateReservationRequestDTO;
+import com.sw3.reservation_microservice.domain.model.Reservation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class IdempotencyServiceTest {
+
+    private InMemoryIdempotencyStore store;
+    private IdempotencyService idempotencyService;
+    private PlatformTransactionManager transactionManager;
+
+    private CreateReservationRequestDTO request;
+
+    @BeforeEach
+    void setUp() {
+        store = new InMemoryIdempotencyStore(2);
+        transactionManager = mock(PlatformTransactionManager.class);
+        idempotencyService = new IdempotencyService(store, new ObjectMapper().findAndRegisterModules(), transactionManager, 60);
+
+        request = new CreateReservationRequestDTO("cliente1", "barber1", 1L,
+                LocalDateTime.of(2030, 1, 10, 10, 0), 20.0, null);
+    }
+
+    @Test
+    @DisplayName("Un reintento con la misma clave devuelve la reserva guardada sin volver a crearla")
+    void shouldReplayStoredResponse_WhenKeyIsReused() {
+        // ARRANGE
+        AtomicInteger executions = new AtomicInteger();
+
+        // ACT
+        Reservation first = idempotencyService.executeOnce("cliente1", "k1", request, Reservation.class,
+                () -> created(executions.incrementAndGet()));
+        Reservation retry = idempotencyService.executeOnce("cliente1", "k1", request, Reservation.class,
+                () -> created(executions.incrementAndGet()));
+
+        // ASSERT
+        assertThat(executions.get()).isEqualTo(1);
+        assertThat(retry.getId()).isEqualTo(first.getId());
+        assertThat(retry.getStartTime()).isEqualTo(first.getStartTime());
+        assertThat(idempotencyService.findReplay("cliente1", "k1", request, Reservation.class)).isPresent();
+        // La clave es por cliente: otro cliente con la misma clave no ve la respuesta
+        assertThat(idempotencyService.findReplay("cliente2", "k1", request, Reservation.class)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Reutilizar la clave con otra petición es un conflicto")
+    void shouldRejectKeyReuse_WithDifferentRequest() {
+        // ARRANGE
+        idempotencyService.executeOnce("cliente1", "k1", request, Reservation.class, () -> created(1));
+        request.setServiceId(2L);
+
+        // ACT & ASSERT
+        assertThrows(IdempotencyKeyConflictException.class,
+                () -> idempotencyService.findReplay("cliente1", "k1", request, Reservation.class));
+    }
+
+    @Test
+    @DisplayName("El almacén en memoria descarta la clave menos reciente al llenarse")
+    void shouldEvictLeastRecentlyUsed_WhenStoreIsFull() {
+        // ARRANGE
+        idempotencyService.executeOnce("cliente1", "k1", request, Reservation.class, () -> created(1));
+        idempotencyService.executeOnce("cliente1", "k2", request, Reservation.class, () -> created(2));
+
+        // ACT
+        idempotencyService.executeOnce("cliente1", "k3", request, Reservation.class, () -> created(3));
+
+        // ASSERT
+        assertThat(store.size()).isEqualTo(2);
+        assertThat(store.find(idempotencyService.scope("cliente1", "k1"))).isEmpty();
+        assertThat(store.find(idempotencyService.scope("cliente1", "k3"))).isPresent();
+    }
+
+    @Test
+    @DisplayName("Si la clave no se puede guardar, la reserva se deshace y el reintento no duplica")
+    void shouldRollbackReservation_WhenKeyCannotBeSaved() {
+        // ARRANGE: el almacén falla al guardar la clave después de crear la reserva
+        IdempotencyStore failingStore = mock(IdempotencyStore.class);
+        when(failingStore.find(any())).thenReturn(Optional.empty());
+        when(failingStore.save(any(), any())).thenThrow(new IllegalStateException("BD caída"));
+        IdempotencyService service = new IdempotencyService(failingStore, new ObjectMapper().findAndRegisterModules(),
+                transactionManager, 60);
+
+        // ACT & ASSERT
+        assertThrows(IllegalStateException.class,
+                () -> service.executeOnce("cliente1", "k1", request, Reservation.class, () -> created(1)));
+        verify(transactionManager).rollback(any());
+        verify(transactionManager, never()).commit(any());
+    }
+
+    @Test
+    @DisplayName("Si otra petición ya tomó la clave, la operación se deshace con un conflicto")
+    void shouldRejectAndRollback_WhenKeyWasTakenMeanwhile() {
+        // ARRANGE: la clave aparece guardada entre la consulta y el guardado
+        IdempotencyStore racingStore = mock(IdempotencyStore.class);
+        when(racingStore.find(any())).thenReturn(Optional.empty());
+        when(racingStore.save(any(), any())).thenReturn(false);
+        IdempotencyService service = new IdempotencyService(racingStore, new ObjectMapper().findAndRegisterModules(),
+                transactionManager, 60);
+
+        // ACT & ASSERT
+        assertThrows(IdempotencyKeyConflictException.class,
+                () -> service.executeOnce("cliente1", "k1", request, Reservation.class, () -> created(1)));
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    @DisplayName("La clave guardada mide siempre 64 caracteres aunque el clientId sea largo")
+    void shouldStoreFixedLengthKey_WhenClientIdIsLong() {
+        // ARRANGE
+        String longClientId = "c".repeat(400);
+
+        // ACT
+        String scopedKey = idempotencyService.scope(longClientId, "k".repeat(100));
+
+        // ASSERT
+        assertThat(scopedKey).hasSize(64);
+        assertThat(scopedKey).isNotEqualTo(idempotencyService.scope("cliente2", "k".repeat(100)));
+    }
+
+    private Reservation created(long id) {
+        Reservation reservation = new Reservation();
+        reservation.setId(id);
+        reservation.setClientId(request.getClientId());
+        reservation.setBarberId(request.getBarberId());
+        reservation.setServiceId(request.getServiceId());
+        reservation.setStartTime(request.getStartTime());
+        reservation.setEndTime(request.getStartTime().plusMinutes(30));
+        reservation.setPrice(request.getPrice());
+        return reservation;
+    }
+}
@@ -0,0 +1,80 @@
+package com.sw3.reservation_microservice.service.locking;
+
+import com.sw3.reservation_microservice.config.controladorExcepciones.excepcionesPropias.ReservationValidationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PostgresAdvisoryBookingLockManagerTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private TransactionStatus transactionStatus;
+
+    private PostgresAdvisoryBookingLockManager lockManager;
+
+    @BeforeEach
+    void setUp() {
+        when(transactionManager.getTransaction(any())).thenReturn(transactionStatus);
+        lockManager = new PostgresAdvisoryBookingLockManager(jdbcTemplate, transactionManager, 5000);
+    }
+
+    @Test
+    @DisplayName("El lock se toma dentro de la transacción de la operación y se libera con su commit")
+    void shouldLockInsideTheOperationTransaction() {
+        // ARRANGE
+        when(jdbcTemplate.queryForObject(eq("SELECT pg_try_advisory_xact_lock(?, ?)"), eq(Boolean.class), anyInt(), anyInt()))
+                .thenReturn(true);
+
+        // ACT
+        String result = lockManager.executeWithLock("barber1", () -> "reserva");
+
+        // ASSERT: una sola transacción (y conexión) para el lock y la operación
+        assertThat(result).isEqualTo("reserva");
+        InOrder order = inOrder(transactionManager, jdbcTemplate);
+        order.verify(transactionManager).getTransaction(any());
+        order.verify(jdbcTemplate).queryForObject(eq("SELECT pg_try_advisory_xact_lock(?, ?)"), eq(Boolean.class), anyInt(), anyInt());
+        order.verify(transactionManager).commit(transactionStatus);
+        verifyNoMoreInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("Si vence lock_timeout se rechaza la operación y se deshace la transacción")
+    void shouldRejectAndRollback_WhenLockTimesOut() {
+        // ARRANGE
+        when(jdbcTemplate.queryForObject(eq("SELECT pg_try_advisory_xact_lock(?, ?)"), eq(Boolean.class), anyInt(), anyInt()))
+                .thenReturn(false);
+        when(jdbcTemplate.queryForObject(eq("SELECT pg_advisory_xact_lock(?, ?)::text"), eq(String.class), anyInt(), anyInt()))
+                .thenThrow(new CannotAcquireLockException("lock timeout",
+                        new SQLException("canceling statement due to lock timeout", "55P03")));
+
+        // ACT & ASSERT
+        assertThrows(ReservationValidationException.class,
+                () -> lockManager.executeWithLock("barber1", () -> "reserva"));
+        verify(jdbcTemplate).execute("SET LOCAL lock_timeout = '5000ms'");
+        verify(transactionManager).rollback(transactionStatus);
+    }
+}
@@ -0,0 +1,75 @@
+package com.sw3.reservation_microservice.service.locking;
+
+import com.sw3.reservation_microservice.config.controladorExcepciones.excepcionesPropias.ReservationValidationException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class StripedBookingLockManagerTest {
+
+    @Test
+    @DisplayName("Las operaciones sobre el mismo barbero nunca se ejecutan a la vez")
+    void shouldSerializeSameBarber() throws Exception {
+        StripedBookingLockManager lockManager = new StripedBookingLockManager(16, 5000);
+        AtomicInteger inside = new AtomicInteger();
+        AtomicInteger maxInside = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        try {
+            for (int i = 0; i < 200; i++) {
+                executor.submit(() -> lockManager.executeWithLock("barber1", () -> {
+                    maxInside.accumulateAndGet(inside.incrementAndGet(), Math::max);
+                    inside.decrementAndGet();
+                    return null;
+                }));
+            }
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+
+        assertThat(maxInside.get()).isEqualTo(1);
+        assertThat(lockManager.getMetrics().getAcquisitions()).isEqualTo(200);
+    }
+
+    @Test
+    @DisplayName("Debe fallar con ReservationValidationException si el bloqueo no llega a tiempo")
+    void shouldTimeout_WhenBarberIsBusy() throws Exception {
+        StripedBookingLockManager lockManager = new StripedBookingLockManager(16, 50);
+        CountDownLatch holding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            Future<?> holder = executor.submit(() -> lockManager.executeWithLock("barber1", () -> {
+                holding.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return null;
+            }));
+            holding.await();
+
+            assertThrows(ReservationValidationException.class,
+                    () -> lockManager.executeWithLock("barber1", () -> null));
+
+            release.countDown();
+            holder.get();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(lockManager.getMetrics().getTimeouts()).isEqualTo(1);
+    }
+}
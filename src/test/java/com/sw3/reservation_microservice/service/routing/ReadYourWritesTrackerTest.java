@@ -0,0 +1,105 @@
+package com.sw3.reservation_microservice.service.routing;
+
+import com.sw3.reservation_microservice.config.ReplicaRoutingDataSource;
+import com.sw3.reservation_microservice.domain.model.Reservation;
+import com.sw3.reservation_microservice.service.event.ReservationChangedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReadYourWritesTrackerTest {
+
+    /** Expone la clave de enrutamiento que normalmente solo consulta AbstractRoutingDataSource */
+    private static final class InspectableRouting extends ReplicaRoutingDataSource {
+        Object currentTarget() {
+            return determineCurrentLookupKey();
+        }
+    }
+
+    private final InspectableRouting routing = new InspectableRouting();
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    @DisplayName("Solo las transacciones de solo lectura van a la réplica")
+    void shouldRouteReadOnlyTransactionsToReplica() {
+        // ARRANGE / ACT / ASSERT
+        assertThat(routing.currentTarget()).isEqualTo(ReplicaRoutingDataSource.Target.PRIMARY);
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertThat(routing.currentTarget()).isEqualTo(ReplicaRoutingDataSource.Target.REPLICA);
+        assertThat(ReplicaRoutingDataSource.onPrimary(routing::currentTarget))
+                .isEqualTo(ReplicaRoutingDataSource.Target.PRIMARY);
+        // Al salir de onPrimary se vuelve a la réplica
+        assertThat(routing.currentTarget()).isEqualTo(ReplicaRoutingDataSource.Target.REPLICA);
+    }
+
+    @Test
+    @DisplayName("Tras una escritura, las lecturas del cliente van a la primaria durante la ventana")
+    void shouldReadFromPrimary_AfterClientWrite() throws InterruptedException {
+        // ARRANGE
+        ReadYourWritesTracker tracker = new ReadYourWritesTracker(true, 1000);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        // ACT
+        tracker.onReservationChanged(ReservationChangedEvent.of(ReservationChangedEvent.Type.CREATED, reservation("cliente1")));
+
+        // ASSERT
+        assertThat(tracker.read("cliente1", routing::currentTarget)).isEqualTo(ReplicaRoutingDataSource.Target.PRIMARY);
+        assertThat(tracker.read("cliente2", routing::currentTarget)).isEqualTo(ReplicaRoutingDataSource.Target.REPLICA);
+        assertThat(tracker.readBarber("barber1", routing::currentTarget)).isEqualTo(ReplicaRoutingDataSource.Target.PRIMARY);
+
+        Thread.sleep(1100);
+        assertThat(tracker.read("cliente1", routing::currentTarget)).isEqualTo(ReplicaRoutingDataSource.Target.REPLICA);
+        assertThat(tracker.readBarber("barber1", routing::currentTarget)).isEqualTo(ReplicaRoutingDataSource.Target.REPLICA);
+        assertThat(tracker.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Sin réplica configurada no se abre ninguna ventana")
+    void shouldIgnoreWrites_WhenReplicaDisabled() {
+        // ARRANGE
+        ReadYourWritesTracker tracker = new ReadYourWritesTracker(false, 5000);
+
+        // ACT
+        tracker.recordWrite("cliente1", "barber1");
+
+        // ASSERT
+        assertThat(tracker.mustReadFromPrimary("cliente1")).isFalse();
+        assertThat(tracker.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("La purga descarta las ventanas vencidas")
+    void shouldPurgeExpiredWindows() throws InterruptedException {
+        // ARRANGE
+        ReadYourWritesTracker tracker = new ReadYourWritesTracker(true, 10);
+        tracker.recordWrite("cliente1", "barber1");
+        tracker.recordWrite("cliente2", null);
+
+        // ACT
+        Thread.sleep(30);
+        tracker.purgeExpired();
+
+        // ASSERT
+        assertThat(tracker.size()).isZero();
+    }
+
+    private Reservation reservation(String clientId) {
+        Reservation reservation = new Reservation();
+        reservation.setId(1L);
+        reservation.setClientId(clientId);
+        reservation.setBarberId("barber1");
+        reservation.setStartTime(LocalDateTime.now().plusDays(1));
+        reservation.setEndTime(LocalDateTime.now().plusDays(1).plusMinutes(30));
+        return reservation;
+    }
+}
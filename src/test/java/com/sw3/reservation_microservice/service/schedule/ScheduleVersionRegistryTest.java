@@ -0,0 +1,78 @@
+package com.sw3.reservation_microservice.service.schedule;
+
+import com.sw3.reservation_microservice.domain.model.Reservation;
+import com.sw3.reservation_microservice.service.event.CacheInvalidatedEvent;
+import com.sw3.reservation_microservice.service.event.ReservationChangedEvent;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class ScheduleVersionRegistryTest {
+
+    private final ScheduleVersionRegistry registry = new ScheduleVersionRegistry(4096);
+
+    private final LocalDate day = LocalDate.of(2030, 1, 7);
+
+    @Test
+    @DisplayName("Reprogramar cambia el ETag del día anterior y del nuevo")
+    void shouldBumpBothDays_OnReschedule() {
+        // ARRANGE
+        LocalDate nextDay = day.plusDays(1);
+        String before = registry.etag("barber1", day);
+        String nextBefore = registry.etag("barber1", nextDay);
+        Reservation moved = reservation("barber1", nextDay.atTime(10, 0));
+
+        // ACT
+        registry.onReservationChanged(ReservationChangedEvent.rescheduled(moved, day.atTime(10, 0), day.atTime(10, 30)));
+
+        // ASSERT
+        assertThat(registry.etag("barber1", day)).isNotEqualTo(before);
+        assertThat(registry.etag("barber1", nextDay)).isNotEqualTo(nextBefore);
+    }
+
+    @Test
+    @DisplayName("Una escritura de otro barbero no invalida la agenda si cae en otra franja")
+    void shouldKeepETag_WhenOtherBarberChanges() {
+        // ARRANGE
+        assumeTrue(registry.stripe("barber1", day) != registry.stripe("barber2", day));
+        String before = registry.etag("barber1", day);
+
+        // ACT
+        registry.onReservationChanged(ReservationChangedEvent.of(ReservationChangedEvent.Type.CREATED,
+                reservation("barber2", day.atTime(9, 0))));
+
+        // ASSERT
+        assertThat(registry.etag("barber1", day)).isEqualTo(before);
+        assertThat(before).startsWith("\"").endsWith("\"");
+    }
+
+    @Test
+    @DisplayName("Una invalidación de otro nodo cambia el ETag de todos los días del barbero")
+    void shouldBumpEveryDay_OnRemoteInvalidation() {
+        // ARRANGE
+        String today = registry.etag("barber1", day);
+        String nextMonth = registry.etag("barber1", day.plusMonths(1));
+
+        // ACT
+        registry.onCacheInvalidated(new CacheInvalidatedEvent(Set.of("barber1"), Set.of()));
+
+        // ASSERT
+        assertThat(registry.etag("barber1", day)).isNotEqualTo(today);
+        assertThat(registry.etag("barber1", day.plusMonths(1))).isNotEqualTo(nextMonth);
+    }
+
+    private static Reservation reservation(String barberId, LocalDateTime start) {
+        Reservation reservation = new Reservation();
+        reservation.setId(1L);
+        reservation.setBarberId(barberId);
+        reservation.setStartTime(start);
+        reservation.setEndTime(start.plusMinutes(30));
+        return reservation;
+    }
+}
@@ -0,0 +1,150 @@
+package com.sw3.reservation_microservice.service.validation;
+
+import com.sw3.reservation_microservice.config.controladorExcepciones.excepcionesPropias.ReservationValidationException;
+import com.sw3.reservation_microservice.controller.dto.request.CreateReservationRequestDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ValidationPlanTest {
+
+    private ExecutorService executor;
+    private ReservationValidationContext context;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+        context = new ReservationValidationContext(new CreateReservationRequestDTO());
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Los pasos independientes se ejecutan a la vez")
+    void shouldRunIndependentStepsConcurrently() {
+        // ARRANGE: cada paso espera a que el otro haya empezado; en secuencia nunca terminarían
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        Consumer<ReservationValidationContext> waitForPeer = ctx -> {
+            bothStarted.countDown();
+            try {
+                if (!bothStarted.await(2, TimeUnit.SECONDS)) {
+                    throw new ReservationValidationException("Se ejecutaron en secuencia");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        ValidationPlan plan = ValidationPlan.builder()
+                .async(handler(waitForPeer))
+                .async(handler(waitForPeer))
+                .build();
+
+        // ACT & ASSERT
+        assertThatCode(() -> plan.run(context, executor)).doesNotThrowAnyException();
+        assertThat(context.getStageTimingsMicros()).isNotEmpty();
+    }
+
+    @Test
+    @DisplayName("Gana el error del primer paso en orden de la cadena aunque otro falle antes")
+    void shouldReportEarliestFailingStep_InChainOrder() {
+        // ARRANGE: el primer paso tarda y falla; el segundo falla de inmediato
+        BaseValidatorHandler slowFailure = handler(ctx -> {
+            sleep(200);
+            throw new ReservationValidationException("primero");
+        });
+        BaseValidatorHandler fastFailure = handler(ctx -> {
+            throw new ReservationValidationException("segundo");
+        });
+        ValidationPlan plan = ValidationPlan.builder()
+                .async(slowFailure)
+                .async(fastFailure)
+                .build();
+
+        // ACT
+        ReservationValidationException ex = assertThrows(ReservationValidationException.class,
+                () -> plan.run(context, executor));
+
+        // ASSERT
+        assertThat(ex.formatException()).contains("primero");
+    }
+
+    @Test
+    @DisplayName("Un paso no se ejecuta si falló un paso del que depende")
+    void shouldSkipDependents_WhenDependencyFails() {
+        // ARRANGE
+        AtomicBoolean dependentRan = new AtomicBoolean(false);
+        BaseValidatorHandler failing = handler(ctx -> {
+            throw new ReservationValidationException("servicio");
+        });
+        BaseValidatorHandler dependent = handler(ctx -> dependentRan.set(true));
+        ValidationPlan plan = ValidationPlan.builder()
+                .async(failing)
+                .async(dependent, failing)
+                .build();
+
+        // ACT & ASSERT
+        assertThrows(ReservationValidationException.class, () -> plan.run(context, executor));
+        assertThat(dependentRan).isFalse();
+    }
+
+    @Test
+    @DisplayName("Los pasos inline corren en el hilo que llama aunque dependan de un paso async")
+    void shouldRunInlineSteps_OnCallerThread() {
+        // ARRANGE: la dependencia termina en el executor después de declararse el paso inline
+        AtomicReference<Thread> inlineThread = new AtomicReference<>();
+        BaseValidatorHandler lookup = handler(ctx -> sleep(100));
+        BaseValidatorHandler inline = handler(ctx -> inlineThread.set(Thread.currentThread()));
+        ValidationPlan plan = ValidationPlan.builder()
+                .async(lookup)
+                .inline(inline, lookup)
+                .build();
+
+        // ACT
+        plan.run(context, executor);
+
+        // ASSERT
+        assertThat(inlineThread.get()).isSameAs(Thread.currentThread());
+    }
+
+    @Test
+    @DisplayName("Las dependencias deben declararse antes que el paso que las usa")
+    void shouldRejectForwardDependencies() {
+        BaseValidatorHandler later = handler(ctx -> { });
+
+        assertThrows(IllegalArgumentException.class,
+                () -> ValidationPlan.builder().async(handler(ctx -> { }), later));
+    }
+
+    private BaseValidatorHandler handler(Consumer<ReservationValidationContext> body) {
+        return new BaseValidatorHandler() {
+            @Override
+            protected void validateConcrete(ReservationValidationContext ctx) {
+                body.accept(ctx);
+            }
+        };
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
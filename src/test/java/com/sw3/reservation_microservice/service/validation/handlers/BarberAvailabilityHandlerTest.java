@@ -1,11 +1,13 @@
 package com.sw3.reservation_microservice.service.validation.handlers;
 
-import com.sw3.reservation_microservice.access.ReservationRepository;
-import com.sw3.reservation_microservice.access.ServiceRepository;
 import com.sw3.reservation_microservice.config.controladorExcepciones.excepcionesPropias.ReservationValidationException;
 import com.sw3.reservation_microservice.controller.dto.request.CreateReservationRequestDTO;
-import com.sw3.reservation_microservice.domain.model.Reservation;
+import com.sw3.reservation_microservice.controller.dto.response.AvailableSlotDTO;
 import com.sw3.reservation_microservice.domain.model.ServiceEntity;
+import com.sw3.reservation_microservice.service.availability.AlternativeSlotSuggester;
+import com.sw3.reservation_microservice.service.availability.ReservationOverlapChecker;
+import com.sw3.reservation_microservice.service.availability.SlotHoldRegistry;
+import com.sw3.reservation_microservice.service.validation.ReservationValidationContext;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -14,10 +16,9 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDateTime;
-import java.util.Collections;
 import java.util.List;
-import java.util.Optional;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatCode;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
@@ -29,10 +30,13 @@ import static org.mockito.Mockito.when;
 class BarberAvailabilityHandlerTest {
 
     @Mock
-    private ReservationRepository reservationRepository;
+    private ReservationOverlapChecker overlapChecker;
 
     @Mock
-    private ServiceRepository serviceRepository;
+    private SlotHoldRegistry slotHoldRegistry;
+
+    @Mock
+    private AlternativeSlotSuggester alternativeSlotSuggester;
 
     @InjectMocks
     private BarberAvailabilityHandler handler;
@@ -47,25 +51,26 @@ class BarberAvailabilityHandlerTest {
         request.setServiceId(1L);
         request.setStartTime(LocalDateTime.now().plusHours(1));
 
-        // Simulamos el servicio (duración 30 min)
+        // Simulamos el servicio ya resuelto en el contexto (duración 30 min)
         ServiceEntity service = new ServiceEntity();
         service.setDuration(30);
-        when(serviceRepository.findById(1L)).thenReturn(Optional.of(service));
+        ReservationValidationContext context = new ReservationValidationContext(request);
+        context.resolveService(service);
 
-        // Simulamos que NO hay reservas solapadas (lista vacía)
-        when(reservationRepository.findOverlappingReservations(
+        // Simulamos que NO hay reservas solapadas
+        when(overlapChecker.hasOverlap(
                 eq("barber1"), any(LocalDateTime.class), any(LocalDateTime.class))
-        ).thenReturn(Collections.emptyList());
+        ).thenReturn(false);
 
         // ACT & ASSERT
         // assertThatCode(...).doesNotThrowAnyException() verifica que el método corra hasta el final
-        assertThatCode(() -> handler.validateConcrete(request))
+        assertThatCode(() -> handler.validateConcrete(context))
                 .doesNotThrowAnyException();
     }
 
     // --- TEST 2: Barbero Ocupado (Fallo) ---
     @Test
-    @DisplayName("Debe lanzar excepción si el barbero ya tiene reserva en ese horario")
+    @DisplayName("Debe lanzar excepción con horarios alternativos si el barbero ya tiene reserva en ese horario")
     void shouldThrowException_WhenBarberIsBusy() {
         // ARRANGE
         CreateReservationRequestDTO request = new CreateReservationRequestDTO();
@@ -75,35 +80,38 @@ class BarberAvailabilityHandlerTest {
 
         ServiceEntity service = new ServiceEntity();
         service.setDuration(30);
-        when(serviceRepository.findById(1L)).thenReturn(Optional.of(service));
+        ReservationValidationContext context = new ReservationValidationContext(request);
+        context.resolveService(service);
 
         // Simulamos que SÍ hay una reserva chocando
-        List<Reservation> overlapping = List.of(new Reservation());
-        when(reservationRepository.findOverlappingReservations(
+        when(overlapChecker.hasOverlap(
                 eq("barber1"), any(LocalDateTime.class), any(LocalDateTime.class))
-        ).thenReturn(overlapping);
+        ).thenReturn(true);
+        AvailableSlotDTO alternative = new AvailableSlotDTO("barber1",
+                request.getStartTime().plusMinutes(30), request.getStartTime().plusMinutes(60));
+        when(alternativeSlotSuggester.suggest(eq("barber1"), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(List.of(alternative));
 
         // ACT & ASSERT
-        assertThrows(ReservationValidationException.class, () -> {
-            handler.validateConcrete(request);
+        ReservationValidationException ex = assertThrows(ReservationValidationException.class, () -> {
+            handler.validateConcrete(context);
         });
+        assertThat(ex.getAlternativas()).containsExactly(alternative);
     }
 
-    // --- TEST 3: Servicio No Existe (Fallo) ---
+    // --- TEST 3: Servicio No Resuelto (Fallo) ---
     @Test
-    @DisplayName("Debe lanzar excepción si el servicio solicitado no existe")
+    @DisplayName("Debe lanzar excepción si ningún validador previo resolvió el servicio")
     void shouldThrowException_WhenServiceNotFound() {
         // ARRANGE
         CreateReservationRequestDTO request = new CreateReservationRequestDTO();
         request.setBarberId("barber1");
         request.setServiceId(99L); // ID inexistente
 
-        when(serviceRepository.findById(99L)).thenReturn(Optional.empty());
-
         // ACT & ASSERT
         // Nota: El código lanza ReservationValidationException con mensaje "Servicio no encontrado"
         assertThrows(ReservationValidationException.class, () -> {
-            handler.validateConcrete(request);
+            handler.validateConcrete(new ReservationValidationContext(request));
         });
     }
 
@@ -117,7 +125,33 @@ class BarberAvailabilityHandlerTest {
 
         // ACT & ASSERT
         assertThrows(ReservationValidationException.class, () -> {
-            handler.validateConcrete(request);
+            handler.validateConcrete(new ReservationValidationContext(request));
         });
     }
-}
\ No newline at end of file
+
+    // --- TEST 5: Horario Apartado (Hold) ---
+    @Test
+    @DisplayName("Con un hold propio se sigue verificando el solapamiento con reservas de otros nodos")
+    void shouldStillCheckOverlap_WhenClientHasHold() {
+        // ARRANGE
+        CreateReservationRequestDTO request = new CreateReservationRequestDTO();
+        request.setClientId("cliente1");
+        request.setBarberId("barber1");
+        request.setServiceId(1L);
+        request.setStartTime(LocalDateTime.now().plusHours(1));
+        request.setHoldToken("hold-1");
+
+        ServiceEntity service = new ServiceEntity();
+        service.setDuration(30);
+        ReservationValidationContext context = new ReservationValidationContext(request);
+        context.resolveService(service);
+
+        // El hold propio no es conflicto, pero otra instancia aceptó una reserva en ese horario
+        when(overlapChecker.hasOverlap(eq("barber1"), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(true);
+
+        // ACT & ASSERT
+        assertThrows(ReservationValidationException.class, () -> handler.validateConcrete(context));
+        verify(overlapChecker).hasOverlap(eq("barber1"), any(LocalDateTime.class), any(LocalDateTime.class));
+    }
+}